@@ -0,0 +1,92 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load: each client logs in and reads its profile, back to back, until the run ends.
+// Usage: java LoginStorm.java <baseUrl> <clients> <seconds>   (needs JDK 21)
+public class LoginStorm {
+    private static final String[] ACCOUNTS = {"manager@company.com", "john.doe@company.com", "jane.smith@company.com"};
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        AtomicLong ok = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<List<Long>> latencies = new ArrayList<>();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                List<Long> samples = new ArrayList<>();
+                latencies.add(samples);
+                String email = ACCOUNTS[i % ACCOUNTS.length];
+                clientThreads.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            if (loginAndReadProfile(http, baseUrl, email)) {
+                                ok.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                        }
+                        samples.add(System.nanoTime() - start);
+                    }
+                });
+            }
+        }
+
+        List<Long> all = new ArrayList<>();
+        latencies.forEach(all::addAll);
+        Collections.sort(all);
+        System.out.printf("clients=%d seconds=%d ok=%d failed=%d throughput=%.1f/s p50=%dms p99=%dms%n",
+                clients, seconds, ok.get(), failed.get(), ok.get() / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private static boolean loginAndReadProfile(HttpClient http, String baseUrl, String email) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"" + email + "\",\"password\":\"password\"}"))
+                .build();
+        HttpResponse<String> loginResponse = http.send(login, HttpResponse.BodyHandlers.ofString());
+        Matcher token = TOKEN.matcher(loginResponse.body());
+        if (loginResponse.statusCode() != 200 || !token.find()) {
+            return false;
+        }
+
+        HttpRequest profile = HttpRequest.newBuilder(URI.create(baseUrl + "/api/profiles/me"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + token.group(1))
+                .GET()
+                .build();
+        return http.send(profile, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return Duration.ofNanos(sorted.get((int) Math.min(sorted.size() - 1, sorted.size() * p))).toMillis();
+    }
+}
@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+# Runs the backend once on the platform-thread Tomcat pool and once with the virtual-threads profile,
+# driving each with LoginStorm. Needs JDK 21 on PATH and the database from docker-compose running.
+#
+#   ./bench/compare-thread-modes.sh [clients] [seconds]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+CLIENTS="${1:-2000}"
+SECONDS_PER_RUN="${2:-60}"
+BASE_URL="http://localhost:8080"
+JWT_SECRET="${JWT_SECRET:-benchmarkSecretKeyThatIsLongEnoughForHS256Algorithm}"
+
+mvn -B -q package -DskipTests
+JAR=target/hr-backend-1.0.0.jar
+
+run_mode() {
+  local label="$1" profiles="$2"
+  java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+    --spring.profiles.active="$profiles" \
+    --spring.security.jwt.secret="$JWT_SECRET" \
+    --hrapp.security.login-rate-limit.enabled=false \
+    --logging.level.org.springframework.security=WARN > "target/bench-$label.log" 2>&1 &
+  local pid=$!
+
+  until curl -sf "$BASE_URL/actuator/health" > /dev/null; do sleep 1; done
+  # Warm up the JIT and the connection pool before measuring
+  java bench/LoginStorm.java "$BASE_URL" 50 10 > /dev/null
+  echo -n "$label: "
+  java bench/LoginStorm.java "$BASE_URL" "$CLIENTS" "$SECONDS_PER_RUN"
+
+  if grep -q "onPinned\|<== monitors" "target/bench-$label.log"; then
+    echo "$label: pinned virtual threads reported, see target/bench-$label.log"
+  fi
+  kill $pid
+  wait $pid 2>/dev/null || true
+}
+
+run_mode platform "${SPRING_PROFILES_ACTIVE:-default}"
+run_mode virtual "${SPRING_PROFILES_ACTIVE:-default},virtual-threads"
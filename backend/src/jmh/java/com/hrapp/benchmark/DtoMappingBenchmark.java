@@ -0,0 +1,106 @@
+package com.hrapp.benchmark;
+
+import com.hrapp.dto.AbsenceRequestDto;
+import com.hrapp.dto.ProfileBasicDto;
+import com.hrapp.dto.ProfileDetailDto;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.model.EmployeeProfile;
+import com.hrapp.repository.AbsenceRequestRepository;
+import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.security.HrPrincipal;
+import com.hrapp.service.AbsenceRequestService;
+import com.hrapp.service.EmployeeProfileService;
+import com.hrapp.service.ProfileDirectoryCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Entity -> DTO conversion through the public service methods, with repositories answering from memory
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private SyntheticData data;
+    private AbsenceRequestService absenceRequestService;
+    private EmployeeProfileService employeeProfileService;
+    private HrPrincipal managerPrincipal;
+    private HrPrincipal employeePrincipal;
+
+    @Setup
+    public void setUp() {
+        // One profile and one absence request per unit of size, all reporting to a single manager
+        data = new SyntheticData(size, size);
+        Map<UUID, EmployeeProfile> profilesById = data.profiles.stream()
+                .collect(Collectors.toMap(EmployeeProfile::getId, Function.identity()));
+        Map<UUID, ProfileDirectoryEntry> entriesByUserId = data.directoryEntries().stream()
+                .collect(Collectors.toMap(ProfileDirectoryEntry::getUserId, Function.identity()));
+
+        EmployeeProfileRepository profileRepository = SyntheticData.stub(EmployeeProfileRepository.class, Map.of(
+                "findListInOrgOf", args -> data.profiles,
+                "findById", args -> Optional.ofNullable(profilesById.get((UUID) args[0])),
+                "findDirectoryEntriesByUserIdIn", args -> ((Collection<?>) args[0]).stream()
+                        .map(entriesByUserId::get)
+                        .collect(Collectors.toList())));
+        AbsenceRequestRepository requestRepository = SyntheticData.stub(AbsenceRequestRepository.class, Map.of(
+                "findListByEmployeeId", args -> data.requests));
+
+        ProfileDirectoryCache cache = new ProfileDirectoryCache();
+        ReflectionTestUtils.setField(cache, "employeeProfileRepository", profileRepository);
+
+        absenceRequestService = new AbsenceRequestService();
+        ReflectionTestUtils.setField(absenceRequestService, "absenceRequestRepository", requestRepository);
+        ReflectionTestUtils.setField(absenceRequestService, "profileDirectoryCache", cache);
+
+        employeeProfileService = new EmployeeProfileService();
+        ReflectionTestUtils.setField(employeeProfileService, "employeeProfileRepository", profileRepository);
+        ReflectionTestUtils.setField(employeeProfileService, "profileDirectoryCache", cache);
+
+        managerPrincipal = new HrPrincipal(data.manager.getId(), data.manager.getEmail(), data.manager.getRole());
+        employeePrincipal = new HrPrincipal(data.employees.get(0).getId(), data.employees.get(0).getEmail(),
+                data.employees.get(0).getRole());
+    }
+
+    @Benchmark
+    public List<AbsenceRequestDto> absenceRequestsToDtos() {
+        return absenceRequestService.getMyAbsenceRequests(employeePrincipal);
+    }
+
+    @Benchmark
+    public List<ProfileDetailDto> profilesToDetailDtos() {
+        return employeeProfileService.getAllDetailProfiles(managerPrincipal);
+    }
+
+    @Benchmark
+    public void profilesToBasicDtos(Blackhole blackhole) {
+        for (EmployeeProfile profile : data.profiles) {
+            ProfileBasicDto dto = employeeProfileService.getBasicProfile(profile.getId(), employeePrincipal);
+            blackhole.consume(dto);
+        }
+    }
+}
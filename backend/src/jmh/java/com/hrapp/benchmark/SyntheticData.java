@@ -0,0 +1,121 @@
+package com.hrapp.benchmark;
+
+import com.hrapp.dto.AbsenceRequestDto;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.model.AbsenceRequest;
+import com.hrapp.model.AbsenceStatus;
+import com.hrapp.model.EmployeeProfile;
+import com.hrapp.model.User;
+import com.hrapp.model.UserRole;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Deterministic entity graphs and in-memory repository stubs, so benchmarks measure mapping rather than I/O
+final class SyntheticData {
+
+    private static final String[] DEPARTMENTS = {"Engineering", "Sales", "Finance", "People", "Operations"};
+
+    final User manager;
+    final List<User> employees = new ArrayList<>();
+    final List<EmployeeProfile> profiles = new ArrayList<>();
+    final List<AbsenceRequest> requests = new ArrayList<>();
+
+    SyntheticData(int employeeCount, int requestCount) {
+        Random random = new Random(42);
+        manager = user("manager@company.com", UserRole.MANAGER);
+        profiles.add(profile(manager, 0, null));
+
+        for (int i = 1; i <= employeeCount; i++) {
+            User employee = user("employee" + i + "@company.com", UserRole.EMPLOYEE);
+            employees.add(employee);
+            profiles.add(profile(employee, i, manager));
+        }
+
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < requestCount; i++) {
+            User employee = employees.get(random.nextInt(employees.size()));
+            LocalDate from = start.plusDays(random.nextInt(365));
+            AbsenceRequest request = new AbsenceRequest(employee, from, from.plusDays(random.nextInt(10)), "Synthetic request " + i);
+            request.setId(UUID.randomUUID());
+            request.setRequestedAt(LocalDateTime.of(2024, 1, 1, 9, 0).plusMinutes(i));
+            if (i % 3 == 0) {
+                request.setStatus(AbsenceStatus.APPROVED);
+                request.setApprovedBy(manager);
+                request.setApprovedAt(request.getRequestedAt().plusHours(4));
+                request.setComments("Approved");
+            }
+            requests.add(request);
+        }
+    }
+
+    List<ProfileDirectoryEntry> directoryEntries() {
+        List<ProfileDirectoryEntry> entries = new ArrayList<>();
+        for (EmployeeProfile profile : profiles) {
+            entries.add(new ProfileDirectoryEntry(profile.getUser().getId(), profile.getFirstName(), profile.getLastName(),
+                    profile.getDepartment(), profile.getManager() != null ? profile.getManager().getId() : null));
+        }
+        return entries;
+    }
+
+    List<AbsenceRequestDto> requestDtos() {
+        List<AbsenceRequestDto> dtos = new ArrayList<>();
+        for (AbsenceRequest request : requests) {
+            AbsenceRequestDto dto = new AbsenceRequestDto();
+            dto.setId(request.getId());
+            dto.setEmployeeId(request.getEmployee().getId());
+            dto.setEmployeeName("Employee " + request.getEmployee().getEmail());
+            dto.setStartDate(request.getStartDate());
+            dto.setEndDate(request.getEndDate());
+            dto.setReason(request.getReason());
+            dto.setStatus(request.getStatus());
+            dto.setRequestedAt(request.getRequestedAt());
+            if (request.getApprovedBy() != null) {
+                dto.setApprovedBy(request.getApprovedBy().getId());
+                dto.setApprovedByName("Alice Manager");
+                dto.setApprovedAt(request.getApprovedAt());
+                dto.setComments(request.getComments());
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    // Repository interface whose listed methods answer from memory; anything else fails loudly
+    @SuppressWarnings("unchecked")
+    static <T> T stub(Class<T> repositoryType, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[] {repositoryType},
+                (proxy, method, args) -> {
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.getName() + " is not stubbed");
+                    }
+                    return answer.apply(args);
+                });
+    }
+
+    private static User user(String email, UserRole role) {
+        User user = new User(email, "$2a$10$hash", role);
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+
+    private static EmployeeProfile profile(User user, int index, User manager) {
+        EmployeeProfile profile = new EmployeeProfile(user, String.format("EMP%05d", index), "First" + index, "Last" + index);
+        profile.setId(UUID.randomUUID());
+        profile.setDepartment(DEPARTMENTS[index % DEPARTMENTS.length]);
+        profile.setPosition("Position " + index);
+        profile.setHireDate(LocalDate.of(2020, 1, 1).plusDays(index));
+        profile.setPhone("555-" + index);
+        profile.setAddress(index + " Main Street");
+        profile.setManager(manager);
+        return profile;
+    }
+}
@@ -0,0 +1,112 @@
+package com.hrapp.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Keeps every sample per endpoint (a two minute run is a few hundred thousand longs) so percentiles are exact
+public class LatencyRecorder {
+
+    private final Map<String, Samples> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long startedAt;
+    private volatile long stoppedAt;
+
+    public void start() {
+        endpoints.clear();
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    public void stop() {
+        stoppedAt = System.nanoTime();
+        recording = false;
+    }
+
+    public void record(String endpoint, long nanos, boolean success) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new Samples()).add(nanos, success);
+        }
+    }
+
+    public void printSummary() {
+        double seconds = elapsedSeconds();
+        System.out.printf(Locale.ROOT, "%n%-40s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(endpoints).entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            System.out.printf(Locale.ROOT, "%-40s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey(), sorted.length, entry.getValue().errors(), sorted.length / seconds,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)),
+                    millis(percentile(sorted, 0.99)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+        }
+    }
+
+    public void writeJson(Path reportFile) throws IOException {
+        double seconds = elapsedSeconds();
+        StringBuilder json = new StringBuilder("{\n  \"durationSeconds\": ")
+                .append(String.format(Locale.ROOT, "%.1f", seconds)).append(",\n  \"endpoints\": [");
+        boolean first = true;
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(endpoints).entrySet()) {
+            long[] sorted = entry.getValue().sorted();
+            json.append(first ? "\n" : ",\n").append(String.format(Locale.ROOT,
+                    "    {\"endpoint\": \"%s\", \"requests\": %d, \"errors\": %d, \"throughput\": %.2f, "
+                            + "\"p50Ms\": %.2f, \"p95Ms\": %.2f, \"p99Ms\": %.2f}",
+                    entry.getKey(), sorted.length, entry.getValue().errors(), sorted.length / seconds,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)), millis(percentile(sorted, 0.99))));
+            first = false;
+        }
+        json.append("\n  ]\n}\n");
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.writeString(reportFile, json);
+    }
+
+    private double elapsedSeconds() {
+        long end = recording ? System.nanoTime() : stoppedAt;
+        return Math.max(end - startedAt, 1) / 1e9;
+    }
+
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Nearest-rank: the smallest sample with at least quantile * n samples at or below it
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(values, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.hrapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Closed-loop user sessions: every client logs in, loads the dashboard, browses the directory and then either
+// files an absence request (employees) or works through the pending queue of their department (managers)
+public class LoadScenario {
+
+    private static final int MANAGER_SESSION_PERCENT = 10;
+
+    private final String baseUrl;
+    private final List<String> employees = new ArrayList<>();
+    private final List<String> managers = new ArrayList<>();
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    public LoadScenario(String baseUrl, Path accountsFile) throws IOException {
+        this.baseUrl = baseUrl;
+        for (String line : Files.readAllLines(accountsFile)) {
+            String[] columns = line.split(",");
+            if (columns[1].equals("MANAGER")) {
+                managers.add(columns[0]);
+            } else if (columns[1].equals("EMPLOYEE")) {
+                employees.add(columns[0]);
+            }
+        }
+        if (employees.isEmpty() || managers.isEmpty()) {
+            throw new IllegalStateException("No generated accounts in " + accountsFile);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (options.baseUrl == null) {
+            throw new IllegalArgumentException("--base-url is required, or use LoadTestRunner to start the backend");
+        }
+        new LoadScenario(options.baseUrl, options.accountsFile).run(options);
+    }
+
+    public void run(LoadTestOptions options) throws Exception {
+        System.out.printf("Running %d clients against %s: %ds warm-up, %ds measured%n",
+                options.clients, baseUrl, options.warmupSeconds, options.durationSeconds);
+        long warmupEnds = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+        long deadline = warmupEnds + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+        ExecutorService clients = Executors.newFixedThreadPool(options.clients);
+        for (int i = 0; i < options.clients; i++) {
+            Random random = new Random(options.seed * 31 + i);
+            clients.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        session(random);
+                    } catch (Exception e) {
+                        recorder.record("session", 0, false);
+                    }
+                }
+            });
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupEnds - System.nanoTime());
+        recorder.start();
+        clients.shutdown();
+        clients.awaitTermination(options.durationSeconds + 60L, TimeUnit.SECONDS);
+        recorder.stop();
+
+        recorder.printSummary();
+        recorder.writeJson(options.reportFile);
+        System.out.println("Report written to " + options.reportFile.toAbsolutePath());
+    }
+
+    private void session(Random random) throws IOException, InterruptedException {
+        boolean manager = random.nextInt(100) < MANAGER_SESSION_PERCENT;
+        String email = manager ? pick(managers, random) : pick(employees, random);
+
+        JsonNode login = send("POST /api/auth/login", "POST", "/api/auth/login", null,
+                "{\"email\":\"" + email + "\",\"password\":\"password\"}");
+        if (login == null) {
+            return;
+        }
+        String token = login.path("token").asText();
+
+        JsonNode me = send("GET /api/profiles/me", "GET", "/api/profiles/me", token, null);
+        send("GET /api/absence-requests/my", "GET", "/api/absence-requests/my", token, null);
+
+        JsonNode directory = send("GET /api/profiles/basic", "GET", "/api/profiles/basic?limit=50", token, null);
+        if (directory != null && random.nextBoolean() && directory.hasNonNull("nextCursor")) {
+            send("GET /api/profiles/basic (next page)", "GET",
+                    "/api/profiles/basic?limit=50&cursor=" + encode(directory.get("nextCursor").asText()), token, null);
+        }
+
+        if (manager) {
+            String department = me == null ? "" : me.path("department").asText("");
+            JsonNode pending = send("GET /api/absence-requests/pending", "GET",
+                    "/api/absence-requests/pending?limit=20&department=" + encode(department), token, null);
+            JsonNode items = pending == null ? null : pending.path("items");
+            if (items != null && items.size() > 0) {
+                String requestId = items.get(random.nextInt(items.size())).path("id").asText();
+                String status = random.nextInt(10) < 8 ? "APPROVED" : "REJECTED";
+                send("PUT /api/absence-requests/{id}/approve", "PUT", "/api/absence-requests/" + requestId + "/approve",
+                        token, "{\"status\":\"" + status + "\",\"comments\":\"load test\"}");
+            }
+        } else {
+            LocalDate start = LocalDate.now().plusDays(30 + random.nextInt(365));
+            send("POST /api/absence-requests", "POST", "/api/absence-requests", token,
+                    "{\"startDate\":\"" + start + "\",\"endDate\":\"" + start.plusDays(random.nextInt(5))
+                            + "\",\"reason\":\"Load test\"}");
+        }
+    }
+
+    // Returns the parsed body, or null when the call failed; either way the latency is recorded under the endpoint name
+    private JsonNode send(String endpoint, String method, String path, String token, String body)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.record(endpoint, System.nanoTime() - start, false);
+            return null;
+        }
+        long elapsed = System.nanoTime() - start;
+        boolean success = response.statusCode() / 100 == 2;
+        recorder.record(endpoint, elapsed, success);
+        return success && response.body().length > 0 ? objectMapper.readTree(response.body()) : null;
+    }
+
+    private static String pick(List<String> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,80 @@
+package com.hrapp.loadtest;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// --key=value command line options shared by the generator, the scenario and the runner
+public class LoadTestOptions {
+
+    // Target database; no --jdbc-url means a throwaway Testcontainers Postgres
+    String jdbcUrl;
+    String dbUser = "hruser";
+    String dbPassword = "hrpassword";
+
+    // Target application; no --base-url means the backend is started in-process against the database above
+    String baseUrl;
+
+    int employees = 50_000;
+    int absenceRequests = 2_000_000;
+    int feedback = 200_000;
+    long seed = 42;
+    boolean reset;
+    boolean skipLoad;
+    Path accountsFile = Path.of("target", "loadtest-accounts.csv");
+
+    int clients = 32;
+    int warmupSeconds = 30;
+    int durationSeconds = 120;
+    Path reportFile = Path.of("target", "loadtest-report.json");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions();
+        options.jdbcUrl = values.remove("jdbc-url");
+        options.dbUser = values.getOrDefault("db-user", options.dbUser);
+        values.remove("db-user");
+        options.dbPassword = values.getOrDefault("db-password", options.dbPassword);
+        values.remove("db-password");
+        options.baseUrl = values.remove("base-url");
+        options.employees = intOption(values, "employees", options.employees);
+        options.absenceRequests = intOption(values, "absence-requests", options.absenceRequests);
+        options.feedback = intOption(values, "feedback", options.feedback);
+        options.seed = intOption(values, "seed", (int) options.seed);
+        options.reset = Boolean.parseBoolean(values.getOrDefault("reset", "false"));
+        values.remove("reset");
+        options.skipLoad = Boolean.parseBoolean(values.getOrDefault("skip-load", "false"));
+        values.remove("skip-load");
+        if (values.containsKey("accounts")) {
+            options.accountsFile = Path.of(values.remove("accounts"));
+        }
+        options.clients = intOption(values, "clients", options.clients);
+        options.warmupSeconds = intOption(values, "warmup", options.warmupSeconds);
+        options.durationSeconds = intOption(values, "duration", options.durationSeconds);
+        if (values.containsKey("report")) {
+            options.reportFile = Path.of(values.remove("report"));
+        }
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> values, String key, int defaultValue) {
+        String value = values.remove(key);
+        return value == null ? defaultValue : Integer.parseInt(value.replace("_", ""));
+    }
+}
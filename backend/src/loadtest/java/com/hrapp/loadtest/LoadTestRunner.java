@@ -0,0 +1,69 @@
+package com.hrapp.loadtest;
+
+import com.hrapp.HrBackendApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+// End-to-end run: database (Testcontainers unless --jdbc-url), synthetic data, backend (in-process unless
+// --base-url) and the scenario. Started by `mvn -P loadtest verify`, options are passed with -Dloadtest.args
+public class LoadTestRunner {
+
+    private static final String POSTGRES_IMAGE = "postgres:15-alpine";
+    private static final Path INIT_SCRIPT = Path.of("..", "database", "init.sql");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        PostgreSQLContainer<?> postgres = null;
+        ConfigurableApplicationContext backend = null;
+        try {
+            if (options.jdbcUrl == null) {
+                postgres = new PostgreSQLContainer<>(POSTGRES_IMAGE)
+                        .withDatabaseName("hrapp")
+                        .withUsername(options.dbUser)
+                        .withPassword(options.dbPassword)
+                        .withCopyFileToContainer(MountableFile.forHostPath(INIT_SCRIPT), "/docker-entrypoint-initdb.d/init.sql");
+                postgres.start();
+                options.jdbcUrl = postgres.getJdbcUrl();
+            }
+
+            if (!options.skipLoad) {
+                try (Connection connection = DriverManager.getConnection(options.jdbcUrl, options.dbUser, options.dbPassword)) {
+                    new SyntheticOrgGenerator(options.employees, options.absenceRequests, options.feedback, options.seed)
+                            .load(connection, options.accountsFile, options.reset);
+                }
+            }
+
+            if (options.baseUrl == null) {
+                backend = new SpringApplicationBuilder(HrBackendApplication.class)
+                        .web(WebApplicationType.SERVLET)
+                        // Command line arguments, so they win over application.yml
+                        .run("--server.port=0",
+                                "--spring.datasource.url=" + options.jdbcUrl,
+                                "--spring.datasource.username=" + options.dbUser,
+                                "--spring.datasource.password=" + options.dbPassword,
+                                "--spring.security.jwt.secret=loadTestSecretKeyThatIsLongEnoughForTheHs256Algorithm",
+                                "--hrapp.security.login-rate-limit.enabled=false",
+                                "--hrapp.admission.enabled=false",
+                                "--logging.level.org.springframework.security=WARN");
+                options.baseUrl = "http://localhost:" + backend.getEnvironment().getProperty("local.server.port");
+            }
+
+            new LoadScenario(options.baseUrl, options.accountsFile).run(options);
+        } finally {
+            if (backend != null) {
+                backend.close();
+            }
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+}
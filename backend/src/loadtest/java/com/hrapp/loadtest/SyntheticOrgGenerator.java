@@ -0,0 +1,346 @@
+package com.hrapp.loadtest;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Random;
+import java.util.UUID;
+
+// Bulk-loads a synthetic organisation with COPY: a manager tree, skewed absence history and coworker feedback.
+// Every generated account uses the demo password "password" and an @loadtest.hrapp email.
+public class SyntheticOrgGenerator {
+
+    static final String EMAIL_DOMAIN = "@loadtest.hrapp";
+    // BCrypt hash of "password", the same one the demo accounts in init.sql use
+    private static final String PASSWORD_HASH = "$2a$10$v6mbuUn869h44yLZUuzuKOpT7LLvyJ9ffiT9hycaxWuO6Rv3pjT4a";
+    private static final int COPY_BUFFER_CHARS = 1 << 16;
+
+    private static final String[] DEPARTMENTS = {
+            "Engineering", "Sales", "Marketing", "Finance", "People", "Operations", "Support", "Legal", "Product"};
+    private static final String[] FIRST_NAMES = {
+            "Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley", "Jamie", "Avery", "Quinn",
+            "Maria", "Wei", "Fatima", "Lars", "Aiko", "Kwame", "Priya", "Mateo", "Olga", "Noah"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Garcia", "Chen", "Okafor", "Novak", "Tanaka", "Silva", "Kowalski", "Haddad", "Jensen",
+            "Patel", "Murphy", "Rossi", "Nguyen", "Schmidt", "Ivanova", "Mensah", "Larsen", "Kim", "Lopez"};
+    private static final String[] REASONS = {
+            "Vacation", "Family event", "Medical appointment", "Sick leave", "Moving house", "Conference", "Personal day"};
+    private static final String[] FEEDBACK = {
+            "Great collaboration on the last release, always quick to help.",
+            "Could share status updates earlier so dependencies are visible.",
+            "Ran a very clear planning session and kept it on time.",
+            "Code reviews are thorough and kind, the team learns a lot.",
+            "Took ownership of a messy incident and followed up with a good write-up."};
+    // Relative weight of each month for absence start dates: summer and December dominate
+    private static final int[] MONTH_WEIGHTS = {6, 5, 6, 7, 8, 10, 16, 16, 7, 6, 6, 14};
+
+    private final int employees;
+    private final int absenceRequests;
+    private final int feedbackRows;
+    private final Random random;
+    private final LocalDate today = LocalDate.now();
+
+    private final UUID[] userIds;
+    private final UUID[] profileIds;
+    private final int[] managerOf;
+    private final boolean[] isManager;
+    private final String[] departmentOf;
+
+    public SyntheticOrgGenerator(int employees, int absenceRequests, int feedbackRows, long seed) {
+        this.employees = employees;
+        this.absenceRequests = absenceRequests;
+        this.feedbackRows = feedbackRows;
+        this.random = new Random(seed);
+        this.userIds = new UUID[employees];
+        this.profileIds = new UUID[employees];
+        this.managerOf = new int[employees];
+        this.isManager = new boolean[employees];
+        this.departmentOf = new String[employees];
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        try (Connection connection = DriverManager.getConnection(options.jdbcUrl, options.dbUser, options.dbPassword)) {
+            new SyntheticOrgGenerator(options.employees, options.absenceRequests, options.feedback, options.seed)
+                    .load(connection, options.accountsFile, options.reset);
+        }
+    }
+
+    public void load(Connection connection, Path accountsFile, boolean reset) throws SQLException, IOException {
+        buildOrgChart();
+        connection.setAutoCommit(false);
+        if (reset) {
+            deletePreviousRun(connection);
+        }
+
+        CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+        long start = System.nanoTime();
+        copyUsers(copy);
+        copyProfiles(copy);
+        copyOrgClosure(copy);
+        copyAbsenceRequests(copy);
+        copyFeedback(copy);
+        connection.commit();
+
+        try (Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute("ANALYZE users, employee_profiles, org_closure, absence_requests, feedback");
+        }
+        System.out.printf("Loaded %d employees, %d absence requests, %d feedback rows in %.1fs%n",
+                employees, absenceRequests, feedbackRows, (System.nanoTime() - start) / 1e9);
+
+        writeAccounts(accountsFile);
+    }
+
+    private void buildOrgChart() {
+        // Breadth-first tree with a span of control of 3-10, so roughly one in six people manages a team
+        for (int i = 0; i < employees; i++) {
+            userIds[i] = UUID.randomUUID();
+            profileIds[i] = UUID.randomUUID();
+        }
+        managerOf[0] = -1;
+        departmentOf[0] = "Executive";
+        Deque<Integer> openManagers = new ArrayDeque<>();
+        openManagers.add(0);
+        int next = 1;
+        while (next < employees) {
+            int manager = openManagers.poll();
+            int span = 3 + random.nextInt(8);
+            for (int k = 0; k < span && next < employees; k++, next++) {
+                managerOf[next] = manager;
+                isManager[manager] = true;
+                // Each of the CEO's direct reports heads a department; everyone below inherits it
+                departmentOf[next] = manager == 0 ? DEPARTMENTS[k % DEPARTMENTS.length] : departmentOf[manager];
+                openManagers.add(next);
+            }
+        }
+    }
+
+    private void deletePreviousRun(Connection connection) throws SQLException {
+        String generated = "SELECT id FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'";
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM feedback WHERE feedback_by IN (" + generated + ")");
+            statement.execute("DELETE FROM absence_requests WHERE employee_id IN (" + generated + ")");
+            statement.execute("DELETE FROM employee_profiles WHERE user_id IN (" + generated + ")");
+            statement.execute("DELETE FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'");
+        }
+    }
+
+    private void copyUsers(CopyManager copy) throws SQLException {
+        try (CsvCopy rows = new CsvCopy(copy, "users (id, email, password_hash, role, created_at, updated_at)")) {
+            for (int i = 0; i < employees; i++) {
+                LocalDateTime created = LocalDateTime.of(2018, 1, 1, 9, 0).plusMinutes(i);
+                rows.row(userIds[i], email(i), PASSWORD_HASH, isManager[i] ? "MANAGER" : "EMPLOYEE", created, created);
+            }
+        }
+    }
+
+    private void copyProfiles(CopyManager copy) throws SQLException {
+        try (CsvCopy rows = new CsvCopy(copy, "employee_profiles (id, user_id, employee_id, first_name, last_name, "
+                + "department, position, hire_date, phone, address, emergency_contact_name, emergency_contact_phone, "
+                + "manager_id, created_at, updated_at)")) {
+            for (int i = 0; i < employees; i++) {
+                LocalDate hired = LocalDate.of(2010, 1, 1).plusDays(random.nextInt(5000));
+                LocalDateTime created = hired.atTime(9, 0);
+                rows.row(profileIds[i], userIds[i], String.format("LT%06d", i), pick(FIRST_NAMES), pick(LAST_NAMES),
+                        departmentOf[i], isManager[i] ? "Manager" : "Specialist", hired,
+                        "555-" + (1000 + random.nextInt(9000)), (1 + random.nextInt(999)) + " Synthetic Street",
+                        pick(FIRST_NAMES) + " " + pick(LAST_NAMES), "555-" + (1000 + random.nextInt(9000)),
+                        managerOf[i] < 0 ? null : userIds[managerOf[i]], created, created);
+            }
+        }
+    }
+
+    // Every employee paired with themselves and each manager above them, as the application maintains it
+    private void copyOrgClosure(CopyManager copy) throws SQLException {
+        try (CsvCopy rows = new CsvCopy(copy, "org_closure (ancestor_id, descendant_id, depth)")) {
+            for (int i = 0; i < employees; i++) {
+                int depth = 0;
+                for (int ancestor = i; ancestor >= 0; ancestor = managerOf[ancestor], depth++) {
+                    rows.row(userIds[ancestor], userIds[i], depth);
+                }
+            }
+        }
+    }
+
+    private void copyAbsenceRequests(CopyManager copy) throws SQLException {
+        // A shuffled ranking decouples absence volume from position in the org chart
+        int[] ranking = shuffledIndexes();
+        // Days already covered by each employee's pending or approved requests, counted from the earliest start date
+        BitSet[] booked = new BitSet[employees];
+        long firstDay = LocalDate.of(today.getYear() - 1, 1, 1).toEpochDay();
+        try (CsvCopy rows = new CsvCopy(copy, "absence_requests (id, employee_id, start_date, end_date, reason, "
+                + "status, approved_by, requested_at, approved_at, comments)")) {
+            for (int r = 0; r < absenceRequests; r++) {
+                // u^3 concentrates requests on a minority of heavy users while everyone gets some
+                double u = random.nextDouble();
+                int employee = ranking[(int) (employees * u * u * u)];
+                LocalDate start = seasonalStartDate();
+                LocalDate end = start.plusDays(duration());
+                LocalDateTime requested = start.minusDays(1 + random.nextInt(60)).atTime(8 + random.nextInt(10), random.nextInt(60));
+                String status = status(start);
+                if (!status.equals("REJECTED")) {
+                    // Pending and approved absences may not overlap (absence_requests_no_overlap); a clash is rejected
+                    if (booked[employee] == null) {
+                        booked[employee] = new BitSet();
+                    }
+                    int from = (int) (start.toEpochDay() - firstDay);
+                    int to = (int) (end.toEpochDay() - firstDay) + 1;
+                    int clash = booked[employee].nextSetBit(from);
+                    if (clash < 0 || clash >= to) {
+                        booked[employee].set(from, to);
+                    } else {
+                        status = "REJECTED";
+                    }
+                }
+                boolean decided = !status.equals("PENDING");
+                int approver = managerOf[employee] < 0 ? employee : managerOf[employee];
+                rows.row(UUID.randomUUID(), userIds[employee], start, end, pick(REASONS), status,
+                        decided ? userIds[approver] : null, requested,
+                        decided ? requested.plusHours(1 + random.nextInt(72)) : null,
+                        decided && random.nextInt(4) == 0 ? "Enjoy" : null);
+            }
+        }
+    }
+
+    private void copyFeedback(CopyManager copy) throws SQLException {
+        try (CsvCopy rows = new CsvCopy(copy, "feedback (id, profile_id, feedback_by, feedback_text, polished_feedback, created_at)")) {
+            for (int f = 0; f < feedbackRows; f++) {
+                int subject = random.nextInt(employees);
+                int author = managerOf[subject] >= 0 && random.nextBoolean() ? managerOf[subject] : random.nextInt(employees);
+                rows.row(UUID.randomUUID(), profileIds[subject], userIds[author], pick(FEEDBACK), null,
+                        today.minusDays(random.nextInt(730)).atTime(10 + random.nextInt(8), random.nextInt(60)));
+            }
+        }
+    }
+
+    private LocalDate seasonalStartDate() {
+        int yearOffset = random.nextInt(10) < 8 ? -random.nextInt(2) : 1;
+        int month = weightedMonth();
+        LocalDate first = LocalDate.of(today.getYear() + yearOffset, month, 1);
+        return first.plusDays(random.nextInt(first.lengthOfMonth()));
+    }
+
+    private int weightedMonth() {
+        int total = 0;
+        for (int weight : MONTH_WEIGHTS) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int month = 0; month < MONTH_WEIGHTS.length; month++) {
+            roll -= MONTH_WEIGHTS[month];
+            if (roll < 0) {
+                return month + 1;
+            }
+        }
+        return 12;
+    }
+
+    private int duration() {
+        // Mostly single days, a tail of one- and two-week holidays
+        int roll = random.nextInt(100);
+        if (roll < 55) {
+            return 0;
+        }
+        if (roll < 85) {
+            return 1 + random.nextInt(3);
+        }
+        return 4 + random.nextInt(11);
+    }
+
+    private String status(LocalDate start) {
+        int roll = random.nextInt(100);
+        if (start.isBefore(today)) {
+            return roll < 85 ? "APPROVED" : roll < 95 ? "REJECTED" : "PENDING";
+        }
+        return roll < 60 ? "PENDING" : roll < 95 ? "APPROVED" : "REJECTED";
+    }
+
+    private int[] shuffledIndexes() {
+        int[] indexes = new int[employees];
+        for (int i = 0; i < employees; i++) {
+            indexes[i] = i;
+        }
+        for (int i = employees - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        return indexes;
+    }
+
+    private void writeAccounts(Path accountsFile) throws IOException {
+        Files.createDirectories(accountsFile.toAbsolutePath().getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(accountsFile, StandardCharsets.UTF_8))) {
+            out.println("email,role");
+            for (int i = 0; i < employees; i++) {
+                out.println(email(i) + "," + (isManager[i] ? "MANAGER" : "EMPLOYEE"));
+            }
+        }
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    static String email(int index) {
+        return "employee" + index + EMAIL_DOMAIN;
+    }
+
+    // Streams CSV rows into COPY ... FROM STDIN in 64k chunks; null becomes an unquoted empty field (SQL NULL)
+    private static final class CsvCopy implements AutoCloseable {
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(COPY_BUFFER_CHARS + 1024);
+
+        CsvCopy(CopyManager copy, String target) throws SQLException {
+            this.copyIn = copy.copyIn("COPY " + target + " FROM STDIN WITH (FORMAT csv)");
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    buffer.append(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else if (value != null) {
+                    buffer.append(value);
+                }
+            }
+            buffer.append('\n');
+            if (buffer.length() >= COPY_BUFFER_CHARS) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+        }
+    }
+
+}
@@ -2,8 +2,10 @@ package com.hrapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class HrBackendApplication {
     public static void main(String[] args) {
         SpringApplication.run(HrBackendApplication.class, args);
@@ -0,0 +1,20 @@
+package com.hrapp.config;
+
+import com.hrapp.service.FeedbackPolisher;
+import com.hrapp.service.LocalFeedbackPolisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FeedbackConfig {
+    
+    @Value("${hrapp.feedback.polishing.local.simulated-latency-ms:0}")
+    private long simulatedLatencyMillis;
+    
+    // The built-in stand-in model; declare a @Primary FeedbackPolisher bean to plug in a real one
+    @Bean
+    public FeedbackPolisher feedbackPolisher() {
+        return new LocalFeedbackPolisher(simulatedLatencyMillis);
+    }
+}
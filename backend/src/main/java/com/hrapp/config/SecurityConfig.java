@@ -1,24 +1,44 @@
 package com.hrapp.config;
 
+import com.hrapp.security.ApiAdmissionFilter;
+import com.hrapp.security.BcryptCostCalibrator;
 import com.hrapp.security.JwtAuthenticationFilter;
+import com.hrapp.security.PasswordHashingExecutor;
+import com.hrapp.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -28,9 +48,69 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     
+    @Autowired
+    private ApiAdmissionFilter apiAdmissionFilter;
+    
+    // 0 calibrates the cost at startup against the latency budget; pin it in production so restarts agree
+    @Value("${hrapp.security.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+    
+    @Value("${hrapp.security.password.latency-budget-ms:100}")
+    private long latencyBudgetMillis = 100;
+    
+    @Value("${hrapp.security.password.min-strength:10}")
+    private int minStrength = 10;
+    
+    @Value("${hrapp.security.password.max-strength:14}")
+    private int maxStrength = 14;
+    
+    // 0 uses one hashing thread per CPU
+    @Value("${hrapp.security.password.hashing-threads:0}")
+    private int hashingThreads;
+    
+    @Value("${hrapp.security.password.hashing-queue-capacity:64}")
+    private int hashingQueueCapacity = 64;
+    
+    @Value("${hrapp.security.password.hashing-timeout-ms:5000}")
+    private long hashingTimeoutMillis = 5000;
+    
+    // HTTP Basic account for the Prometheus scraper; with no password set only managers can read the scrape endpoint
+    @Value("${hrapp.metrics.scrape-username:prometheus}")
+    private String scrapeUsername = "prometheus";
+    
+    @Value("${hrapp.metrics.scrape-password:}")
+    private String scrapePassword;
+    
+    private volatile int resolvedBcryptStrength;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        resolvedBcryptStrength = bcryptStrength > 0
+                ? bcryptStrength
+                : BcryptCostCalibrator.calibrate(Duration.ofMillis(latencyBudgetMillis), minStrength, maxStrength);
+        return createPasswordEncoder(resolvedBcryptStrength);
+    }
+    
+    // New hashes are written as {bcrypt}$2a$<strength>$...; hashes without a prefix (the seed data) or with a lower
+    // cost still verify, and DaoAuthenticationProvider rehashes them through UserDetailsPasswordService on login
+    public static PasswordEncoder createPasswordEncoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(delegating, "bcrypt");
+    }
+    
+    @Bean
+    public MeterBinder bcryptStrengthMetric() {
+        return registry -> Gauge.builder("hr.password.bcrypt.strength", () -> resolvedBcryptStrength)
+                .description("BCrypt cost used for new password hashes")
+                .register(registry);
+    }
+    
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingExecutor passwordHashingExecutor() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingExecutor(threads, hashingQueueCapacity, hashingTimeoutMillis);
     }
     
     @Bean
@@ -38,17 +118,49 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
     
+    // The scrape endpoint alone also accepts HTTP Basic, and only for the scraper account, so employee passwords
+    // cannot be used there to get around the login limits
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsScrapeFilterChain(HttpSecurity http) throws Exception {
+        List<UserDetails> scrapers = new ArrayList<>();
+        if (!scrapePassword.isEmpty()) {
+            scrapers.add(User.withUsername(scrapeUsername)
+                    .password(passwordEncoder().encode(scrapePassword))
+                    .roles("METRICS")
+                    .build());
+        }
+        DaoAuthenticationProvider scraperProvider = new DaoAuthenticationProvider();
+        scraperProvider.setUserDetailsService(new InMemoryUserDetailsManager(scrapers));
+        scraperProvider.setPasswordEncoder(passwordEncoder());
+        
+        http.securityMatcher("/actuator/prometheus")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .authenticationManager(new ProviderManager(scraperProvider))
+            .httpBasic(basic -> basic.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasAnyRole("MANAGER", "METRICS"))
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        
+        return http.build();
+    }
+    
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // A missing, expired or revoked access token is a 401, which tells the client to refresh
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/metrics/**").hasRole("MANAGER")
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(apiAdmissionFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
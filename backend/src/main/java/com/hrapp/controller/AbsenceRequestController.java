@@ -1,15 +1,28 @@
 package com.hrapp.controller;
 
 import com.hrapp.dto.AbsenceRequestDto;
+import com.hrapp.dto.AbsenceRequestFilter;
 import com.hrapp.dto.ApprovalRequestDto;
 import com.hrapp.dto.CreateAbsenceRequestDto;
-import com.hrapp.security.JwtUtil;
+import com.hrapp.dto.CursorPage;
+import com.hrapp.dto.ExportFormat;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.dto.TeamCalendarDto;
+import com.hrapp.security.HrPrincipal;
 import com.hrapp.service.AbsenceRequestService;
+import com.hrapp.service.ExportService;
+import com.hrapp.service.TeamCalendarService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,44 +34,83 @@ public class AbsenceRequestController {
     private AbsenceRequestService absenceRequestService;
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private TeamCalendarService teamCalendarService;
+    
+    @Autowired
+    private ExportService exportService;
     
     @PostMapping
     public ResponseEntity<AbsenceRequestDto> createAbsenceRequest(
             @Valid @RequestBody CreateAbsenceRequestDto requestDto,
-            @RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        AbsenceRequestDto createdRequest = absenceRequestService.createAbsenceRequest(requestDto, currentUserId);
+            @AuthenticationPrincipal HrPrincipal principal) {
+        AbsenceRequestDto createdRequest = absenceRequestService.createAbsenceRequest(requestDto, principal);
         return ResponseEntity.ok(createdRequest);
     }
     
     @GetMapping("/my")
-    public ResponseEntity<List<AbsenceRequestDto>> getMyAbsenceRequests(@RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        List<AbsenceRequestDto> requests = absenceRequestService.getMyAbsenceRequests(currentUserId);
+    public ResponseEntity<List<AbsenceRequestDto>> getMyAbsenceRequests(@AuthenticationPrincipal HrPrincipal principal) {
+        List<AbsenceRequestDto> requests = absenceRequestService.getMyAbsenceRequests(principal);
         return ResponseEntity.ok(requests);
     }
     
     @GetMapping("/all")
-    public ResponseEntity<List<AbsenceRequestDto>> getAllAbsenceRequests(@RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        List<AbsenceRequestDto> requests = absenceRequestService.getAllAbsenceRequests(currentUserId);
+    public ResponseEntity<CursorPage<AbsenceRequestDto>> getAllAbsenceRequests(
+            AbsenceRequestFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        CursorPage<AbsenceRequestDto> requests = absenceRequestService.getAllAbsenceRequests(filter, cursor, limit, principal);
         return ResponseEntity.ok(requests);
     }
     
     @GetMapping("/pending")
-    public ResponseEntity<List<AbsenceRequestDto>> getPendingAbsenceRequests(@RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        List<AbsenceRequestDto> requests = absenceRequestService.getPendingAbsenceRequests(currentUserId);
+    public ResponseEntity<CursorPage<AbsenceRequestDto>> getPendingAbsenceRequests(
+            AbsenceRequestFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        CursorPage<AbsenceRequestDto> requests = absenceRequestService.getPendingAbsenceRequests(filter, cursor, limit, principal);
         return ResponseEntity.ok(requests);
     }
     
+    // Written straight to the response as rows arrive from the database
+    @GetMapping("/export")
+    public void exportAbsenceRequests(
+            AbsenceRequestFilter filter,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @AuthenticationPrincipal HrPrincipal principal,
+            HttpServletResponse response) throws IOException {
+        exportService.exportAbsenceRequests(filter, format, principal, () -> {
+            response.setContentType(format.getContentType());
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"absence-requests." + format.getExtension() + "\"");
+            return response.getOutputStream();
+        });
+    }
+    
+    @GetMapping("/absent")
+    public ResponseEntity<List<ProfileDirectoryEntry>> getAbsentReports(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        List<ProfileDirectoryEntry> absent = absenceRequestService.getAbsentReports(date, principal);
+        return ResponseEntity.ok(absent);
+    }
+    
+    @GetMapping("/team-calendar")
+    public ResponseEntity<TeamCalendarDto> getTeamCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        TeamCalendarDto calendar = teamCalendarService.getTeamCalendar(from, to, principal);
+        return ResponseEntity.ok(calendar);
+    }
+    
     @GetMapping("/{requestId}")
     public ResponseEntity<AbsenceRequestDto> getAbsenceRequest(
             @PathVariable UUID requestId,
-            @RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        AbsenceRequestDto request = absenceRequestService.getAbsenceRequest(requestId, currentUserId);
+            @AuthenticationPrincipal HrPrincipal principal) {
+        AbsenceRequestDto request = absenceRequestService.getAbsenceRequest(requestId, principal);
         return ResponseEntity.ok(request);
     }
     
@@ -66,23 +118,16 @@ public class AbsenceRequestController {
     public ResponseEntity<AbsenceRequestDto> approveOrRejectRequest(
             @PathVariable UUID requestId,
             @Valid @RequestBody ApprovalRequestDto approvalDto,
-            @RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        AbsenceRequestDto updatedRequest = absenceRequestService.approveOrRejectRequest(requestId, approvalDto, currentUserId);
+            @AuthenticationPrincipal HrPrincipal principal) {
+        AbsenceRequestDto updatedRequest = absenceRequestService.approveOrRejectRequest(requestId, approvalDto, principal);
         return ResponseEntity.ok(updatedRequest);
     }
     
     @DeleteMapping("/{requestId}")
     public ResponseEntity<Void> deleteAbsenceRequest(
             @PathVariable UUID requestId,
-            @RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        absenceRequestService.deleteAbsenceRequest(requestId, currentUserId);
+            @AuthenticationPrincipal HrPrincipal principal) {
+        absenceRequestService.deleteAbsenceRequest(requestId, principal);
         return ResponseEntity.noContent().build();
     }
-    
-    private UUID getCurrentUserId(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        return jwtUtil.getUserIdFromToken(token);
-    }
-}
\ No newline at end of file
+}
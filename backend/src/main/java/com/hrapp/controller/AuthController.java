@@ -2,7 +2,10 @@ package com.hrapp.controller;
 
 import com.hrapp.dto.AuthResponse;
 import com.hrapp.dto.LoginRequest;
+import com.hrapp.dto.RefreshTokenRequest;
+import com.hrapp.security.VerifiedToken;
 import com.hrapp.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,13 +19,23 @@ public class AuthController {
     private AuthService authService;
     
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        AuthResponse response = authService.login(loginRequest);
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Behind a proxy, set server.forward-headers-strategy so this is the client address and not the proxy's
+        AuthResponse response = authService.login(loginRequest, request.getRemoteAddr());
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        AuthResponse response = authService.refresh(request);
         return ResponseEntity.ok(response);
     }
     
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
+    public ResponseEntity<Void> logout(
+            @RequestAttribute(name = VerifiedToken.REQUEST_ATTRIBUTE, required = false) VerifiedToken accessToken,
+            @RequestBody(required = false) RefreshTokenRequest request) {
+        authService.logout(accessToken, request == null ? null : request.getRefreshToken());
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
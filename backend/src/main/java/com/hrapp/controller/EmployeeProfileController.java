@@ -1,14 +1,28 @@
 package com.hrapp.controller;
 
+import com.hrapp.dto.CreateFeedbackDto;
+import com.hrapp.dto.CursorPage;
+import com.hrapp.dto.ExportFormat;
+import com.hrapp.dto.FeedbackDto;
 import com.hrapp.dto.ProfileBasicDto;
 import com.hrapp.dto.ProfileDetailDto;
-import com.hrapp.security.JwtUtil;
+import com.hrapp.dto.ProfileDirectorySort;
+import com.hrapp.dto.ProfileImportResultDto;
+import com.hrapp.security.HrPrincipal;
 import com.hrapp.service.EmployeeProfileService;
+import com.hrapp.service.ExportService;
+import com.hrapp.service.FeedbackService;
+import com.hrapp.service.ProfileImportService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,44 +34,75 @@ public class EmployeeProfileController {
     private EmployeeProfileService employeeProfileService;
     
     @Autowired
-    private JwtUtil jwtUtil;
+    private FeedbackService feedbackService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ProfileImportService profileImportService;
     
     @GetMapping("/basic")
-    public ResponseEntity<List<ProfileBasicDto>> getAllBasicProfiles(@RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        List<ProfileBasicDto> profiles = employeeProfileService.getAllBasicProfiles(currentUserId);
+    public ResponseEntity<CursorPage<ProfileBasicDto>> getBasicProfileDirectory(
+            @RequestParam(defaultValue = "LAST_NAME") ProfileDirectorySort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        CursorPage<ProfileBasicDto> profiles = employeeProfileService.getBasicProfileDirectory(sort, cursor, limit);
         return ResponseEntity.ok(profiles);
     }
     
     @GetMapping("/detailed")
-    public ResponseEntity<List<ProfileDetailDto>> getAllDetailProfiles(@RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        List<ProfileDetailDto> profiles = employeeProfileService.getAllDetailProfiles(currentUserId);
+    public ResponseEntity<List<ProfileDetailDto>> getAllDetailProfiles(@AuthenticationPrincipal HrPrincipal principal) {
+        List<ProfileDetailDto> profiles = employeeProfileService.getAllDetailProfiles(principal);
         return ResponseEntity.ok(profiles);
     }
     
+    // Written straight to the response as rows arrive from the database
+    @GetMapping("/export")
+    public void exportProfiles(
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @AuthenticationPrincipal HrPrincipal principal,
+            HttpServletResponse response) throws IOException {
+        exportService.exportProfiles(format, principal, () -> {
+            response.setContentType(format.getContentType());
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"profiles." + format.getExtension() + "\"");
+            return response.getOutputStream();
+        });
+    }
+    
+    // The request body is the CSV itself; 422 with every problem by line when any row is rejected, nothing imported
+    @PostMapping("/import")
+    public ResponseEntity<ProfileImportResultDto> importProfiles(
+            InputStream csv,
+            @AuthenticationPrincipal HrPrincipal principal) throws IOException {
+        ProfileImportResultDto result = profileImportService.importProfiles(csv, principal);
+        if (!result.getErrors().isEmpty()) {
+            return ResponseEntity.unprocessableEntity().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+    
     @GetMapping("/{profileId}/basic")
     public ResponseEntity<ProfileBasicDto> getBasicProfile(
             @PathVariable UUID profileId,
-            @RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        ProfileBasicDto profile = employeeProfileService.getBasicProfile(profileId, currentUserId);
+            @AuthenticationPrincipal HrPrincipal principal) {
+        ProfileBasicDto profile = employeeProfileService.getBasicProfile(profileId, principal);
         return ResponseEntity.ok(profile);
     }
     
     @GetMapping("/{profileId}/detailed")
     public ResponseEntity<ProfileDetailDto> getDetailProfile(
             @PathVariable UUID profileId,
-            @RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        ProfileDetailDto profile = employeeProfileService.getDetailProfile(profileId, currentUserId);
+            @AuthenticationPrincipal HrPrincipal principal) {
+        ProfileDetailDto profile = employeeProfileService.getDetailProfile(profileId, principal);
         return ResponseEntity.ok(profile);
     }
     
     @GetMapping("/me")
-    public ResponseEntity<ProfileDetailDto> getMyProfile(@RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        ProfileDetailDto profile = employeeProfileService.getMyProfile(currentUserId);
+    public ResponseEntity<ProfileDetailDto> getMyProfile(@AuthenticationPrincipal HrPrincipal principal) {
+        ProfileDetailDto profile = employeeProfileService.getMyProfile(principal);
         return ResponseEntity.ok(profile);
     }
     
@@ -65,14 +110,37 @@ public class EmployeeProfileController {
     public ResponseEntity<ProfileDetailDto> updateProfile(
             @PathVariable UUID profileId,
             @Valid @RequestBody ProfileDetailDto profileDto,
-            @RequestHeader("Authorization") String token) {
-        UUID currentUserId = getCurrentUserId(token);
-        ProfileDetailDto updatedProfile = employeeProfileService.updateProfile(profileId, profileDto, currentUserId);
+            @AuthenticationPrincipal HrPrincipal principal) {
+        ProfileDetailDto updatedProfile = employeeProfileService.updateProfile(profileId, profileDto, principal);
         return ResponseEntity.ok(updatedProfile);
     }
     
-    private UUID getCurrentUserId(String authHeader) {
-        String token = authHeader.substring(7); // Remove "Bearer " prefix
-        return jwtUtil.getUserIdFromToken(token);
+    // 202: the feedback is stored, polishing happens in the background
+    @PostMapping("/{profileId}/feedback")
+    public ResponseEntity<FeedbackDto> submitFeedback(
+            @PathVariable UUID profileId,
+            @Valid @RequestBody CreateFeedbackDto feedbackDto,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        FeedbackDto feedback = feedbackService.submitFeedback(profileId, feedbackDto, principal);
+        return ResponseEntity.accepted().body(feedback);
+    }
+    
+    @GetMapping("/{profileId}/feedback")
+    public ResponseEntity<CursorPage<FeedbackDto>> getFeedbackTimeline(
+            @PathVariable UUID profileId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        CursorPage<FeedbackDto> timeline = feedbackService.getFeedbackTimeline(profileId, cursor, limit, principal);
+        return ResponseEntity.ok(timeline);
+    }
+    
+    @GetMapping("/{profileId}/feedback/{feedbackId}")
+    public ResponseEntity<FeedbackDto> getFeedback(
+            @PathVariable UUID profileId,
+            @PathVariable UUID feedbackId,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        FeedbackDto feedback = feedbackService.getFeedback(profileId, feedbackId, principal);
+        return ResponseEntity.ok(feedback);
     }
 }
\ No newline at end of file
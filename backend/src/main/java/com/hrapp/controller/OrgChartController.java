@@ -0,0 +1,46 @@
+package com.hrapp.controller;
+
+import com.hrapp.dto.OrgChartEntry;
+import com.hrapp.dto.SpanOfControlDto;
+import com.hrapp.security.HrPrincipal;
+import com.hrapp.service.OrgChartService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/org-chart")
+public class OrgChartController {
+    
+    @Autowired
+    private OrgChartService orgChartService;
+    
+    @GetMapping("/{userId}/subtree")
+    public ResponseEntity<List<OrgChartEntry>> getSubtree(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "64") int depth,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        List<OrgChartEntry> subtree = orgChartService.getSubtree(userId, depth, principal);
+        return ResponseEntity.ok(subtree);
+    }
+    
+    @GetMapping("/{userId}/chain")
+    public ResponseEntity<List<OrgChartEntry>> getChainOfCommand(
+            @PathVariable UUID userId,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        List<OrgChartEntry> chain = orgChartService.getChainOfCommand(userId, principal);
+        return ResponseEntity.ok(chain);
+    }
+    
+    @GetMapping("/{userId}/span")
+    public ResponseEntity<SpanOfControlDto> getSpanOfControl(
+            @PathVariable UUID userId,
+            @AuthenticationPrincipal HrPrincipal principal) {
+        SpanOfControlDto span = orgChartService.getSpanOfControl(userId, principal);
+        return ResponseEntity.ok(span);
+    }
+}
@@ -0,0 +1,36 @@
+package com.hrapp.dto;
+
+import com.hrapp.model.AbsenceStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class AbsencePeriod {
+    private final UUID requestId;
+    private final UUID employeeId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final AbsenceStatus status;
+
+    public AbsencePeriod(UUID requestId, UUID employeeId, LocalDate startDate, LocalDate endDate, AbsenceStatus status) {
+        this.requestId = requestId;
+        this.employeeId = employeeId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+    }
+
+    public boolean covers(LocalDate date) {
+        return !date.isBefore(startDate) && !date.isAfter(endDate);
+    }
+
+    public UUID getRequestId() { return requestId; }
+
+    public UUID getEmployeeId() { return employeeId; }
+
+    public LocalDate getStartDate() { return startDate; }
+
+    public LocalDate getEndDate() { return endDate; }
+
+    public AbsenceStatus getStatus() { return status; }
+}
@@ -0,0 +1,38 @@
+package com.hrapp.dto;
+
+import com.hrapp.model.AbsenceStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class AbsenceRequestFilter {
+    private AbsenceStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private String department;
+    private UUID employeeId;
+
+    public AbsenceRequestFilter() {}
+
+    // Getters and Setters
+    public AbsenceStatus getStatus() { return status; }
+    public void setStatus(AbsenceStatus status) { this.status = status; }
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public UUID getEmployeeId() { return employeeId; }
+    public void setEmployeeId(UUID employeeId) { this.employeeId = employeeId; }
+}
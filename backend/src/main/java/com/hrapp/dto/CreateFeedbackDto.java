@@ -0,0 +1,16 @@
+package com.hrapp.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class CreateFeedbackDto {
+    @NotBlank
+    @Size(max = 2000)
+    private String feedbackText;
+
+    public CreateFeedbackDto() {}
+
+    // Getters and Setters
+    public String getFeedbackText() { return feedbackText; }
+    public void setFeedbackText(String feedbackText) { this.feedbackText = feedbackText; }
+}
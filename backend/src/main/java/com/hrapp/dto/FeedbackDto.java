@@ -0,0 +1,53 @@
+package com.hrapp.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class FeedbackDto {
+    private UUID id;
+    private UUID profileId;
+    private UUID feedbackBy;
+    private String feedbackByName;
+    private String feedbackText;
+    // Null until the polishing pipeline has processed the feedback
+    private String polishedFeedback;
+    private LocalDateTime createdAt;
+
+    public FeedbackDto() {}
+
+    // Timeline projection; the author's name comes from a join to their profile and is null when they have none
+    public FeedbackDto(UUID id, UUID profileId, UUID feedbackBy, String authorFirstName, String authorLastName,
+                       String feedbackText, String polishedFeedback, LocalDateTime createdAt) {
+        this.id = id;
+        this.profileId = profileId;
+        this.feedbackBy = feedbackBy;
+        if (authorFirstName != null) {
+            this.feedbackByName = authorFirstName + " " + authorLastName;
+        }
+        this.feedbackText = feedbackText;
+        this.polishedFeedback = polishedFeedback;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public UUID getProfileId() { return profileId; }
+    public void setProfileId(UUID profileId) { this.profileId = profileId; }
+
+    public UUID getFeedbackBy() { return feedbackBy; }
+    public void setFeedbackBy(UUID feedbackBy) { this.feedbackBy = feedbackBy; }
+
+    public String getFeedbackByName() { return feedbackByName; }
+    public void setFeedbackByName(String feedbackByName) { this.feedbackByName = feedbackByName; }
+
+    public String getFeedbackText() { return feedbackText; }
+    public void setFeedbackText(String feedbackText) { this.feedbackText = feedbackText; }
+
+    public String getPolishedFeedback() { return polishedFeedback; }
+    public void setPolishedFeedback(String polishedFeedback) { this.polishedFeedback = polishedFeedback; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
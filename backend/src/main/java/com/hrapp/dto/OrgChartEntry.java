@@ -0,0 +1,49 @@
+package com.hrapp.dto;
+
+import java.util.UUID;
+
+public class OrgChartEntry {
+    private UUID userId;
+    private UUID managerId;
+    // Levels below the subtree root, or above the employee for a chain of command
+    private int depth;
+    private String firstName;
+    private String lastName;
+    private String department;
+    private String position;
+
+    public OrgChartEntry() {}
+
+    public OrgChartEntry(UUID userId, UUID managerId, int depth, String firstName, String lastName,
+                         String department, String position) {
+        this.userId = userId;
+        this.managerId = managerId;
+        this.depth = depth;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.department = department;
+        this.position = position;
+    }
+
+    // Getters and Setters
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public UUID getManagerId() { return managerId; }
+    public void setManagerId(UUID managerId) { this.managerId = managerId; }
+
+    public int getDepth() { return depth; }
+    public void setDepth(int depth) { this.depth = depth; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getPosition() { return position; }
+    public void setPosition(String position) { this.position = position; }
+}
@@ -15,6 +15,23 @@ public class ProfileBasicDto {
 
     public ProfileBasicDto() {}
 
+    // Directory projection; the manager's name comes from a self-join and is null when there is no manager
+    public ProfileBasicDto(UUID id, UUID userId, String employeeId, String firstName, String lastName,
+                           String department, String position, UUID managerId,
+                           String managerFirstName, String managerLastName) {
+        this.id = id;
+        this.userId = userId;
+        this.employeeId = employeeId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.department = department;
+        this.position = position;
+        this.managerId = managerId;
+        if (managerFirstName != null) {
+            this.managerName = managerFirstName + " " + managerLastName;
+        }
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
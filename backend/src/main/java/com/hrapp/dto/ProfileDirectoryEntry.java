@@ -0,0 +1,33 @@
+package com.hrapp.dto;
+
+import java.util.UUID;
+
+public class ProfileDirectoryEntry {
+    private final UUID userId;
+    private final String firstName;
+    private final String lastName;
+    private final String department;
+    private final UUID managerId;
+
+    public ProfileDirectoryEntry(UUID userId, String firstName, String lastName, String department, UUID managerId) {
+        this.userId = userId;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.department = department;
+        this.managerId = managerId;
+    }
+
+    public String getFullName() {
+        return firstName + " " + lastName;
+    }
+
+    public UUID getUserId() { return userId; }
+
+    public String getFirstName() { return firstName; }
+
+    public String getLastName() { return lastName; }
+
+    public String getDepartment() { return department; }
+
+    public UUID getManagerId() { return managerId; }
+}
@@ -0,0 +1,6 @@
+package com.hrapp.dto;
+
+public enum ProfileDirectorySort {
+    LAST_NAME,
+    DEPARTMENT
+}
@@ -0,0 +1,26 @@
+package com.hrapp.dto;
+
+public class ProfileImportError {
+    private int line;
+    // CSV column the problem is in, null when it concerns the whole row
+    private String field;
+    private String message;
+
+    public ProfileImportError() {}
+
+    public ProfileImportError(int line, String field, String message) {
+        this.line = line;
+        this.field = field;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+
+    public String getField() { return field; }
+    public void setField(String field) { this.field = field; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
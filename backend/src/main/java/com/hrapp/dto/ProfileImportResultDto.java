@@ -0,0 +1,27 @@
+package com.hrapp.dto;
+
+import java.util.List;
+
+public class ProfileImportResultDto {
+    private int rows;
+    private int imported;
+    private List<ProfileImportError> errors;
+
+    public ProfileImportResultDto() {}
+
+    public ProfileImportResultDto(int rows, int imported, List<ProfileImportError> errors) {
+        this.rows = rows;
+        this.imported = imported;
+        this.errors = errors;
+    }
+
+    // Getters and Setters
+    public int getRows() { return rows; }
+    public void setRows(int rows) { this.rows = rows; }
+
+    public int getImported() { return imported; }
+    public void setImported(int imported) { this.imported = imported; }
+
+    public List<ProfileImportError> getErrors() { return errors; }
+    public void setErrors(List<ProfileImportError> errors) { this.errors = errors; }
+}
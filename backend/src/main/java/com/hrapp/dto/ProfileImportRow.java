@@ -0,0 +1,115 @@
+package com.hrapp.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+// One line of an onboarding CSV as written, before it is checked against the database; blank cells are null
+public class ProfileImportRow {
+    private int line;
+
+    @NotBlank
+    @Email
+    @Size(max = 100)
+    private String email;
+
+    // BCrypt only reads the first 72 bytes
+    @NotBlank
+    @Size(min = 8, max = 72)
+    private String password;
+
+    @Pattern(regexp = "MANAGER|EMPLOYEE", message = "must be MANAGER or EMPLOYEE")
+    private String role;
+
+    @NotBlank
+    @Size(max = 20)
+    private String employeeId;
+
+    @NotBlank
+    private String firstName;
+
+    @NotBlank
+    private String lastName;
+
+    @Size(max = 100)
+    private String department;
+
+    @Size(max = 100)
+    private String position;
+
+    private String hireDate;
+
+    @Size(max = 20)
+    private String phone;
+
+    private String address;
+
+    @Size(max = 100)
+    private String emergencyContactName;
+
+    @Size(max = 20)
+    private String emergencyContactPhone;
+
+    // The manager, by email or by employee ID, either already employed or another row of the same file
+    @Size(max = 100)
+    private String managerEmail;
+
+    @Size(max = 20)
+    private String managerEmployeeId;
+
+    public ProfileImportRow() {}
+
+    public ProfileImportRow(int line) {
+        this.line = line;
+    }
+
+    // Getters and Setters
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public String getEmployeeId() { return employeeId; }
+    public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public String getPosition() { return position; }
+    public void setPosition(String position) { this.position = position; }
+
+    public String getHireDate() { return hireDate; }
+    public void setHireDate(String hireDate) { this.hireDate = hireDate; }
+
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+
+    public String getEmergencyContactName() { return emergencyContactName; }
+    public void setEmergencyContactName(String emergencyContactName) { this.emergencyContactName = emergencyContactName; }
+
+    public String getEmergencyContactPhone() { return emergencyContactPhone; }
+    public void setEmergencyContactPhone(String emergencyContactPhone) { this.emergencyContactPhone = emergencyContactPhone; }
+
+    public String getManagerEmail() { return managerEmail; }
+    public void setManagerEmail(String managerEmail) { this.managerEmail = managerEmail; }
+
+    public String getManagerEmployeeId() { return managerEmployeeId; }
+    public void setManagerEmployeeId(String managerEmployeeId) { this.managerEmployeeId = managerEmployeeId; }
+}
@@ -0,0 +1,17 @@
+package com.hrapp.dto;
+
+import java.util.UUID;
+
+public class ReportingLine {
+    private final UUID userId;
+    private final UUID managerId;
+
+    public ReportingLine(UUID userId, UUID managerId) {
+        this.userId = userId;
+        this.managerId = managerId;
+    }
+
+    public UUID getUserId() { return userId; }
+
+    public UUID getManagerId() { return managerId; }
+}
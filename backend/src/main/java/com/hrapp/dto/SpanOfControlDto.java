@@ -0,0 +1,33 @@
+package com.hrapp.dto;
+
+import java.util.UUID;
+
+public class SpanOfControlDto {
+    private UUID userId;
+    private int directReports;
+    private int totalReports;
+    // Management levels below this person, 0 for someone without reports
+    private int levels;
+
+    public SpanOfControlDto() {}
+
+    public SpanOfControlDto(UUID userId, int directReports, int totalReports, int levels) {
+        this.userId = userId;
+        this.directReports = directReports;
+        this.totalReports = totalReports;
+        this.levels = levels;
+    }
+
+    // Getters and Setters
+    public UUID getUserId() { return userId; }
+    public void setUserId(UUID userId) { this.userId = userId; }
+
+    public int getDirectReports() { return directReports; }
+    public void setDirectReports(int directReports) { this.directReports = directReports; }
+
+    public int getTotalReports() { return totalReports; }
+    public void setTotalReports(int totalReports) { this.totalReports = totalReports; }
+
+    public int getLevels() { return levels; }
+    public void setLevels(int levels) { this.levels = levels; }
+}
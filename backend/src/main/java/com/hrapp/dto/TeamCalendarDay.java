@@ -0,0 +1,24 @@
+package com.hrapp.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public class TeamCalendarDay {
+    private LocalDate date;
+    private List<UUID> absentEmployeeIds;
+
+    public TeamCalendarDay() {}
+
+    public TeamCalendarDay(LocalDate date, List<UUID> absentEmployeeIds) {
+        this.date = date;
+        this.absentEmployeeIds = absentEmployeeIds;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public List<UUID> getAbsentEmployeeIds() { return absentEmployeeIds; }
+    public void setAbsentEmployeeIds(List<UUID> absentEmployeeIds) { this.absentEmployeeIds = absentEmployeeIds; }
+}
@@ -0,0 +1,40 @@
+package com.hrapp.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class TeamCalendarDto {
+    private LocalDate from;
+    private LocalDate to;
+    private int teamSize;
+    // Everyone absent on at least one day of the range, so days can refer to them by id
+    private List<ProfileDirectoryEntry> absentees;
+    private List<TeamCalendarDay> days;
+
+    public TeamCalendarDto() {}
+
+    public TeamCalendarDto(LocalDate from, LocalDate to, int teamSize, List<ProfileDirectoryEntry> absentees,
+                           List<TeamCalendarDay> days) {
+        this.from = from;
+        this.to = to;
+        this.teamSize = teamSize;
+        this.absentees = absentees;
+        this.days = days;
+    }
+
+    // Getters and Setters
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public int getTeamSize() { return teamSize; }
+    public void setTeamSize(int teamSize) { this.teamSize = teamSize; }
+
+    public List<ProfileDirectoryEntry> getAbsentees() { return absentees; }
+    public void setAbsentees(List<ProfileDirectoryEntry> absentees) { this.absentees = absentees; }
+
+    public List<TeamCalendarDay> getDays() { return days; }
+    public void setDays(List<TeamCalendarDay> days) { this.days = days; }
+}
@@ -0,0 +1,11 @@
+package com.hrapp.exception;
+
+public class AbsenceOverlapException extends RuntimeException {
+    public AbsenceOverlapException(String message) {
+        super(message);
+    }
+
+    public AbsenceOverlapException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
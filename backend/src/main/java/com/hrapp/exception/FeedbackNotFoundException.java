@@ -0,0 +1,11 @@
+package com.hrapp.exception;
+
+public class FeedbackNotFoundException extends RuntimeException {
+    public FeedbackNotFoundException(String message) {
+        super(message);
+    }
+
+    public FeedbackNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
\ No newline at end of file
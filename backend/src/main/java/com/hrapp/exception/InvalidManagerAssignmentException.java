@@ -0,0 +1,11 @@
+package com.hrapp.exception;
+
+public class InvalidManagerAssignmentException extends RuntimeException {
+    public InvalidManagerAssignmentException(String message) {
+        super(message);
+    }
+
+    public InvalidManagerAssignmentException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hrapp.exception;
+
+public class LoginCapacityExceededException extends RuntimeException {
+    public LoginCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -15,7 +15,7 @@ public class AbsenceRequest {
     private UUID id;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "employee_id", nullable = false)
     private User employee;
 
@@ -34,7 +34,7 @@ public class AbsenceRequest {
     @Column(nullable = false)
     private AbsenceStatus status = AbsenceStatus.PENDING;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "approved_by")
     private User approvedBy;
 
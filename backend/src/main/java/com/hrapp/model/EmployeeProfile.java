@@ -16,7 +16,7 @@ public class EmployeeProfile {
     private UUID id;
 
     @NotNull
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", unique = true, nullable = false)
     private User user;
 
@@ -53,7 +53,7 @@ public class EmployeeProfile {
     @Column(name = "emergency_contact_phone", length = 20)
     private String emergencyContactPhone;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
     private User manager;
 
@@ -9,18 +9,24 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "feedback")
+@NamedEntityGraph(name = Feedback.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("profile"),
+        @NamedAttributeNode("feedbackBy")
+})
 public class Feedback {
+    public static final String DETAIL_GRAPH = "Feedback.detail";
+    
     @Id
     @GeneratedValue
     private UUID id;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "profile_id", nullable = false)
     private EmployeeProfile profile;
 
     @NotNull
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "feedback_by", nullable = false)
     private User feedbackBy;
 
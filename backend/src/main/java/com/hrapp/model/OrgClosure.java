@@ -0,0 +1,67 @@
+package com.hrapp.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+// One row per (manager, report) pair at any distance, plus a depth 0 row per employee; maintained alongside
+// employee_profiles.manager_id so "is X in Y's org" is a primary key lookup instead of a walk up the tree
+@Entity
+@Table(name = "org_closure")
+@IdClass(OrgClosure.Key.class)
+public class OrgClosure {
+    @Id
+    @Column(name = "ancestor_id")
+    private UUID ancestorId;
+
+    @Id
+    @Column(name = "descendant_id")
+    private UUID descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    public OrgClosure() {}
+
+    public OrgClosure(UUID ancestorId, UUID descendantId, int depth) {
+        this.ancestorId = ancestorId;
+        this.descendantId = descendantId;
+        this.depth = depth;
+    }
+
+    // Getters and Setters
+    public UUID getAncestorId() { return ancestorId; }
+    public void setAncestorId(UUID ancestorId) { this.ancestorId = ancestorId; }
+
+    public UUID getDescendantId() { return descendantId; }
+    public void setDescendantId(UUID descendantId) { this.descendantId = descendantId; }
+
+    public int getDepth() { return depth; }
+    public void setDepth(int depth) { this.depth = depth; }
+
+    public static class Key implements Serializable {
+        private UUID ancestorId;
+        private UUID descendantId;
+
+        public Key() {}
+
+        public Key(UUID ancestorId, UUID descendantId) {
+            this.ancestorId = ancestorId;
+            this.descendantId = descendantId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key key)) return false;
+            return Objects.equals(ancestorId, key.ancestorId) && Objects.equals(descendantId, key.descendantId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ancestorId, descendantId);
+        }
+    }
+}
@@ -1,19 +1,44 @@
 package com.hrapp.repository;
 
+import com.hrapp.dto.AbsencePeriod;
 import com.hrapp.model.AbsenceRequest;
 import com.hrapp.model.AbsenceStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface AbsenceRequestRepository extends JpaRepository<AbsenceRequest, UUID> {
+public interface AbsenceRequestRepository extends JpaRepository<AbsenceRequest, UUID>, JpaSpecificationExecutor<AbsenceRequest> {
+    Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "requestedAt", "id");
+    
     List<AbsenceRequest> findByEmployeeId(UUID employeeId);
     List<AbsenceRequest> findByStatus(AbsenceStatus status);
     List<AbsenceRequest> findByEmployeeIdAndStatus(UUID employeeId, AbsenceStatus status);
     List<AbsenceRequest> findByStartDateBetween(LocalDate startDate, LocalDate endDate);
     List<AbsenceRequest> findByApprovedById(UUID approvedById);
-}
\ No newline at end of file
+    
+    // List and approval screens only need the foreign key ids, which the lazy proxies carry without a users join
+    List<AbsenceRequest> findListByEmployeeId(UUID employeeId);
+    Optional<AbsenceRequest> findForApprovalById(UUID id);
+    
+    // Pending and approved absences, the rows covered by the absence_requests_no_overlap constraint
+    @Query("SELECT new com.hrapp.dto.AbsencePeriod(a.id, a.employee.id, a.startDate, a.endDate, a.status) " +
+           "FROM AbsenceRequest a WHERE a.employee.id IN :employeeIds " +
+           "AND a.status IN (com.hrapp.model.AbsenceStatus.PENDING, com.hrapp.model.AbsenceStatus.APPROVED)")
+    List<AbsencePeriod> findActivePeriodsByEmployeeIdIn(@Param("employeeIds") Collection<UUID> employeeIds);
+    
+    // Keyset page in (requested_at DESC, id DESC) order; combine with AbsenceRequestSpecifications.before for later pages
+    default List<AbsenceRequest> findPage(Specification<AbsenceRequest> specification, int limit) {
+        return findBy(specification, query -> query.sortBy(KEYSET_ORDER).limit(limit).all());
+    }
+}
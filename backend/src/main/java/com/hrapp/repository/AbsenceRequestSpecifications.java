@@ -0,0 +1,76 @@
+package com.hrapp.repository;
+
+import com.hrapp.dto.AbsenceRequestFilter;
+import com.hrapp.model.AbsenceRequest;
+import com.hrapp.model.EmployeeProfile;
+import com.hrapp.model.OrgClosure;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class AbsenceRequestSpecifications {
+
+    private AbsenceRequestSpecifications() {}
+
+    public static Specification<AbsenceRequest> matching(AbsenceRequestFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getEmployeeId() != null) {
+                predicates.add(cb.equal(root.get("employee").get("id"), filter.getEmployeeId()));
+            }
+            // Requests overlapping the [from, to] window
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("endDate"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("startDate"), filter.getTo()));
+            }
+            if (StringUtils.hasText(filter.getDepartment())) {
+                Subquery<Integer> inDepartment = query.subquery(Integer.class);
+                Root<EmployeeProfile> profile = inDepartment.from(EmployeeProfile.class);
+                inDepartment.select(cb.literal(1))
+                        .where(cb.equal(profile.get("user").get("id"), root.get("employee").get("id")),
+                               cb.equal(profile.get("department"), filter.getDepartment()));
+                predicates.add(cb.exists(inDepartment));
+            }
+            
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Requests from people reporting to managerId directly or indirectly, matched against org_closure
+    public static Specification<AbsenceRequest> inOrgOf(UUID managerId) {
+        return (root, query, cb) -> {
+            Subquery<Integer> inOrg = query.subquery(Integer.class);
+            Root<OrgClosure> closure = inOrg.from(OrgClosure.class);
+            inOrg.select(cb.literal(1))
+                    .where(cb.equal(closure.get("ancestorId"), managerId),
+                           cb.equal(closure.get("descendantId"), root.get("employee").get("id")),
+                           cb.greaterThan(closure.get("depth"), 0));
+            return cb.exists(inOrg);
+        };
+    }
+
+    // Rows strictly after (requestedAt, id) in (requested_at DESC, id DESC) order
+    public static Specification<AbsenceRequest> before(LocalDateTime requestedAt, UUID id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("requestedAt"), requestedAt),
+                cb.or(
+                        cb.lessThan(root.get("requestedAt"), requestedAt),
+                        cb.and(cb.equal(root.get("requestedAt"), requestedAt),
+                               cb.lessThan(root.<UUID>get("id"), id))
+                )
+        );
+    }
+}
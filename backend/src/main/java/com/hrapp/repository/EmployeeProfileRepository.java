@@ -1,18 +1,91 @@
 package com.hrapp.repository;
 
+import com.hrapp.dto.ProfileBasicDto;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.dto.ReportingLine;
 import com.hrapp.model.EmployeeProfile;
-import com.hrapp.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface EmployeeProfileRepository extends JpaRepository<EmployeeProfile, UUID> {
+    String DIRECTORY_PROJECTION =
+            "SELECT new com.hrapp.dto.ProfileBasicDto(p.id, p.user.id, p.employeeId, p.firstName, p.lastName, " +
+            "p.department, p.position, p.manager.id, mp.firstName, mp.lastName) " +
+            "FROM EmployeeProfile p LEFT JOIN EmployeeProfile mp ON mp.user.id = p.manager.id ";
+    
     Optional<EmployeeProfile> findByUserId(UUID userId);
     Optional<EmployeeProfile> findByEmployeeId(String employeeId);
     List<EmployeeProfile> findByManagerId(UUID managerId);
+    
+    @Query("SELECT p.user.id FROM EmployeeProfile p WHERE p.manager.id = :managerId")
+    List<UUID> findUserIdsByManagerId(@Param("managerId") UUID managerId);
     boolean existsByEmployeeId(String employeeId);
-}
\ No newline at end of file
+    
+    // The manager's own profile and everyone below them, joined through org_closure
+    @Query("SELECT p FROM EmployeeProfile p JOIN OrgClosure c ON c.descendantId = p.user.id WHERE c.ancestorId = :managerId")
+    List<EmployeeProfile> findListInOrgOf(@Param("managerId") UUID managerId);
+    
+    @Query("SELECT new com.hrapp.dto.ProfileDirectoryEntry(p.user.id, p.firstName, p.lastName, p.department, p.manager.id) " +
+           "FROM EmployeeProfile p WHERE p.user.id IN :userIds")
+    List<ProfileDirectoryEntry> findDirectoryEntriesByUserIdIn(@Param("userIds") Collection<UUID> userIds);
+    
+    @Query("SELECT new com.hrapp.dto.ReportingLine(p.user.id, p.manager.id) FROM EmployeeProfile p")
+    List<ReportingLine> findReportingLines();
+    
+    // Everyone reporting to userId directly or indirectly, level by level; maxDepth also stops a manager cycle
+    @Query(value = "WITH RECURSIVE tree AS (" +
+                   "SELECT user_id, manager_id, 0 AS depth, first_name, last_name, department, position " +
+                   "FROM employee_profiles WHERE user_id = :userId " +
+                   "UNION ALL " +
+                   "SELECT e.user_id, e.manager_id, tree.depth + 1, e.first_name, e.last_name, e.department, e.position " +
+                   "FROM employee_profiles e JOIN tree ON e.manager_id = tree.user_id WHERE tree.depth < :maxDepth) " +
+                   "SELECT user_id AS userId, manager_id AS managerId, depth, first_name AS firstName, " +
+                   "last_name AS lastName, department, position FROM tree ORDER BY depth, last_name, user_id",
+           nativeQuery = true)
+    List<OrgChartRow> findSubtree(@Param("userId") UUID userId, @Param("maxDepth") int maxDepth);
+    
+    // userId followed by each manager above it, up to the top of the org
+    @Query(value = "WITH RECURSIVE chain AS (" +
+                   "SELECT user_id, manager_id, 0 AS depth, first_name, last_name, department, position " +
+                   "FROM employee_profiles WHERE user_id = :userId " +
+                   "UNION ALL " +
+                   "SELECT m.user_id, m.manager_id, chain.depth + 1, m.first_name, m.last_name, m.department, m.position " +
+                   "FROM employee_profiles m JOIN chain ON m.user_id = chain.manager_id WHERE chain.depth < :maxDepth) " +
+                   "SELECT user_id AS userId, manager_id AS managerId, depth, first_name AS firstName, " +
+                   "last_name AS lastName, department, position FROM chain ORDER BY depth",
+           nativeQuery = true)
+    List<OrgChartRow> findChainOfCommand(@Param("userId") UUID userId, @Param("maxDepth") int maxDepth);
+    
+    // Directory pages in (last_name, id) order
+    @Query(DIRECTORY_PROJECTION + "ORDER BY p.lastName, p.id")
+    List<ProfileBasicDto> findDirectoryByLastName(Pageable pageable);
+    
+    @Query(DIRECTORY_PROJECTION +
+           "WHERE p.lastName > :lastName OR (p.lastName = :lastName AND p.id > :id) " +
+           "ORDER BY p.lastName, p.id")
+    List<ProfileBasicDto> findDirectoryByLastNameAfter(@Param("lastName") String lastName, @Param("id") UUID id,
+                                                       Pageable pageable);
+    
+    // Directory pages in (department, last_name, id) order; profiles without a department sort first
+    @Query(DIRECTORY_PROJECTION + "ORDER BY COALESCE(p.department, ''), p.lastName, p.id")
+    List<ProfileBasicDto> findDirectoryByDepartment(Pageable pageable);
+    
+    @Query(DIRECTORY_PROJECTION +
+           "WHERE COALESCE(p.department, '') > :department " +
+           "OR (COALESCE(p.department, '') = :department AND p.lastName > :lastName) " +
+           "OR (COALESCE(p.department, '') = :department AND p.lastName = :lastName AND p.id > :id) " +
+           "ORDER BY COALESCE(p.department, ''), p.lastName, p.id")
+    List<ProfileBasicDto> findDirectoryByDepartmentAfter(@Param("department") String department,
+                                                         @Param("lastName") String lastName,
+                                                         @Param("id") UUID id,
+                                                         Pageable pageable);
+}
@@ -0,0 +1,43 @@
+package com.hrapp.repository;
+
+import com.hrapp.dto.FeedbackDto;
+import com.hrapp.model.Feedback;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface FeedbackRepository extends JpaRepository<Feedback, UUID> {
+    String TIMELINE_PROJECTION =
+            "SELECT new com.hrapp.dto.FeedbackDto(f.id, f.profile.id, f.feedbackBy.id, ap.firstName, ap.lastName, " +
+            "f.feedbackText, f.polishedFeedback, f.createdAt) " +
+            "FROM Feedback f LEFT JOIN EmployeeProfile ap ON ap.user.id = f.feedbackBy.id ";
+    
+    @EntityGraph(Feedback.DETAIL_GRAPH)
+    Optional<Feedback> findDetailById(UUID id);
+    
+    // Timeline pages for one profile in (created_at DESC, id DESC) order, read off idx_feedback_profile_created_at_id
+    @Query(TIMELINE_PROJECTION +
+           "WHERE f.profile.id = :profileId " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FeedbackDto> findTimeline(@Param("profileId") UUID profileId, Pageable pageable);
+    
+    // The <= bound repeats the OR below so the index scan starts at the cursor instead of filtering the whole profile
+    @Query(TIMELINE_PROJECTION +
+           "WHERE f.profile.id = :profileId " +
+           "AND f.createdAt <= :createdAt " +
+           "AND (f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+           "ORDER BY f.createdAt DESC, f.id DESC")
+    List<FeedbackDto> findTimelineBefore(@Param("profileId") UUID profileId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") UUID id,
+                                         Pageable pageable);
+}
@@ -0,0 +1,14 @@
+package com.hrapp.repository;
+
+import java.util.UUID;
+
+// Row of the recursive org chart queries in EmployeeProfileRepository
+public interface OrgChartRow {
+    UUID getUserId();
+    UUID getManagerId();
+    int getDepth();
+    String getFirstName();
+    String getLastName();
+    String getDepartment();
+    String getPosition();
+}
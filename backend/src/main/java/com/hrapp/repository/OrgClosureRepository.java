@@ -0,0 +1,42 @@
+package com.hrapp.repository;
+
+import com.hrapp.model.OrgClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface OrgClosureRepository extends JpaRepository<OrgClosure, OrgClosure.Key> {
+    
+    // True when userId reports to managerId directly or indirectly; one primary key probe
+    @Query("SELECT COUNT(c) > 0 FROM OrgClosure c " +
+           "WHERE c.ancestorId = :managerId AND c.descendantId = :userId AND c.depth > 0")
+    boolean isInOrgOf(@Param("userId") UUID userId, @Param("managerId") UUID managerId);
+    
+    // Serializes reassignments so two concurrent moves cannot both read the tree the other is changing; readers are
+    // not blocked. Must run inside the transaction that moves the subtree
+    @Modifying
+    @Query(value = "LOCK TABLE org_closure IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForReassignment();
+    
+    // Unlinks userId and everyone below them from all of userId's managers; the links inside the subtree stay
+    @Modifying
+    @Query(value = "DELETE FROM org_closure " +
+                   "WHERE descendant_id IN (SELECT descendant_id FROM org_closure WHERE ancestor_id = :userId) " +
+                   "AND ancestor_id IN (SELECT ancestor_id FROM org_closure WHERE descendant_id = :userId AND depth > 0)",
+           nativeQuery = true)
+    int detachSubtree(@Param("userId") UUID userId);
+    
+    // Links userId's subtree under managerId and every manager above them
+    @Modifying
+    @Query(value = "INSERT INTO org_closure (ancestor_id, descendant_id, depth) " +
+                   "SELECT above.ancestor_id, below.descendant_id, above.depth + below.depth + 1 " +
+                   "FROM org_closure above CROSS JOIN org_closure below " +
+                   "WHERE above.descendant_id = :managerId AND below.ancestor_id = :userId",
+           nativeQuery = true)
+    int attachSubtree(@Param("userId") UUID userId, @Param("managerId") UUID managerId);
+}
@@ -0,0 +1,125 @@
+package com.hrapp.security;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Caps concurrent /api requests with a limit that follows latency (the gradient algorithm): a long-term average
+// response time is the no-queueing baseline, and when recent latency rises above baseline * tolerance the limit
+// shrinks in proportion. Threads waiting for a Hikari connection shrink it too, so requests are shed with a 503
+// before they pile up behind an exhausted pool
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double POOL_WAIT_GRADIENT = 0.9;
+    private static final int LONG_WINDOW = 600;
+    private static final int SHORT_WINDOW = 10;
+
+    @Autowired(required = false)
+    private DataSource dataSource;
+
+    @Value("${hrapp.admission.concurrency.initial-limit:20}")
+    private double limit = 20;
+
+    @Value("${hrapp.admission.concurrency.min-limit:4}")
+    private int minLimit = 4;
+
+    @Value("${hrapp.admission.concurrency.max-limit:200}")
+    private int maxLimit = 200;
+
+    @Value("${hrapp.admission.concurrency.rtt-tolerance:2.0}")
+    private double rttTolerance = 2.0;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int currentLimit = -1;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    public boolean tryAcquire() {
+        int max = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long startNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(System.nanoTime() - startNanos, inFlightAtCompletion, threadsAwaitingConnection());
+    }
+
+    synchronized void onSample(long rttNanos, int inFlightAtCompletion, int threadsAwaitingConnection) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        // After a sustained slowdown the baseline has drifted up; let it recover quickly once latency drops
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        // Headroom for queueing, except while requests are already queueing for a connection
+        double queueSize = Math.sqrt(limit);
+        if (threadsAwaitingConnection > 0) {
+            gradient = Math.min(gradient, POOL_WAIT_GRADIENT);
+            queueSize = 0;
+        }
+        // Do not grow a limit that traffic is not using
+        if (gradient >= 1.0 && inFlightAtCompletion < limit / 2) {
+            return;
+        }
+
+        double newLimit = limit * gradient + queueSize;
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        currentLimit = (int) limit;
+    }
+
+    public int getLimit() {
+        int current = currentLimit;
+        if (current < 0) {
+            current = (int) Math.max(minLimit, Math.min(maxLimit, limit));
+            currentLimit = current;
+        }
+        return current;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private int threadsAwaitingConnection() {
+        if (dataSource instanceof HikariDataSource hikari) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+        }
+        return 0;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hr.admission.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrent API requests")
+                .register(registry);
+        Gauge.builder("hr.admission.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("API requests currently admitted")
+                .register(registry);
+    }
+}
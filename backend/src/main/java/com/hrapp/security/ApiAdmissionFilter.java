@@ -0,0 +1,121 @@
+package com.hrapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hrapp.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Runs right after JwtAuthenticationFilter on /api/** (except /api/auth/**, which has its own login limits):
+// first the caller's token bucket for the endpoint class (429), then the global adaptive concurrency limit (503)
+@Component
+public class ApiAdmissionFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private ApiRateLimiter apiRateLimiter;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hrapp.admission.enabled:true}")
+    private boolean enabled = true;
+
+    // Registered once; a registry lookup on every request costs more than the increment
+    private final Map<EndpointClass, Counter> admitted = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> throttled = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> shed = new EnumMap<>(EndpointClass.class);
+
+    @PostConstruct
+    public void registerMeters() {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            admitted.put(endpointClass, counter(endpointClass, "admitted"));
+            throttled.put(endpointClass, counter(endpointClass, "throttled"));
+            shed.put(endpointClass, counter(endpointClass, "shed"));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith("/api/") || path.startsWith("/api/auth/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request);
+
+        // Anonymous requests are rejected with a 401 further down the chain, so they only count towards concurrency
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof HrPrincipal principal) {
+            long retryAfterSeconds = apiRateLimiter.tryAcquire(principal.getUserId(), endpointClass);
+            if (retryAfterSeconds > 0) {
+                throttled.get(endpointClass).increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds,
+                        new ErrorResponse("RATE_LIMITED", "Too many requests, please retry later"));
+                return;
+            }
+        }
+
+        // Exports and imports run for as long as their row count needs and their services cap how many run at once;
+        // counting and timing them here would read as overload and shrink the limit for every other request
+        if (request.getRequestURI().endsWith("/export") || request.getRequestURI().endsWith("/import")) {
+            admitted.get(endpointClass).increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.get(endpointClass).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    new ErrorResponse("SERVER_BUSY", "The server is busy, please retry shortly"));
+            return;
+        }
+
+        admitted.get(endpointClass).increment();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimiter.release(start);
+        }
+    }
+
+    private Counter counter(EndpointClass endpointClass, String result) {
+        return Counter.builder("hr.admission.requests")
+                .description("API requests by admission decision")
+                .tags("endpoint_class", endpointClass.name().toLowerCase(), "result", result)
+                .register(meterRegistry);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, ErrorResponse error)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+}
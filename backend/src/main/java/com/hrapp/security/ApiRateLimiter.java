@@ -0,0 +1,114 @@
+package com.hrapp.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Token buckets per principal and endpoint class: a burst of up to capacity requests, then refill-per-second sustained
+@Component
+public class ApiRateLimiter {
+
+    @Value("${hrapp.admission.rate-limit.read.capacity:100}")
+    private double readCapacity = 100;
+    @Value("${hrapp.admission.rate-limit.read.refill-per-second:20}")
+    private double readRefillPerSecond = 20;
+    @Value("${hrapp.admission.rate-limit.write.capacity:20}")
+    private double writeCapacity = 20;
+    @Value("${hrapp.admission.rate-limit.write.refill-per-second:5}")
+    private double writeRefillPerSecond = 5;
+    @Value("${hrapp.admission.rate-limit.expensive.capacity:5}")
+    private double expensiveCapacity = 5;
+    @Value("${hrapp.admission.rate-limit.expensive.refill-per-second:0.2}")
+    private double expensiveRefillPerSecond = 0.2;
+    @Value("${hrapp.admission.rate-limit.max-tracked-principals:50000}")
+    private int maxTrackedPrincipals = 50000;
+
+    // userId -> one bucket per EndpointClass ordinal; the lookup allocates nothing per request
+    private final Map<UUID, TokenBucket[]> buckets = new ConcurrentHashMap<>();
+    // At most one sweep a second: over the cap every new principal would otherwise rescan the whole map
+    private volatile long lastSweepNanos = Long.MIN_VALUE;
+
+    // Returns 0 when the request may proceed, otherwise the seconds until the bucket holds a token again
+    public long tryAcquire(UUID userId, EndpointClass endpointClass) {
+        return tryAcquire(userId, endpointClass, System.nanoTime());
+    }
+
+    long tryAcquire(UUID userId, EndpointClass endpointClass, long nowNanos) {
+        TokenBucket[] userBuckets = buckets.get(userId);
+        if (userBuckets == null) {
+            if (buckets.size() >= maxTrackedPrincipals
+                    && (lastSweepNanos == Long.MIN_VALUE || nowNanos - lastSweepNanos >= 1_000_000_000L)) {
+                lastSweepNanos = nowNanos;
+                evictIdle(nowNanos);
+            }
+            userBuckets = buckets.computeIfAbsent(userId, id -> newBuckets(nowNanos));
+        }
+        return userBuckets[endpointClass.ordinal()].tryConsume(nowNanos);
+    }
+
+    private TokenBucket[] newBuckets(long nowNanos) {
+        TokenBucket[] userBuckets = new TokenBucket[EndpointClass.values().length];
+        userBuckets[EndpointClass.READ.ordinal()] = new TokenBucket(readCapacity, readRefillPerSecond, nowNanos);
+        userBuckets[EndpointClass.WRITE.ordinal()] = new TokenBucket(writeCapacity, writeRefillPerSecond, nowNanos);
+        userBuckets[EndpointClass.EXPENSIVE.ordinal()] = new TokenBucket(expensiveCapacity, expensiveRefillPerSecond, nowNanos);
+        return userBuckets;
+    }
+
+    // The cap is soft: only principals whose buckets have all refilled are dropped, since they are indistinguishable
+    // from new ones. Forgetting a partly drained bucket would hand that principal a fresh burst
+    private void evictIdle(long nowNanos) {
+        buckets.values().removeIf(userBuckets -> {
+            for (TokenBucket bucket : userBuckets) {
+                if (!bucket.isFull(nowNanos)) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    int trackedPrincipals() {
+        return buckets.size();
+    }
+
+    static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1e9;
+            this.tokens = capacity;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        // Contended only by one principal's concurrent requests of one class
+        synchronized long tryConsume(long nowNanos) {
+            refill(nowNanos);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            double nanosUntilToken = (1 - tokens) / refillPerNano;
+            return Math.max(1, (long) Math.ceil(nanosUntilToken / 1e9));
+        }
+
+        synchronized boolean isFull(long nowNanos) {
+            refill(nowNanos);
+            return tokens >= capacity;
+        }
+
+        private void refill(long nowNanos) {
+            long elapsed = nowNanos - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+                lastRefillNanos = nowNanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.hrapp.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+// Picks the BCrypt cost for new hashes: the highest one whose hash time on this machine fits the latency budget
+public final class BcryptCostCalibrator {
+
+    private static final int SAMPLES = 3;
+
+    private BcryptCostCalibrator() {}
+
+    public static int calibrate(Duration latencyBudget, int minStrength, int maxStrength) {
+        return strengthWithinBudget(measure(minStrength), latencyBudget.toNanos(), minStrength, maxStrength);
+    }
+
+    // Every cost step doubles the work, so one measurement at the minimum is enough to extrapolate
+    static int strengthWithinBudget(long nanosAtMinStrength, long budgetNanos, int minStrength, int maxStrength) {
+        int strength = minStrength;
+        long estimate = nanosAtMinStrength;
+        while (strength < maxStrength && estimate * 2 <= budgetNanos) {
+            strength++;
+            estimate *= 2;
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode("calibration");
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hrapp.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// Rate-limit classes for /api endpoints; each has its own token bucket per principal
+public enum EndpointClass {
+    READ,
+    WRITE,
+    // Unpaged reads whose cost grows with the size of the organisation: the detailed profile list, exports and org
+    // chart subtrees. Keyset-paged lists are READ, since each page is bounded
+    EXPENSIVE;
+
+    public static EndpointClass of(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        String path = request.getRequestURI();
+        if (path.equals("/api/profiles/detailed") || path.endsWith("/export") || path.endsWith("/subtree")) {
+            return EXPENSIVE;
+        }
+        return READ;
+    }
+}
@@ -0,0 +1,39 @@
+package com.hrapp.security;
+
+import com.hrapp.model.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+public class HrPrincipal implements Principal {
+    private final UUID userId;
+    private final String email;
+    private final UserRole role;
+
+    public HrPrincipal(UUID userId, String email, UserRole role) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+    }
+
+    public boolean isManager() {
+        return role == UserRole.MANAGER;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getName() { return email; }
+
+    public UUID getUserId() { return userId; }
+
+    public String getEmail() { return email; }
+
+    public UserRole getRole() { return role; }
+}
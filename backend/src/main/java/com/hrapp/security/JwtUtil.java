@@ -1,18 +1,29 @@
 package com.hrapp.security;
 
+import com.hrapp.model.UserRole;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
     
     @Value("${spring.security.jwt.secret}")
     private String secret;
@@ -20,66 +31,194 @@ public class JwtUtil {
     @Value("${spring.security.jwt.expiration}")
     private Long expiration;
     
+    @Value("${spring.security.jwt.refresh-expiration:604800000}")
+    private Long refreshExpiration = 604800000L;
+    
+    @Value("${spring.security.jwt.cache-size:10000}")
+    private int cacheSize = 10000;
+    
+    // Built lazily from the injected secret and reused for every sign/verify
+    private volatile Key signingKey;
+    private volatile JwtParser parser;
+    private volatile VerifiedTokenCache tokenCache;
+    
+    // Set once the meter registry binds this component; timings are skipped until then
+    private volatile Timer signTimer;
+    private volatile Timer cachedParseTimer;
+    private volatile Timer verifiedParseTimer;
+    private volatile Timer rejectedParseTimer;
+    
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        Key key = signingKey;
+        if (key == null) {
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+    
+    private JwtParser getParser() {
+        JwtParser jwtParser = parser;
+        if (jwtParser == null) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+            parser = jwtParser;
+        }
+        return jwtParser;
     }
     
-    public String generateToken(UUID userId, String email) {
+    private VerifiedTokenCache getTokenCache() {
+        VerifiedTokenCache cache = tokenCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = tokenCache;
+                if (cache == null) {
+                    cache = new VerifiedTokenCache(cacheSize);
+                    tokenCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+    
+    public String generateToken(UUID userId, String email, UserRole role) {
+        long start = System.nanoTime();
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
         
-        return Jwts.builder()
+        String token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId.toString())
+                .claim("typ", TokenType.ACCESS.name())
                 .claim("email", email)
+                .claim("role", role.name())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
+        record(signTimer, start);
+        return token;
     }
     
-    public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Carries no email or role: refreshing reloads the user, so role changes apply at the next refresh
+    public String generateRefreshToken(UUID userId) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(userId.toString())
+                .claim("typ", TokenType.REFRESH.name())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + refreshExpiration))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+    
+    public long getAccessTokenExpirationSeconds() {
+        return expiration / 1000;
+    }
+    
+    public VerifiedToken parseToken(String token) {
+        long start = System.nanoTime();
+        VerifiedTokenCache cache = getTokenCache();
+        VerifiedToken cached = cache.get(token);
+        if (cached != null) {
+            record(cachedParseTimer, start);
+            return cached;
+        }
         
-        return UUID.fromString(claims.getSubject());
+        try {
+            VerifiedToken verifiedToken = verify(token);
+            cache.put(token, verifiedToken);
+            record(verifiedParseTimer, start);
+            return verifiedToken;
+        } catch (RuntimeException e) {
+            record(rejectedParseTimer, start);
+            throw e;
+        }
     }
     
-    public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+    private VerifiedToken verify(String token) {
+        Claims claims = getParser()
                 .parseClaimsJws(token)
                 .getBody();
         
-        return claims.get("email", String.class);
+        // Every token carries an id to revoke it by and its type; anything issued before both existed has long expired
+        String typ = claims.get("typ", String.class);
+        if (claims.getId() == null || typ == null) {
+            throw new MalformedJwtException("Token does not carry a token id and type");
+        }
+        TokenType type = TokenType.valueOf(typ);
+        String role = claims.get("role", String.class);
+        if (type == TokenType.ACCESS && role == null) {
+            throw new MalformedJwtException("Token does not carry a role claim");
+        }
+        
+        return new VerifiedToken(
+                UUID.fromString(claims.getId()),
+                type,
+                UUID.fromString(claims.getSubject()),
+                claims.get("email", String.class),
+                role == null ? null : UserRole.valueOf(role),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
     }
     
-    public boolean isTokenValid(String token) {
+    public Optional<VerifiedToken> tryParseToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return Optional.of(parseToken(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
     
+    public UUID getUserIdFromToken(String token) {
+        return parseToken(token).getUserId();
+    }
+    
+    public String getEmailFromToken(String token) {
+        return parseToken(token).getEmail();
+    }
+    
+    public boolean isTokenValid(String token) {
+        return tryParseToken(token).isPresent();
+    }
+    
     public boolean isTokenExpired(String token) {
-        try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            
-            return claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return true;
+        return tryParseToken(token).isEmpty();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        signTimer = Timer.builder("hr.jwt.sign")
+                .description("Time to build and sign an access token")
+                .register(registry);
+        cachedParseTimer = parseTimer(registry, "cached");
+        verifiedParseTimer = parseTimer(registry, "verified");
+        rejectedParseTimer = parseTimer(registry, "rejected");
+        
+        FunctionCounter.builder("cache.gets", this, jwtUtil -> jwtUtil.getTokenCache().hitCount())
+                .tags("cache", "verifiedTokens", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", this, jwtUtil -> jwtUtil.getTokenCache().missCount())
+                .tags("cache", "verifiedTokens", "result", "miss")
+                .register(registry);
+        Gauge.builder("cache.size", this, jwtUtil -> jwtUtil.getTokenCache().size())
+                .tags("cache", "verifiedTokens")
+                .register(registry);
+    }
+    
+    private static Timer parseTimer(MeterRegistry registry, String result) {
+        return Timer.builder("hr.jwt.parse")
+                .description("Time to resolve a bearer token: cache hit, full signature verification, or rejection")
+                .tag("result", result)
+                .register(registry);
+    }
+    
+    private static void record(Timer timer, long startNanos) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
         }
     }
-}
\ No newline at end of file
+}
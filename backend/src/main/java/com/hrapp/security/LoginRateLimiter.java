@@ -0,0 +1,9 @@
+package com.hrapp.security;
+
+// Counts login attempts per key (client IP, email). The in-process implementation is per instance; a shared store
+// can be plugged in by providing another bean of this type
+public interface LoginRateLimiter {
+
+    // Returns 0 when the attempt may proceed (it is counted), otherwise the seconds until the key has capacity again
+    long tryAcquire(String key, int maxAttempts);
+}
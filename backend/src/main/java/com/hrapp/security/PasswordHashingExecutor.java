@@ -0,0 +1,88 @@
+package com.hrapp.security;
+
+import com.hrapp.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Runs password verification on a small fixed pool with a bounded queue. A login burst can keep at most
+// threads + queueCapacity request threads waiting; anything beyond that is turned away immediately instead of
+// piling up BCrypt work that would starve every other endpoint of CPU
+public class PasswordHashingExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMillis;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public PasswordHashingExecutor(int threads, int queueCapacity, long timeoutMillis) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new LoginCapacityExceededException("Too many concurrent logins, please retry shortly");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new LoginCapacityExceededException("Login timed out waiting for a password check, please retry shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginCapacityExceededException("Login interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hr.password.hashing.active", pool, ThreadPoolExecutor::getActiveCount)
+                .description("Password checks currently running")
+                .register(registry);
+        Gauge.builder("hr.password.hashing.queued", pool, executor -> executor.getQueue().size())
+                .description("Password checks waiting for a hashing thread")
+                .register(registry);
+        FunctionCounter.builder("hr.password.hashing.rejected", rejected, AtomicLong::get)
+                .description("Logins turned away because the hashing pool was saturated")
+                .register(registry);
+    }
+}
@@ -0,0 +1,126 @@
+package com.hrapp.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Sliding-window counter: the previous fixed window's count, weighted by how much of it still overlaps the sliding
+// window, plus the current window's count. Each key's state is packed into one AtomicLong and updated with CAS,
+// so there are no locks and no allocation per attempt
+@Component
+public class SlidingWindowLoginRateLimiter implements LoginRateLimiter, MeterBinder {
+
+    private static final long COUNT_MASK = 0xFFFF;
+
+    @Value("${hrapp.security.login-rate-limit.window-seconds:60}")
+    private long windowSeconds = 60;
+
+    @Value("${hrapp.security.login-rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys = 100000;
+
+    // key -> [window index: 32 bits | previous window count: 16 bits | current window count: 16 bits]
+    private final Map<String, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong rejectedFull = new AtomicLong();
+
+    // Window in which idle keys were last swept; keys only become idle when the window changes
+    private volatile long lastSweepIndex = -1;
+
+    @Override
+    public long tryAcquire(String key, int maxAttempts) {
+        return tryAcquire(key, maxAttempts, System.currentTimeMillis());
+    }
+
+    long tryAcquire(String key, int maxAttempts, long nowMillis) {
+        long windowMillis = windowSeconds * 1000;
+        long index = nowMillis / windowMillis;
+        long elapsedMillis = nowMillis % windowMillis;
+
+        AtomicLong state = windows.get(key);
+        if (state == null) {
+            if (windows.size() >= maxTrackedKeys && !evictIdle(index)) {
+                // Dropping a key that is still counting would reset its limit, so while every tracked key is active
+                // new keys are turned away until the next window lets some go idle
+                rejectedFull.incrementAndGet();
+                return Math.max(1, (windowMillis - elapsedMillis + 999) / 1000);
+            }
+            state = windows.computeIfAbsent(key, k -> new AtomicLong());
+        }
+
+        while (true) {
+            long packed = state.get();
+            long packedIndex = packed >>> 32;
+            long previous;
+            long current;
+            if (packedIndex == index) {
+                previous = (packed >>> 16) & COUNT_MASK;
+                current = packed & COUNT_MASK;
+            } else if (packedIndex == index - 1) {
+                previous = packed & COUNT_MASK;
+                current = 0;
+            } else {
+                previous = 0;
+                current = 0;
+            }
+
+            double estimate = previous * (windowMillis - elapsedMillis) / (double) windowMillis + current;
+            if (estimate >= maxAttempts) {
+                rejected.incrementAndGet();
+                return retryAfterSeconds(previous, current, maxAttempts, windowMillis, elapsedMillis);
+            }
+
+            long next = (index << 32) | (previous << 16) | Math.min(current + 1, COUNT_MASK);
+            if (state.compareAndSet(packed, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Time until the weighted previous count has decayed enough for one more attempt
+    private static long retryAfterSeconds(long previous, long current, int maxAttempts, long windowMillis, long elapsedMillis) {
+        long waitMillis;
+        if (current >= maxAttempts) {
+            // The current window alone is full: wait for it to become the previous window, then for enough of it to slide out
+            waitMillis = windowMillis - elapsedMillis
+                    + (long) Math.ceil(windowMillis * (1 - (maxAttempts - 0.001) / current));
+        } else {
+            double overlapAllowed = (maxAttempts - current - 0.001) / previous;
+            waitMillis = (long) Math.ceil(windowMillis * (1 - overlapAllowed)) - elapsedMillis;
+        }
+        return Math.max(1, (waitMillis + 999) / 1000);
+    }
+
+    // Drops keys idle for two windows, which carry no weight; swept at most once per window. Returns whether there is
+    // room for another key
+    private boolean evictIdle(long index) {
+        if (lastSweepIndex != index) {
+            lastSweepIndex = index;
+            windows.values().removeIf(state -> (state.get() >>> 32) < index - 1);
+        }
+        return windows.size() < maxTrackedKeys;
+    }
+
+    int trackedKeys() {
+        return windows.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hr.auth.login.throttled", rejected, AtomicLong::get)
+                .description("Login attempts rejected by the rate limiter")
+                .register(registry);
+        FunctionCounter.builder("hr.auth.login.ratelimit.full", rejectedFull, AtomicLong::get)
+                .description("Login attempts turned away because every tracked key was still active")
+                .register(registry);
+        Gauge.builder("hr.auth.login.ratelimit.keys", windows, Map::size)
+                .description("Keys currently tracked by the login rate limiter")
+                .register(registry);
+    }
+}
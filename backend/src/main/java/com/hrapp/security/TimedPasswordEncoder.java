@@ -0,0 +1,67 @@
+package com.hrapp.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Records how long the delegate spends hashing and verifying passwords; for BCrypt this is the cost factor made visible
+public class TimedPasswordEncoder implements PasswordEncoder, MeterBinder {
+
+    private final PasswordEncoder delegate;
+    private final String algorithm;
+
+    private volatile Timer encodeTimer;
+    private volatile Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, String algorithm) {
+        this.delegate = delegate;
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            record(encodeTimer, start);
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            record(matchesTimer, start);
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        encodeTimer = timer(registry, "encode");
+        matchesTimer = timer(registry, "matches");
+    }
+
+    private Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder("hr.password.hash")
+                .description("Time spent hashing or verifying a password")
+                .tags("algorithm", algorithm, "operation", operation)
+                .register(registry);
+    }
+
+    private static void record(Timer timer, long startNanos) {
+        if (timer != null) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
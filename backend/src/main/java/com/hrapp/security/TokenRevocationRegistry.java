@@ -0,0 +1,78 @@
+package com.hrapp.security;
+
+import com.hrapp.model.RevokedToken;
+import com.hrapp.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class TokenRevocationRegistry {
+
+    // Re-reads this much history on every sync so clock skew between instances cannot hide a revocation
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    // jti -> token expiry, mirrored from revoked_tokens; only holds tokens that would otherwise still be valid
+    private final Map<UUID, Instant> revokedTokenIds = new ConcurrentHashMap<>();
+
+    private volatile LocalDateTime lastSync;
+
+    @PostConstruct
+    public void loadRevokedTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+        lastSync = now;
+    }
+
+    // Picks up revocations made by other instances and drops entries whose tokens have expired
+    @Scheduled(fixedDelayString = "${spring.security.jwt.revocation-sync-interval-ms:30000}",
+               initialDelayString = "${spring.security.jwt.revocation-sync-interval-ms:30000}")
+    public void syncRevokedTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS), now)
+                .forEach(this::remember);
+        revokedTokenRepository.deleteExpired(now);
+        lastSync = now;
+
+        Instant instant = Instant.now();
+        revokedTokenIds.values().removeIf(expiry -> !expiry.isAfter(instant));
+    }
+
+    // Returns false when the token id was already revoked, which is how a replayed refresh token is detected
+    public boolean revokeToken(VerifiedToken token) {
+        UUID tokenId = token.getTokenId();
+        int inserted = revokedTokenRepository.insertIfAbsent(tokenId, token.getUserId(),
+                toLocal(token.getExpiresAt()), LocalDateTime.now());
+        revokedTokenIds.put(tokenId, token.getExpiresAt());
+        return inserted == 1;
+    }
+
+    // Runs on every authenticated request: one map lookup, no allocation
+    public boolean isRevoked(VerifiedToken token) {
+        return revokedTokenIds.containsKey(token.getTokenId());
+    }
+
+    int revokedTokenCount() {
+        return revokedTokenIds.size();
+    }
+
+    private void remember(RevokedToken revokedToken) {
+        revokedTokenIds.put(revokedToken.getJti(), revokedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
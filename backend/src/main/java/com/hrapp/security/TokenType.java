@@ -0,0 +1,6 @@
+package com.hrapp.security;
+
+// Carried in the "typ" claim: access tokens authenticate API calls, refresh tokens are only accepted by /api/auth/refresh
+public enum TokenType {
+    ACCESS, REFRESH
+}
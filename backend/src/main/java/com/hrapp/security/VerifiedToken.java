@@ -0,0 +1,51 @@
+package com.hrapp.security;
+
+import com.hrapp.model.UserRole;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class VerifiedToken {
+    public static final String REQUEST_ATTRIBUTE = "com.hrapp.security.VerifiedToken";
+
+    private final UUID tokenId;
+    private final TokenType type;
+    private final UUID userId;
+    private final String email;
+    private final UserRole role;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+
+    public VerifiedToken(UUID tokenId, TokenType type, UUID userId, String email, UserRole role,
+                         Instant issuedAt, Instant expiresAt) {
+        this.tokenId = tokenId;
+        this.type = type;
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public HrPrincipal toPrincipal() {
+        return new HrPrincipal(userId, email, role);
+    }
+
+    public UUID getTokenId() { return tokenId; }
+
+    public TokenType getType() { return type; }
+
+    public UUID getUserId() { return userId; }
+
+    public String getEmail() { return email; }
+
+    public UserRole getRole() { return role; }
+
+    public Instant getIssuedAt() { return issuedAt; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+}
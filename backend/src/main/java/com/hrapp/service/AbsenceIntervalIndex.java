@@ -0,0 +1,218 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.AbsencePeriod;
+import com.hrapp.model.AbsenceStatus;
+import com.hrapp.repository.AbsenceRequestRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache of employeeId -> that employee's pending and approved absences, kept up to date by
+// AbsenceRequestChangedEvent here and reloaded after ttl-ms for changes made on other instances. The
+// absence_requests_no_overlap constraint keeps each employee's periods disjoint, so they are sorted by end date as
+// well as start date and an interval lookup is a single O(log n) floor search
+@Component
+public class AbsenceIntervalIndex implements MeterBinder {
+    private static final String CACHE_NAME = "absenceIntervals";
+
+    @Autowired
+    private AbsenceRequestRepository absenceRequestRepository;
+
+    @Value("${hrapp.absence-index.max-employees:10000}")
+    private int maxEmployees = 10000;
+
+    @Value("${hrapp.absence-index.ttl-ms:60000}")
+    private long ttlMillis = 60000;
+
+    private final LinkedHashMap<UUID, EmployeeAbsences> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, EmployeeAbsences> eldest) {
+            return size() > maxEmployees;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Bumped on every change so a load that raced with it does not insert a stale history
+    private final AtomicLong generation = new AtomicLong();
+
+    // A pending or approved absence of the employee that shares at least one day with [start, end]
+    public Optional<AbsencePeriod> findOverlap(UUID employeeId, LocalDate start, LocalDate end) {
+        long startedNanos = System.nanoTime();
+        EmployeeAbsences absences = load(Collections.singleton(employeeId)).get(employeeId);
+        AbsencePeriod overlap;
+        synchronized (entries) {
+            overlap = absences.overlapping(start, end);
+            if (overlap == null || absences.loadedAtNanos - startedNanos >= 0) {
+                return Optional.ofNullable(overlap);
+            }
+            // A cached hit may have been withdrawn or rejected on another instance; confirm it before refusing
+            generation.incrementAndGet();
+            entries.remove(employeeId);
+        }
+        absences = load(Collections.singleton(employeeId)).get(employeeId);
+        synchronized (entries) {
+            return Optional.ofNullable(absences.overlapping(start, end));
+        }
+    }
+
+    // The employees among employeeIds with an approved absence covering date
+    public Set<UUID> findAbsentOn(Collection<UUID> employeeIds, LocalDate date) {
+        Map<UUID, EmployeeAbsences> loaded = load(employeeIds);
+        Set<UUID> absent = new HashSet<>();
+        synchronized (entries) {
+            for (Map.Entry<UUID, EmployeeAbsences> entry : loaded.entrySet()) {
+                AbsencePeriod period = entry.getValue().overlapping(date, date);
+                if (period != null && period.getStatus() == AbsenceStatus.APPROVED) {
+                    absent.add(entry.getKey());
+                }
+            }
+        }
+        return absent;
+    }
+
+    @EventListener
+    public void onAbsenceRequestChanged(AbsenceRequestChangedEvent event) {
+        AbsencePeriod period = event.getPeriod();
+        synchronized (entries) {
+            generation.incrementAndGet();
+            EmployeeAbsences absences = entries.get(period.getEmployeeId());
+            if (absences == null) {
+                return;
+            }
+            absences.remove(period);
+            if (!event.isDeleted() && period.getStatus() != AbsenceStatus.REJECTED) {
+                absences.add(period);
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Map<UUID, EmployeeAbsences> load(Collection<UUID> employeeIds) {
+        Map<UUID, EmployeeAbsences> result = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+        long nowNanos = System.nanoTime();
+        long ttlNanos = ttlMillis * 1_000_000L;
+
+        synchronized (entries) {
+            for (UUID employeeId : employeeIds) {
+                EmployeeAbsences absences = entries.get(employeeId);
+                if (absences != null && nowNanos - absences.loadedAtNanos < ttlNanos) {
+                    result.put(employeeId, absences);
+                } else {
+                    missing.add(employeeId);
+                }
+            }
+        }
+        hits.addAndGet(result.size());
+        misses.addAndGet(missing.size());
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // Whole histories for every miss in one query, outside the lock; employees without absences are cached too
+        long loadGeneration = generation.get();
+        Map<UUID, EmployeeAbsences> fetched = new HashMap<>();
+        for (UUID employeeId : missing) {
+            fetched.put(employeeId, new EmployeeAbsences(nowNanos));
+        }
+        for (AbsencePeriod period : absenceRequestRepository.findActivePeriodsByEmployeeIdIn(missing)) {
+            fetched.get(period.getEmployeeId()).add(period);
+        }
+        synchronized (entries) {
+            boolean current = loadGeneration == generation.get();
+            for (Map.Entry<UUID, EmployeeAbsences> entry : fetched.entrySet()) {
+                EmployeeAbsences cached = current ? null : entries.get(entry.getKey());
+                if (cached != null && cached.loadedAtNanos - nowNanos > 0) {
+                    // Loaded by someone else after a change, so fresher than ours
+                    result.put(entry.getKey(), cached);
+                    continue;
+                }
+                result.put(entry.getKey(), entry.getValue());
+                if (current && maxEmployees > 0) {
+                    entries.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Absence histories served from memory")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Absence histories loaded from the database")
+                .register(registry);
+        Gauge.builder("cache.size", this, AbsenceIntervalIndex::size)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+    }
+
+    // One employee's disjoint periods keyed by start date; guarded by the entries lock
+    static final class EmployeeAbsences {
+        private final TreeMap<LocalDate, AbsencePeriod> byStart = new TreeMap<>();
+        // Taken before the query, so an entry never looks fresher than the rows it was built from
+        private final long loadedAtNanos;
+
+        EmployeeAbsences(long loadedAtNanos) {
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        // Periods are disjoint, so the last one starting on or before end is the only candidate
+        AbsencePeriod overlapping(LocalDate start, LocalDate end) {
+            Map.Entry<LocalDate, AbsencePeriod> candidate = byStart.floorEntry(end);
+            if (candidate != null && !candidate.getValue().getEndDate().isBefore(start)) {
+                return candidate.getValue();
+            }
+            return null;
+        }
+
+        void add(AbsencePeriod period) {
+            byStart.put(period.getStartDate(), period);
+        }
+
+        void remove(AbsencePeriod period) {
+            AbsencePeriod existing = byStart.get(period.getStartDate());
+            if (existing != null && existing.getRequestId().equals(period.getRequestId())) {
+                byStart.remove(period.getStartDate());
+            }
+        }
+    }
+}
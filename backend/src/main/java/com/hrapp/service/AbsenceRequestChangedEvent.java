@@ -0,0 +1,18 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.AbsencePeriod;
+
+// Published after an absence request is created, decided or deleted; period is the request as it is now
+public class AbsenceRequestChangedEvent {
+    private final AbsencePeriod period;
+    private final boolean deleted;
+
+    public AbsenceRequestChangedEvent(AbsencePeriod period, boolean deleted) {
+        this.period = period;
+        this.deleted = deleted;
+    }
+
+    public AbsencePeriod getPeriod() { return period; }
+
+    public boolean isDeleted() { return deleted; }
+}
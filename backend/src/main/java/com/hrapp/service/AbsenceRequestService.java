@@ -1,168 +1,288 @@
 package com.hrapp.service;
 
+import com.hrapp.dto.AbsencePeriod;
 import com.hrapp.dto.AbsenceRequestDto;
+import com.hrapp.dto.AbsenceRequestFilter;
 import com.hrapp.dto.ApprovalRequestDto;
 import com.hrapp.dto.CreateAbsenceRequestDto;
+import com.hrapp.dto.CursorPage;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.exception.AbsenceOverlapException;
 import com.hrapp.exception.AbsenceRequestNotFoundException;
+import com.hrapp.exception.InvalidCursorException;
 import com.hrapp.exception.InvalidDateRangeException;
 import com.hrapp.exception.InvalidRequestStatusException;
-import com.hrapp.exception.UserNotFoundException;
 import com.hrapp.model.AbsenceRequest;
 import com.hrapp.model.AbsenceStatus;
-import com.hrapp.model.EmployeeProfile;
-import com.hrapp.model.User;
-import com.hrapp.model.UserRole;
 import com.hrapp.repository.AbsenceRequestRepository;
+import com.hrapp.repository.AbsenceRequestSpecifications;
 import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.repository.OrgClosureRepository;
 import com.hrapp.repository.UserRepository;
+import com.hrapp.security.HrPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class AbsenceRequestService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    // PostgreSQL exclusion_violation, raised by absence_requests_no_overlap
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    
     @Autowired
     private AbsenceRequestRepository absenceRequestRepository;
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ProfileDirectoryCache profileDirectoryCache;
+    
+    @Autowired
+    private AbsenceIntervalIndex absenceIntervalIndex;
+    
     @Autowired
     private EmployeeProfileRepository employeeProfileRepository;
     
-    public AbsenceRequestDto createAbsenceRequest(CreateAbsenceRequestDto requestDto, UUID currentUserId) {
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private OrgClosureRepository orgClosureRepository;
+    
+    public AbsenceRequestDto createAbsenceRequest(CreateAbsenceRequestDto requestDto, HrPrincipal principal) {
         // Validate dates
         if (requestDto.getEndDate().isBefore(requestDto.getStartDate())) {
             throw new InvalidDateRangeException("End date cannot be before start date");
         }
+        checkNoOverlap(principal.getUserId(), requestDto.getStartDate(), requestDto.getEndDate(), null);
         
         AbsenceRequest absenceRequest = new AbsenceRequest(
-            currentUser,
+            userRepository.getReferenceById(principal.getUserId()),
             requestDto.getStartDate(),
             requestDto.getEndDate(),
             requestDto.getReason()
         );
         
-        AbsenceRequest savedRequest = absenceRequestRepository.save(absenceRequest);
+        AbsenceRequest savedRequest = saveChecked(absenceRequest);
+        publishChange(savedRequest, false);
         return convertToDto(savedRequest);
     }
     
-    public List<AbsenceRequestDto> getMyAbsenceRequests(UUID currentUserId) {
-        return absenceRequestRepository.findByEmployeeId(currentUserId)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public List<AbsenceRequestDto> getMyAbsenceRequests(HrPrincipal principal) {
+        return convertToDtos(absenceRequestRepository.findListByEmployeeId(principal.getUserId()));
     }
     
-    public List<AbsenceRequestDto> getAllAbsenceRequests(UUID currentUserId) {
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
-        // Only managers can see all requests
-        if (currentUser.getRole() != UserRole.MANAGER) {
+    public CursorPage<AbsenceRequestDto> getAllAbsenceRequests(AbsenceRequestFilter filter, String cursor, int limit,
+                                                               HrPrincipal principal) {
+        // Only managers can see requests, and only those from their own org
+        if (!principal.isManager()) {
             throw new AccessDeniedException("Access denied");
         }
         
-        return absenceRequestRepository.findAll()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return findPage(filter, cursor, limit, principal.getUserId());
     }
     
-    public List<AbsenceRequestDto> getPendingAbsenceRequests(UUID currentUserId) {
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
+    public CursorPage<AbsenceRequestDto> getPendingAbsenceRequests(AbsenceRequestFilter filter, String cursor, int limit,
+                                                                   HrPrincipal principal) {
         // Only managers can see pending requests for approval
-        if (currentUser.getRole() != UserRole.MANAGER) {
+        if (!principal.isManager()) {
             throw new AccessDeniedException("Access denied");
         }
         
-        return absenceRequestRepository.findByStatus(AbsenceStatus.PENDING)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        filter.setStatus(AbsenceStatus.PENDING);
+        return findPage(filter, cursor, limit, principal.getUserId());
     }
     
-    public AbsenceRequestDto getAbsenceRequest(UUID requestId, UUID currentUserId) {
+    public AbsenceRequestDto getAbsenceRequest(UUID requestId, HrPrincipal principal) {
         AbsenceRequest request = absenceRequestRepository.findById(requestId)
                 .orElseThrow(() -> new AbsenceRequestNotFoundException("Absence request not found with ID: " + requestId));
         
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
         // Check access permissions
-        if (!canAccessRequest(request, currentUser)) {
+        if (!canAccessRequest(request, principal)) {
             throw new AccessDeniedException("Access denied");
         }
         
         return convertToDto(request);
     }
     
-    public AbsenceRequestDto approveOrRejectRequest(UUID requestId, ApprovalRequestDto approvalDto, UUID currentUserId) {
-        AbsenceRequest request = absenceRequestRepository.findById(requestId)
-                .orElseThrow(() -> new AbsenceRequestNotFoundException("Absence request not found with ID: " + requestId));
-        
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
+    public AbsenceRequestDto approveOrRejectRequest(UUID requestId, ApprovalRequestDto approvalDto, HrPrincipal principal) {
         // Only managers can approve/reject requests
-        if (currentUser.getRole() != UserRole.MANAGER) {
+        if (!principal.isManager()) {
             throw new AccessDeniedException("Access denied");
         }
         
+        AbsenceRequest request = absenceRequestRepository.findForApprovalById(requestId)
+                .orElseThrow(() -> new AbsenceRequestNotFoundException("Absence request not found with ID: " + requestId));
+        
+        // Only managers above the employee in the org chart can decide the request
+        if (!orgClosureRepository.isInOrgOf(request.getEmployee().getId(), principal.getUserId())) {
+            throw new AccessDeniedException("Can only approve or reject requests from your own reports");
+        }
+        
         // Can only approve/reject pending requests
         if (request.getStatus() != AbsenceStatus.PENDING) {
             throw new InvalidRequestStatusException("Can only approve or reject pending requests");
         }
         
+        if (approvalDto.getStatus() == AbsenceStatus.APPROVED) {
+            checkNoOverlap(request.getEmployee().getId(), request.getStartDate(), request.getEndDate(), request.getId());
+        }
+        
         request.setStatus(approvalDto.getStatus());
-        request.setApprovedBy(currentUser);
+        request.setApprovedBy(userRepository.getReferenceById(principal.getUserId()));
         request.setApprovedAt(LocalDateTime.now());
         request.setComments(approvalDto.getComments());
         
-        AbsenceRequest savedRequest = absenceRequestRepository.save(request);
+        AbsenceRequest savedRequest = saveChecked(request);
+        publishChange(savedRequest, false);
         return convertToDto(savedRequest);
     }
     
-    public void deleteAbsenceRequest(UUID requestId, UUID currentUserId) {
-        AbsenceRequest request = absenceRequestRepository.findById(requestId)
+    public void deleteAbsenceRequest(UUID requestId, HrPrincipal principal) {
+        AbsenceRequest request = absenceRequestRepository.findForApprovalById(requestId)
                 .orElseThrow(() -> new AbsenceRequestNotFoundException("Absence request not found with ID: " + requestId));
         
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
         // Can only delete own pending requests
-        if (!request.getEmployee().getId().equals(currentUserId) || request.getStatus() != AbsenceStatus.PENDING) {
+        if (!request.getEmployee().getId().equals(principal.getUserId()) || request.getStatus() != AbsenceStatus.PENDING) {
             throw new AccessDeniedException("Can only delete your own pending requests");
         }
         
         absenceRequestRepository.delete(request);
+        publishChange(request, true);
+    }
+    
+    public List<ProfileDirectoryEntry> getAbsentReports(LocalDate date, HrPrincipal principal) {
+        // Only managers can see who in their team is out
+        if (!principal.isManager()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        
+        Set<UUID> absent = absenceIntervalIndex.findAbsentOn(
+                employeeProfileRepository.findUserIdsByManagerId(principal.getUserId()), date);
+        return profileDirectoryCache.getAll(absent).values().stream()
+                .sorted(Comparator.comparing(ProfileDirectoryEntry::getLastName)
+                        .thenComparing(ProfileDirectoryEntry::getFirstName))
+                .collect(Collectors.toList());
+    }
+    
+    private void checkNoOverlap(UUID employeeId, LocalDate startDate, LocalDate endDate, UUID requestId) {
+        absenceIntervalIndex.findOverlap(employeeId, startDate, endDate)
+                .filter(period -> !period.getRequestId().equals(requestId))
+                .ifPresent(period -> {
+                    throw new AbsenceOverlapException("Absence overlaps an existing " +
+                            period.getStatus().name().toLowerCase() + " request from " +
+                            period.getStartDate() + " to " + period.getEndDate());
+                });
+    }
+    
+    // The index can trail a concurrent request or another instance; the exclusion constraint is the final word
+    private AbsenceRequest saveChecked(AbsenceRequest request) {
+        try {
+            return absenceRequestRepository.save(request);
+        } catch (DataIntegrityViolationException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                    throw new AbsenceOverlapException("Absence overlaps an existing pending or approved request", e);
+                }
+            }
+            throw e;
+        }
     }
     
-    private boolean canAccessRequest(AbsenceRequest request, User currentUser) {
-        // Managers can see all requests
-        if (currentUser.getRole() == UserRole.MANAGER) {
+    private void publishChange(AbsenceRequest request, boolean deleted) {
+        eventPublisher.publishEvent(new AbsenceRequestChangedEvent(new AbsencePeriod(request.getId(),
+                request.getEmployee().getId(), request.getStartDate(), request.getEndDate(), request.getStatus()), deleted));
+    }
+    
+    private boolean canAccessRequest(AbsenceRequest request, HrPrincipal principal) {
+        // Everyone can see their own requests
+        if (request.getEmployee().getId().equals(principal.getUserId())) {
             return true;
         }
         
-        // Employees can only see their own requests
-        return request.getEmployee().getId().equals(currentUser.getId());
+        // Managers can see requests from anyone in their org
+        return principal.isManager() && orgClosureRepository.isInOrgOf(request.getEmployee().getId(), principal.getUserId());
+    }
+    
+    private CursorPage<AbsenceRequestDto> findPage(AbsenceRequestFilter filter, String cursor, int limit, UUID managerId) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        
+        Specification<AbsenceRequest> specification = AbsenceRequestSpecifications.matching(filter)
+                .and(AbsenceRequestSpecifications.inOrgOf(managerId));
+        if (cursor != null) {
+            String[] keys = CursorCodec.decode(cursor, 2);
+            try {
+                specification = specification.and(AbsenceRequestSpecifications.before(
+                        LocalDateTime.parse(keys[0]), UUID.fromString(keys[1])));
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new InvalidCursorException("Malformed page cursor", e);
+            }
+        }
+        
+        // Fetch one extra row to learn whether another page exists
+        List<AbsenceRequest> rows = absenceRequestRepository.findPage(specification, pageSize + 1);
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            AbsenceRequest last = rows.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getRequestedAt().toString(), last.getId().toString());
+        }
+        
+        return new CursorPage<>(convertToDtos(rows), nextCursor);
     }
     
     private AbsenceRequestDto convertToDto(AbsenceRequest request) {
+        return convertToDtos(Collections.singletonList(request)).get(0);
+    }
+    
+    private List<AbsenceRequestDto> convertToDtos(List<AbsenceRequest> requests) {
+        if (requests.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        // Resolve employee and approver names for the whole batch; only cache misses reach the database
+        Set<UUID> userIds = new HashSet<>();
+        for (AbsenceRequest request : requests) {
+            userIds.add(request.getEmployee().getId());
+            if (request.getApprovedBy() != null) {
+                userIds.add(request.getApprovedBy().getId());
+            }
+        }
+        Map<UUID, String> names = new HashMap<>();
+        for (ProfileDirectoryEntry entry : profileDirectoryCache.getAll(userIds).values()) {
+            names.put(entry.getUserId(), entry.getFullName());
+        }
+        
+        return requests.stream()
+                .map(request -> convertToDto(request, names))
+                .collect(Collectors.toList());
+    }
+    
+    private AbsenceRequestDto convertToDto(AbsenceRequest request, Map<UUID, String> names) {
         AbsenceRequestDto dto = new AbsenceRequestDto();
         dto.setId(request.getId());
         dto.setEmployeeId(request.getEmployee().getId());
+        dto.setEmployeeName(names.get(request.getEmployee().getId()));
         dto.setStartDate(request.getStartDate());
         dto.setEndDate(request.getEndDate());
         dto.setReason(request.getReason());
@@ -171,23 +291,12 @@ public class AbsenceRequestService {
         dto.setApprovedAt(request.getApprovedAt());
         dto.setComments(request.getComments());
         
-        // Set employee name
-        EmployeeProfile employeeProfile = employeeProfileRepository.findByUserId(request.getEmployee().getId())
-                .orElse(null);
-        if (employeeProfile != null) {
-            dto.setEmployeeName(employeeProfile.getFirstName() + " " + employeeProfile.getLastName());
-        }
-        
         // Set approver info
         if (request.getApprovedBy() != null) {
             dto.setApprovedBy(request.getApprovedBy().getId());
-            EmployeeProfile approverProfile = employeeProfileRepository.findByUserId(request.getApprovedBy().getId())
-                    .orElse(null);
-            if (approverProfile != null) {
-                dto.setApprovedByName(approverProfile.getFirstName() + " " + approverProfile.getLastName());
-            }
+            dto.setApprovedByName(names.get(request.getApprovedBy().getId()));
         }
         
         return dto;
     }
-}
\ No newline at end of file
+}
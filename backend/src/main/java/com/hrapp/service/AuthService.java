@@ -2,18 +2,33 @@ package com.hrapp.service;
 
 import com.hrapp.dto.AuthResponse;
 import com.hrapp.dto.LoginRequest;
+import com.hrapp.dto.RefreshTokenRequest;
 import com.hrapp.exception.InvalidCredentialsException;
+import com.hrapp.exception.InvalidTokenException;
+import com.hrapp.exception.LoginCapacityExceededException;
+import com.hrapp.exception.TooManyLoginAttemptsException;
 import com.hrapp.exception.UserNotFoundException;
 import com.hrapp.model.User;
 import com.hrapp.repository.UserRepository;
 import com.hrapp.security.JwtUtil;
+import com.hrapp.security.LoginRateLimiter;
+import com.hrapp.security.PasswordHashingExecutor;
+import com.hrapp.security.TokenRevocationRegistry;
+import com.hrapp.security.TokenType;
+import com.hrapp.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
 @Service
 public class AuthService {
     
@@ -26,24 +41,125 @@ public class AuthService {
     @Autowired
     private JwtUtil jwtUtil;
     
-    public AuthResponse login(LoginRequest loginRequest) {
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    // Turned off only for load tests and benchmarks, which log in from one address at far more than human rates
+    @Value("${hrapp.security.login-rate-limit.enabled:true}")
+    private boolean rateLimitEnabled = true;
+    
+    @Value("${hrapp.security.login-rate-limit.per-ip:30}")
+    private int maxAttemptsPerIp = 30;
+    
+    @Value("${hrapp.security.login-rate-limit.per-email:5}")
+    private int maxAttemptsPerEmail = 5;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    public AuthResponse login(LoginRequest loginRequest, String clientIp) {
+        long start = System.nanoTime();
+        String outcome = "error";
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // Throttle before any password work: per IP against stuffing from one source, per email against
+            // distributed guessing of one account
+            throttle("ip:" + clientIp, maxAttemptsPerIp);
+            throttle("email:" + loginRequest.getEmail().trim().toLowerCase(Locale.ROOT), maxAttemptsPerEmail);
+            
+            // The BCrypt check (and any rehash) runs on the bounded hashing pool, not on the request thread
+            Authentication authentication = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             loginRequest.getEmail(),
                             loginRequest.getPassword()
                     )
-            );
+            ));
             
             User user = userRepository.findByEmail(loginRequest.getEmail())
                     .orElseThrow(() -> new UserNotFoundException("User not found with email: " + loginRequest.getEmail()));
             
-            String token = jwtUtil.generateToken(user.getId(), user.getEmail());
-            
-            return new AuthResponse(token, user.getId(), user.getEmail(), user.getRole());
+            outcome = "success";
+            return issueTokens(user);
             
         } catch (AuthenticationException e) {
+            outcome = "invalid_credentials";
             throw new InvalidCredentialsException("Invalid email or password");
+        } catch (LoginCapacityExceededException e) {
+            outcome = "rejected";
+            throw e;
+        } catch (TooManyLoginAttemptsException e) {
+            outcome = "throttled";
+            throw e;
+        } finally {
+            // End-to-end login time; the password check alone is hr.password.hash{operation=matches}
+            Timer.builder("hr.auth.login")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
-}
\ No newline at end of file
+    
+    // Rotates the pair without a password check: the presented refresh token is spent, and presenting it again
+    // (a replay, or a second tab racing this one) is rejected because its id is already revoked
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        long start = System.nanoTime();
+        String outcome = "rejected";
+        try {
+            VerifiedToken refreshToken = jwtUtil.tryParseToken(request.getRefreshToken())
+                    .filter(token -> token.getType() == TokenType.REFRESH)
+                    .filter(token -> !tokenRevocationRegistry.isRevoked(token))
+                    .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+            
+            if (!tokenRevocationRegistry.revokeToken(refreshToken)) {
+                throw new InvalidTokenException("Refresh token has already been used");
+            }
+            
+            User user = userRepository.findById(refreshToken.getUserId())
+                    .orElseThrow(() -> new InvalidTokenException("Invalid or expired refresh token"));
+            
+            outcome = "success";
+            return issueTokens(user);
+        } finally {
+            Timer.builder("hr.auth.refresh")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    // Revokes the calling access token and, when it belongs to the same user, the refresh token
+    public void logout(VerifiedToken accessToken, String refreshToken) {
+        if (accessToken != null) {
+            tokenRevocationRegistry.revokeToken(accessToken);
+        }
+        if (refreshToken != null) {
+            jwtUtil.tryParseToken(refreshToken)
+                    .filter(token -> token.getType() == TokenType.REFRESH)
+                    .filter(token -> accessToken == null || token.getUserId().equals(accessToken.getUserId()))
+                    .ifPresent(tokenRevocationRegistry::revokeToken);
+        }
+    }
+    
+    private void throttle(String key, int maxAttempts) {
+        if (!rateLimitEnabled) {
+            return;
+        }
+        long retryAfterSeconds = loginRateLimiter.tryAcquire(key, maxAttempts);
+        if (retryAfterSeconds > 0) {
+            throw new TooManyLoginAttemptsException("Too many login attempts, please retry later", retryAfterSeconds);
+        }
+    }
+    
+    private AuthResponse issueTokens(User user) {
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole());
+        AuthResponse response = new AuthResponse(token, user.getId(), user.getEmail(), user.getRole());
+        response.setRefreshToken(jwtUtil.generateRefreshToken(user.getId()));
+        response.setExpiresIn(jwtUtil.getAccessTokenExpirationSeconds());
+        return response;
+    }
+}
@@ -1,144 +1,205 @@
 package com.hrapp.service;
 
+import com.hrapp.dto.CursorPage;
 import com.hrapp.dto.ProfileBasicDto;
 import com.hrapp.dto.ProfileDetailDto;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.dto.ProfileDirectorySort;
+import com.hrapp.exception.InvalidCursorException;
+import com.hrapp.exception.InvalidManagerAssignmentException;
 import com.hrapp.exception.ProfileNotFoundException;
-import com.hrapp.exception.UserNotFoundException;
 import com.hrapp.model.EmployeeProfile;
 import com.hrapp.model.User;
 import com.hrapp.model.UserRole;
 import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.repository.OrgClosureRepository;
 import com.hrapp.repository.UserRepository;
+import com.hrapp.security.HrPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class EmployeeProfileService {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
     private EmployeeProfileRepository employeeProfileRepository;
     
     @Autowired
     private UserRepository userRepository;
     
-    public List<ProfileBasicDto> getAllBasicProfiles(UUID currentUserId) {
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
+    @Autowired
+    private ProfileDirectoryCache profileDirectoryCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private OrgClosureRepository orgClosureRepository;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // The directory is basic profile information, visible to every employee
+    public CursorPage<ProfileBasicDto> getBasicProfileDirectory(ProfileDirectorySort sort, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        Pageable firstRows = PageRequest.of(0, pageSize + 1);
         
-        return employeeProfileRepository.findAll()
-                .stream()
-                .map(this::convertToBasicDto)
-                .collect(Collectors.toList());
+        List<ProfileBasicDto> rows;
+        try {
+            if (sort == ProfileDirectorySort.DEPARTMENT) {
+                if (cursor == null) {
+                    rows = employeeProfileRepository.findDirectoryByDepartment(firstRows);
+                } else {
+                    String[] keys = CursorCodec.decode(cursor, 3);
+                    rows = employeeProfileRepository.findDirectoryByDepartmentAfter(
+                            keys[0], keys[1], UUID.fromString(keys[2]), firstRows);
+                }
+            } else {
+                if (cursor == null) {
+                    rows = employeeProfileRepository.findDirectoryByLastName(firstRows);
+                } else {
+                    String[] keys = CursorCodec.decode(cursor, 2);
+                    rows = employeeProfileRepository.findDirectoryByLastNameAfter(
+                            keys[0], UUID.fromString(keys[1]), firstRows);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed page cursor", e);
+        }
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            ProfileBasicDto last = rows.get(pageSize - 1);
+            nextCursor = sort == ProfileDirectorySort.DEPARTMENT
+                    ? CursorCodec.encode(last.getDepartment() != null ? last.getDepartment() : "",
+                                         last.getLastName(), last.getId().toString())
+                    : CursorCodec.encode(last.getLastName(), last.getId().toString());
+        }
+        
+        return new CursorPage<>(rows, nextCursor);
     }
     
-    public List<ProfileDetailDto> getAllDetailProfiles(UUID currentUserId) {
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
-        // Only managers can see all detailed profiles
-        if (currentUser.getRole() != UserRole.MANAGER) {
+    public List<ProfileDetailDto> getAllDetailProfiles(HrPrincipal principal) {
+        // Only managers can see detailed profiles, for themselves and everyone in their org
+        if (!principal.isManager()) {
             throw new AccessDeniedException("Access denied");
         }
         
-        return employeeProfileRepository.findAll()
-                .stream()
+        List<EmployeeProfile> profiles = employeeProfileRepository.findListInOrgOf(principal.getUserId());
+        
+        // Warm the directory cache with every manager in one query before converting row by row
+        profileDirectoryCache.getAll(profiles.stream()
+                .filter(profile -> profile.getManager() != null)
+                .map(profile -> profile.getManager().getId())
+                .collect(Collectors.toSet()));
+        
+        return profiles.stream()
                 .map(this::convertToDetailDto)
                 .collect(Collectors.toList());
     }
     
-    public ProfileBasicDto getBasicProfile(UUID profileId, UUID currentUserId) {
+    public ProfileBasicDto getBasicProfile(UUID profileId, HrPrincipal principal) {
         EmployeeProfile profile = employeeProfileRepository.findById(profileId)
                 .orElseThrow(() -> new ProfileNotFoundException("Profile not found with ID: " + profileId));
         
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
         // Check basic access permissions
-        if (!canAccessProfile(profile, currentUser)) {
+        if (!canAccessProfile(profile, principal)) {
             throw new AccessDeniedException("Access denied");
         }
         
         return convertToBasicDto(profile);
     }
     
-    public ProfileDetailDto getDetailProfile(UUID profileId, UUID currentUserId) {
+    public ProfileDetailDto getDetailProfile(UUID profileId, HrPrincipal principal) {
         EmployeeProfile profile = employeeProfileRepository.findById(profileId)
                 .orElseThrow(() -> new ProfileNotFoundException("Profile not found with ID: " + profileId));
         
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
         // Check detailed access permissions (manager or owner only)
-        if (!canAccessDetailedProfile(profile, currentUser)) {
+        if (!canAccessDetailedProfile(profile, principal)) {
             throw new AccessDeniedException("Access denied");
         }
         
         return convertToDetailDto(profile);
     }
     
-    public ProfileDetailDto getMyProfile(UUID currentUserId) {
-        EmployeeProfile profile = employeeProfileRepository.findByUserId(currentUserId)
-                .orElseThrow(() -> new ProfileNotFoundException("Profile not found for user ID: " + currentUserId));
+    public ProfileDetailDto getMyProfile(HrPrincipal principal) {
+        EmployeeProfile profile = employeeProfileRepository.findByUserId(principal.getUserId())
+                .orElseThrow(() -> new ProfileNotFoundException("Profile not found for user ID: " + principal.getUserId()));
         
         return convertToDetailDto(profile);
     }
     
-    public ProfileDetailDto updateProfile(UUID profileId, ProfileDetailDto profileDto, UUID currentUserId) {
+    public ProfileDetailDto updateProfile(UUID profileId, ProfileDetailDto profileDto, HrPrincipal principal) {
         EmployeeProfile existingProfile = employeeProfileRepository.findById(profileId)
                 .orElseThrow(() -> new ProfileNotFoundException("Profile not found with ID: " + profileId));
         
-        User currentUser = userRepository.findById(currentUserId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with ID: " + currentUserId));
-        
         // Check update permissions
-        if (!canUpdateProfile(existingProfile, currentUser)) {
+        if (!canUpdateProfile(existingProfile, principal)) {
             throw new AccessDeniedException("Access denied");
         }
         
-        updateProfileFromDto(existingProfile, profileDto);
-        EmployeeProfile savedProfile = employeeProfileRepository.save(existingProfile);
+        UUID previousManagerId = existingProfile.getManager() != null ? existingProfile.getManager().getId() : null;
+        // A manager change rewrites org_closure, which must commit or roll back together with the profile
+        EmployeeProfile savedProfile = transactionTemplate.execute(status -> {
+            updateProfileFromDto(existingProfile, profileDto, principal);
+            return employeeProfileRepository.save(existingProfile);
+        });
+        eventPublisher.publishEvent(new ProfileUpdatedEvent(savedProfile.getUser().getId()));
+        UUID managerId = savedProfile.getManager() != null ? savedProfile.getManager().getId() : null;
+        if (!Objects.equals(previousManagerId, managerId)) {
+            eventPublisher.publishEvent(new ManagerChangedEvent(savedProfile.getUser().getId(), previousManagerId, managerId));
+        }
         
         return convertToDetailDto(savedProfile);
     }
     
-    private boolean canAccessProfile(EmployeeProfile profile, User currentUser) {
+    private boolean canAccessProfile(EmployeeProfile profile, HrPrincipal principal) {
         // Managers can access all profiles
-        if (currentUser.getRole() == UserRole.MANAGER) {
+        if (principal.isManager()) {
             return true;
         }
         
         // Users can access their own profile
-        if (profile.getUser().getId().equals(currentUser.getId())) {
+        if (profile.getUser().getId().equals(principal.getUserId())) {
             return true;
         }
         
         // Employees can access coworker basic profiles
-        return currentUser.getRole() == UserRole.EMPLOYEE;
+        return principal.getRole() == UserRole.EMPLOYEE;
     }
     
-    private boolean canAccessDetailedProfile(EmployeeProfile profile, User currentUser) {
-        // Managers can access all detailed profiles
-        if (currentUser.getRole() == UserRole.MANAGER) {
+    private boolean canAccessDetailedProfile(EmployeeProfile profile, HrPrincipal principal) {
+        // Users can access their own detailed profile
+        if (profile.getUser().getId().equals(principal.getUserId())) {
             return true;
         }
         
-        // Users can only access their own detailed profile
-        return profile.getUser().getId().equals(currentUser.getId());
+        // Managers can access the detailed profiles of everyone in their org
+        return principal.isManager() && orgClosureRepository.isInOrgOf(profile.getUser().getId(), principal.getUserId());
     }
     
-    private boolean canUpdateProfile(EmployeeProfile profile, User currentUser) {
-        // Managers can update all profiles
-        if (currentUser.getRole() == UserRole.MANAGER) {
+    private boolean canUpdateProfile(EmployeeProfile profile, HrPrincipal principal) {
+        // Users can update their own profile
+        if (profile.getUser().getId().equals(principal.getUserId())) {
             return true;
         }
         
-        // Users can only update their own profile
-        return profile.getUser().getId().equals(currentUser.getId());
+        // Managers can update the profiles of everyone in their org
+        return principal.isManager() && orgClosureRepository.isInOrgOf(profile.getUser().getId(), principal.getUserId());
     }
     
     private ProfileBasicDto convertToBasicDto(EmployeeProfile profile) {
@@ -154,11 +215,9 @@ public class EmployeeProfileService {
         
         // Add manager name if available
         if (profile.getManager() != null) {
-            EmployeeProfile managerProfile = employeeProfileRepository.findByUserId(profile.getManager().getId())
-                    .orElse(null);
-            if (managerProfile != null) {
-                dto.setManagerName(managerProfile.getFirstName() + " " + managerProfile.getLastName());
-            }
+            profileDirectoryCache.get(profile.getManager().getId())
+                    .map(ProfileDirectoryEntry::getFullName)
+                    .ifPresent(dto::setManagerName);
         }
         
         return dto;
@@ -184,17 +243,15 @@ public class EmployeeProfileService {
         
         // Add manager name if available
         if (profile.getManager() != null) {
-            EmployeeProfile managerProfile = employeeProfileRepository.findByUserId(profile.getManager().getId())
-                    .orElse(null);
-            if (managerProfile != null) {
-                dto.setManagerName(managerProfile.getFirstName() + " " + managerProfile.getLastName());
-            }
+            profileDirectoryCache.get(profile.getManager().getId())
+                    .map(ProfileDirectoryEntry::getFullName)
+                    .ifPresent(dto::setManagerName);
         }
         
         return dto;
     }
     
-    private void updateProfileFromDto(EmployeeProfile profile, ProfileDetailDto dto) {
+    private void updateProfileFromDto(EmployeeProfile profile, ProfileDetailDto dto, HrPrincipal principal) {
         profile.setFirstName(dto.getFirstName());
         profile.setLastName(dto.getLastName());
         profile.setDepartment(dto.getDepartment());
@@ -206,9 +263,26 @@ public class EmployeeProfileService {
         profile.setEmergencyContactPhone(dto.getEmergencyContactPhone());
         
         // Only managers can change manager assignment
-        if (dto.getManagerId() != null) {
+        UUID currentManagerId = profile.getManager() != null ? profile.getManager().getId() : null;
+        if (dto.getManagerId() != null && !dto.getManagerId().equals(currentManagerId)) {
+            if (!principal.isManager()) {
+                throw new AccessDeniedException("Only managers can change manager assignment");
+            }
+            UUID userId = profile.getUser().getId();
+            // Checked under the lock, so a concurrent move cannot slip a loop past it
+            orgClosureRepository.lockForReassignment();
+            // Reporting to yourself or to someone in your own subtree would close a loop in the org chart
+            if (dto.getManagerId().equals(userId) || orgClosureRepository.isInOrgOf(dto.getManagerId(), userId)) {
+                throw new InvalidManagerAssignmentException("An employee cannot report to themselves or to one of their reports");
+            }
             User manager = userRepository.findById(dto.getManagerId()).orElse(null);
             profile.setManager(manager);
+            
+            // Move the employee's whole subtree from the old chain of managers to the new one
+            orgClosureRepository.detachSubtree(userId);
+            if (manager != null) {
+                orgClosureRepository.attachSubtree(userId, manager.getId());
+            }
         }
     }
 }
\ No newline at end of file
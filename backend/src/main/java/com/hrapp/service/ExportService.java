@@ -0,0 +1,216 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.AbsenceRequestFilter;
+import com.hrapp.dto.ExportFormat;
+import com.hrapp.exception.ExportCapacityExceededException;
+import com.hrapp.security.HrPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+// Streams whole tables out as CSV or NDJSON. Rows come from a forward-only cursor fetched fetchSize at a time and go
+// straight to the response, so memory stays flat however many rows there are. Exports use their own small connection
+// pool, never the one serving the API: a few long exports cannot starve other requests of connections, and extra
+// exports are turned away with a 503 instead of queueing
+@Service
+public class ExportService {
+
+    private static final String ABSENCE_REQUESTS_SQL =
+            "SELECT a.id, a.employee_id AS user_id, p.employee_id, p.first_name, p.last_name, p.department, " +
+            "a.start_date, a.end_date, a.status, a.reason, a.requested_at, a.approved_by, a.approved_at, a.comments " +
+            "FROM absence_requests a " +
+            "JOIN org_closure c ON c.descendant_id = a.employee_id AND c.ancestor_id = ? AND c.depth > 0 " +
+            "LEFT JOIN employee_profiles p ON p.user_id = a.employee_id";
+
+    private static final String PROFILES_SQL =
+            "SELECT p.id, p.user_id, p.employee_id, p.first_name, p.last_name, p.department, p.position, p.hire_date, " +
+            "p.phone, p.address, p.emergency_contact_name, p.emergency_contact_phone, p.manager_id, " +
+            "mp.first_name || ' ' || mp.last_name AS manager_name, p.created_at, p.updated_at " +
+            "FROM employee_profiles p " +
+            "JOIN org_closure c ON c.descendant_id = p.user_id AND c.ancestor_id = ? " +
+            "LEFT JOIN employee_profiles mp ON mp.user_id = p.manager_id";
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hrapp.export.max-concurrent:2}")
+    private int maxConcurrent = 2;
+
+    // Rows per round trip to the database; also bounds the rows held in memory at once
+    @Value("${hrapp.export.fetch-size:1000}")
+    private int fetchSize = 1000;
+
+    private HikariDataSource dataSource;
+    private Semaphore permits;
+    // export name -> rows written per format, registered once
+    private final Map<String, Map<ExportFormat, Counter>> rowCounters = new HashMap<>();
+
+    // Opens the response once the query is running, so access and capacity errors can still be sent as JSON
+    @FunctionalInterface
+    public interface ExportOutput {
+        OutputStream open() throws IOException;
+    }
+
+    @PostConstruct
+    public void start() {
+        permits = new Semaphore(maxConcurrent);
+        dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("hr-export-pool");
+        dataSource.setMaximumPoolSize(maxConcurrent);
+        dataSource.setMinimumIdle(0);
+        // Postgres only streams through a cursor inside a transaction; read-only keeps exports from writing anything
+        dataSource.setAutoCommit(false);
+        dataSource.setReadOnly(true);
+        dataSource.setMetricRegistry(meterRegistry);
+
+        for (String name : List.of("absence_requests", "profiles")) {
+            Map<ExportFormat, Counter> byFormat = new EnumMap<>(ExportFormat.class);
+            for (ExportFormat format : ExportFormat.values()) {
+                byFormat.put(format, Counter.builder("hr.export.rows")
+                        .description("Rows written by exports")
+                        .tags("export", name, "format", format.name().toLowerCase())
+                        .register(meterRegistry));
+            }
+            rowCounters.put(name, byFormat);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    // Absence requests from the manager's org, narrowed by the same filters as the paged list; rows are unordered
+    public void exportAbsenceRequests(AbsenceRequestFilter filter, ExportFormat format, HrPrincipal principal,
+                                      ExportOutput output) throws IOException {
+        if (!principal.isManager()) {
+            throw new AccessDeniedException("Access denied");
+        }
+
+        StringBuilder sql = new StringBuilder(ABSENCE_REQUESTS_SQL);
+        List<Object> params = new ArrayList<>();
+        params.add(principal.getUserId());
+        List<String> conditions = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            conditions.add("a.status = CAST(? AS absence_status)");
+            params.add(filter.getStatus().name());
+        }
+        if (filter.getEmployeeId() != null) {
+            conditions.add("a.employee_id = ?");
+            params.add(filter.getEmployeeId());
+        }
+        // Requests overlapping the [from, to] window
+        if (filter.getFrom() != null) {
+            conditions.add("a.end_date >= ?");
+            params.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            conditions.add("a.start_date <= ?");
+            params.add(filter.getTo());
+        }
+        if (StringUtils.hasText(filter.getDepartment())) {
+            conditions.add("p.department = ?");
+            params.add(filter.getDepartment());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        export("absence_requests", sql.toString(), params, format, output);
+    }
+
+    // The manager's own profile and everyone below them; rows are unordered
+    public void exportProfiles(ExportFormat format, HrPrincipal principal, ExportOutput output) throws IOException {
+        if (!principal.isManager()) {
+            throw new AccessDeniedException("Access denied");
+        }
+
+        export("profiles", PROFILES_SQL, List.of(principal.getUserId()), format, output);
+    }
+
+    private void export(String name, String sql, List<Object> params, ExportFormat format, ExportOutput output)
+            throws IOException {
+        if (!permits.tryAcquire()) {
+            throw new ExportCapacityExceededException("Too many exports running, please retry later");
+        }
+
+        Counter rows = rowCounters.get(name).get(format);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                List<String> columns = new ArrayList<>(metaData.getColumnCount());
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    columns.add(metaData.getColumnLabel(i));
+                }
+
+                ExportWriter writer = ExportWriter.create(format, output.open(), columns);
+                long written = 0;
+                while (resultSet.next()) {
+                    writer.writeRow(readRow(resultSet, metaData));
+                    // Counted in steps so the counter is not touched on every row
+                    if (++written % fetchSize == 0) {
+                        rows.increment(fetchSize);
+                    }
+                }
+                writer.finish();
+                rows.increment(written % fetchSize);
+            }
+        } catch (SQLException e) {
+            throw new DataRetrievalFailureException("Export of " + name + " failed", e);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static List<String> readRow(ResultSet resultSet, ResultSetMetaData metaData) throws SQLException {
+        List<String> values = new ArrayList<>(metaData.getColumnCount());
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            // Timestamps in the same ISO form as the JSON API; everything else as Postgres prints it
+            if (metaData.getColumnType(i) == Types.TIMESTAMP) {
+                Timestamp timestamp = resultSet.getTimestamp(i);
+                values.add(timestamp != null ? timestamp.toLocalDateTime().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null);
+            } else {
+                values.add(resultSet.getString(i));
+            }
+        }
+        return values;
+    }
+}
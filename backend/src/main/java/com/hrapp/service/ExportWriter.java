@@ -0,0 +1,118 @@
+package com.hrapp.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.hrapp.dto.ExportFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Writes export rows one at a time through a fixed-size buffer, so nothing grows with the number of rows
+public abstract class ExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final Writer out;
+    protected final List<String> columns;
+
+    private ExportWriter(OutputStream outputStream, List<String> columns) {
+        this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columns = columns;
+    }
+
+    public static ExportWriter create(ExportFormat format, OutputStream outputStream, List<String> columns)
+            throws IOException {
+        return format == ExportFormat.NDJSON
+                ? new NdjsonWriter(outputStream, columns)
+                : new CsvWriter(outputStream, columns);
+    }
+
+    // One value per column, null for an empty cell
+    public abstract void writeRow(List<String> values) throws IOException;
+
+    // Flushes what is buffered; the output stream itself belongs to the caller
+    public void finish() throws IOException {
+        out.flush();
+    }
+
+    // RFC 4180: a header line, CRLF line ends, fields quoted when they contain a comma, quote or line break.
+    // Free text that a spreadsheet would read as a formula gets a leading apostrophe so it opens as plain text
+    private static final class CsvWriter extends ExportWriter {
+
+        CsvWriter(OutputStream outputStream, List<String> columns) throws IOException {
+            super(outputStream, columns);
+            writeRow(columns);
+        }
+
+        @Override
+        public void writeRow(List<String> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                String value = values.get(i);
+                if (value == null) {
+                    continue;
+                }
+                if (isFormulaStart(value)) {
+                    value = "'" + value;
+                }
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                        || value.indexOf('\r') >= 0) {
+                    out.write('"');
+                    out.write(value.replace("\"", "\"\""));
+                    out.write('"');
+                } else {
+                    out.write(value);
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private static boolean isFormulaStart(String value) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            char first = value.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        }
+    }
+
+    private static final class NdjsonWriter extends ExportWriter {
+
+        private static final JsonFactory JSON = new JsonFactory();
+
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream outputStream, List<String> columns) throws IOException {
+            super(outputStream, columns);
+            // Each row is handed to the buffered writer as it ends; only the writer decides when bytes go out
+            json = JSON.createGenerator(out);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+            json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeRow(List<String> values) throws IOException {
+            json.writeStartObject();
+            for (int i = 0; i < columns.size(); i++) {
+                json.writeStringField(columns.get(i), values.get(i));
+            }
+            json.writeEndObject();
+            json.flush();
+            out.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+            super.finish();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.hrapp.service;
+
+import java.util.List;
+
+// Rewrites raw feedback into polished text. Implementations may be slow or remote, so they are only ever called from
+// FeedbackPolishingPipeline's own threads, one batch at a time, never from a request thread
+public interface FeedbackPolisher {
+
+    // One polished text per input, in the same order
+    List<String> polish(List<String> texts);
+
+    // Part of every PolishedFeedbackCache key; change it whenever the same input would be polished differently, so
+    // results from an older model or prompt are not served
+    default String version() {
+        return getClass().getName();
+    }
+}
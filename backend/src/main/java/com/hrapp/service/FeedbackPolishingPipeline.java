@@ -0,0 +1,352 @@
+package com.hrapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Polishes feedback in the background so submitting it never waits for the model:
+// - submit() only offers the job to a bounded queue; when the queue is full the job is dropped and the row, still
+//   unpolished, is picked up again by the periodic sweep
+// - one dispatcher thread drains the queue into batches and hands each batch to a fixed pool of workers; a semaphore
+//   sized to the pool (the bulkhead) blocks the dispatcher when every worker is busy, so a slow model backs work up
+//   into the queue instead of into threads
+// - texts polished before are answered from PolishedFeedbackCache without taking a worker, and repeats within a
+//   batch are sent to the polisher once
+// - every batch has a timeout, and a circuit breaker stops dispatching for a while after repeated failures
+// - results are written by a single writer thread, one JDBC batch update per polished batch; no connection is held
+//   while the model runs
+@Component
+public class FeedbackPolishingPipeline {
+
+    private static final String UPDATE_SQL =
+            "UPDATE feedback SET polished_feedback = ? WHERE id = ? AND polished_feedback IS NULL";
+
+    @Autowired
+    private FeedbackPolisher polisher;
+
+    @Autowired
+    private PolishedFeedbackCache cache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hrapp.feedback.polishing.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${hrapp.feedback.polishing.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${hrapp.feedback.polishing.batch-size:16}")
+    private int batchSize = 16;
+
+    // How long the dispatcher waits to fill a batch once it has its first job
+    @Value("${hrapp.feedback.polishing.batch-linger-ms:50}")
+    private long batchLingerMillis = 50;
+
+    @Value("${hrapp.feedback.polishing.max-concurrent-batches:2}")
+    private int maxConcurrentBatches = 2;
+
+    @Value("${hrapp.feedback.polishing.timeout-ms:10000}")
+    private long timeoutMillis = 10000;
+
+    @Value("${hrapp.feedback.polishing.breaker.failure-threshold:5}")
+    private int breakerFailureThreshold = 5;
+
+    @Value("${hrapp.feedback.polishing.breaker.open-ms:30000}")
+    private long breakerOpenMillis = 30000;
+
+    @Value("${hrapp.feedback.polishing.sweep-batch-size:500}")
+    private int sweepBatchSize = 500;
+
+    private BlockingQueue<PolishJob> queue;
+    // Jobs queued or being polished, so the sweep does not enqueue them a second time
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private Semaphore bulkhead;
+    private CircuitBreaker circuitBreaker;
+    private ThreadPoolExecutor workers;
+    private ExecutorService writer;
+    private Thread dispatcher;
+    private volatile boolean running;
+    private Timer batchTimer;
+    private final Map<String, Counter> jobCounters = new HashMap<>();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        bulkhead = new Semaphore(maxConcurrentBatches);
+        circuitBreaker = new CircuitBreaker(breakerFailureThreshold, breakerOpenMillis);
+        AtomicInteger workerNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(maxConcurrentBatches, maxConcurrentBatches, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> daemon(task, "feedback-polish-" + workerNumber.incrementAndGet()));
+        writer = Executors.newSingleThreadExecutor(task -> daemon(task, "feedback-polish-writer"));
+
+        batchTimer = Timer.builder("hr.feedback.polishing.batch")
+                .description("Time the polisher takes for one batch")
+                .register(meterRegistry);
+        for (String result : List.of("polished", "cached", "failed", "timeout", "dropped", "write_failed")) {
+            jobCounters.put(result, Counter.builder("hr.feedback.polishing.jobs")
+                    .description("Feedback polishing jobs by outcome")
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("hr.feedback.polishing.queued", queue, BlockingQueue::size)
+                .description("Feedback waiting to be polished")
+                .register(meterRegistry);
+        Gauge.builder("hr.feedback.polishing.active", bulkhead, permits -> maxConcurrentBatches - permits.availablePermits())
+                .description("Polishing batches running")
+                .register(meterRegistry);
+        Gauge.builder("hr.feedback.polishing.breaker.open", circuitBreaker,
+                        breaker -> breaker.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while the circuit breaker keeps batches from the polisher")
+                .register(meterRegistry);
+
+        if (enabled) {
+            running = true;
+            dispatcher = daemon(this::dispatch, "feedback-polish-dispatcher");
+            dispatcher.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+        workers.shutdownNow();
+        writer.shutdown();
+    }
+
+    // Never blocks; false when the job was not queued, in which case the sweep will find the row later
+    public boolean submit(UUID feedbackId, String text) {
+        if (!running || !inFlight.add(feedbackId)) {
+            return false;
+        }
+        if (!queue.offer(new PolishJob(feedbackId, text, PolishedFeedbackCache.key(polisher.version(), text)))) {
+            inFlight.remove(feedbackId);
+            count("dropped", 1);
+            return false;
+        }
+        return true;
+    }
+
+    // Re-queues feedback that is still unpolished: dropped while the queue was full, failed, or left by a restart
+    @Scheduled(fixedDelayString = "${hrapp.feedback.polishing.sweep-interval-ms:30000}",
+               initialDelayString = "${hrapp.feedback.polishing.sweep-interval-ms:30000}")
+    public void sweep() {
+        int room = Math.min(queue.remainingCapacity(), sweepBatchSize);
+        if (!running || room == 0 || circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            return;
+        }
+        List<Map.Entry<UUID, String>> rows = jdbcTemplate.query(
+                "SELECT id, feedback_text FROM feedback WHERE polished_feedback IS NULL ORDER BY created_at LIMIT ?",
+                (rs, rowNum) -> Map.entry(rs.getObject("id", UUID.class), rs.getString("feedback_text")),
+                room + inFlight.size());
+        for (Map.Entry<UUID, String> row : rows) {
+            if (!submit(row.getKey(), row.getValue()) && queue.remainingCapacity() == 0) {
+                break;
+            }
+        }
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                long wait = circuitBreaker.millisUntilRetry();
+                if (wait > 0) {
+                    Thread.sleep(Math.min(wait, 1000));
+                    continue;
+                }
+                List<PolishJob> batch = fromCache(nextBatch());
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                while (!circuitBreaker.tryAcquire()) {
+                    Thread.sleep(Math.max(50, Math.min(circuitBreaker.millisUntilRetry(), 1000)));
+                }
+                bulkhead.acquire();
+                polish(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private List<PolishJob> nextBatch() throws InterruptedException {
+        List<PolishJob> batch = new ArrayList<>(batchSize);
+        PolishJob first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchLingerMillis);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            PolishJob next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    // Hands cached results straight to the writer and returns the jobs that still need the polisher
+    private List<PolishJob> fromCache(List<PolishJob> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        List<String> keys = new ArrayList<>(batch.size());
+        for (PolishJob job : batch) {
+            keys.add(job.key);
+        }
+        Map<String, String> cached = cache.getAll(keys);
+        if (cached.isEmpty()) {
+            return batch;
+        }
+
+        List<PolishJob> hits = new ArrayList<>();
+        List<PolishJob> misses = new ArrayList<>();
+        for (PolishJob job : batch) {
+            (cached.containsKey(job.key) ? hits : misses).add(job);
+        }
+        writer.execute(() -> write(hits, cached, "cached"));
+        return misses;
+    }
+
+    // Called holding a bulkhead permit, which is released when the polisher returns, not when the timeout fires,
+    // so a hung model keeps its slot and cannot pile up more threads
+    private void polish(List<PolishJob> batch) {
+        Map<String, String> textByKey = new LinkedHashMap<>();
+        for (PolishJob job : batch) {
+            textByKey.putIfAbsent(job.key, job.text);
+        }
+        List<String> texts = new ArrayList<>(textByKey.values());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture
+                .supplyAsync(() -> {
+                    try {
+                        return polisher.polish(texts);
+                    } finally {
+                        bulkhead.release();
+                        sample.stop(batchTimer);
+                    }
+                }, workers)
+                .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .whenCompleteAsync((polished, error) -> complete(batch, textByKey, polished, error), writer);
+    }
+
+    private void complete(List<PolishJob> batch, Map<String, String> textByKey, List<String> polished,
+                          Throwable error) {
+        if (error != null || polished == null || polished.size() != textByKey.size()) {
+            circuitBreaker.recordFailure();
+            count(unwrap(error) instanceof TimeoutException ? "timeout" : "failed", batch.size());
+            release(batch);
+            return;
+        }
+        circuitBreaker.recordSuccess();
+
+        Map<String, String> polishedByKey = new LinkedHashMap<>();
+        int i = 0;
+        for (String key : textByKey.keySet()) {
+            polishedByKey.put(key, polished.get(i++));
+        }
+        cache.putAll(polishedByKey);
+        write(batch, polishedByKey, "polished");
+    }
+
+    private void write(List<PolishJob> jobs, Map<String, String> polishedByKey, String result) {
+        try {
+            List<Object[]> updates = new ArrayList<>(jobs.size());
+            for (PolishJob job : jobs) {
+                updates.add(new Object[] { polishedByKey.get(job.key), job.feedbackId });
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            count(result, jobs.size());
+        } catch (DataAccessException e) {
+            count("write_failed", jobs.size());
+        } finally {
+            release(jobs);
+        }
+    }
+
+    private void release(List<PolishJob> jobs) {
+        for (PolishJob job : jobs) {
+            inFlight.remove(job.feedbackId);
+        }
+    }
+
+    private void count(String result, int jobs) {
+        jobCounters.get(result).increment(jobs);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error != null && error.getCause() != null && !(error instanceof TimeoutException)) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static Thread daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    int queued() {
+        return queue.size();
+    }
+
+    private static final class PolishJob {
+        private final UUID feedbackId;
+        private final String text;
+        private final String key;
+
+        PolishJob(UUID feedbackId, String text, String key) {
+            this.feedbackId = feedbackId;
+            this.text = text;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.CreateFeedbackDto;
+import com.hrapp.dto.CursorPage;
+import com.hrapp.dto.FeedbackDto;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.exception.FeedbackNotFoundException;
+import com.hrapp.exception.InvalidCursorException;
+import com.hrapp.exception.ProfileNotFoundException;
+import com.hrapp.model.EmployeeProfile;
+import com.hrapp.model.Feedback;
+import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.repository.FeedbackRepository;
+import com.hrapp.repository.OrgClosureRepository;
+import com.hrapp.repository.UserRepository;
+import com.hrapp.security.HrPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class FeedbackService {
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    
+    @Autowired
+    private FeedbackRepository feedbackRepository;
+    
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private OrgClosureRepository orgClosureRepository;
+    
+    @Autowired
+    private ProfileDirectoryCache profileDirectoryCache;
+    
+    @Autowired
+    private FeedbackPolishingPipeline polishingPipeline;
+    
+    // Stores the raw text and returns at once; polishedFeedback is filled in later by the pipeline
+    public FeedbackDto submitFeedback(UUID profileId, CreateFeedbackDto feedbackDto, HrPrincipal principal) {
+        EmployeeProfile profile = employeeProfileRepository.findById(profileId)
+                .orElseThrow(() -> new ProfileNotFoundException("Profile not found with ID: " + profileId));
+        
+        // Feedback is about coworkers, not yourself
+        if (profile.getUser().getId().equals(principal.getUserId())) {
+            throw new AccessDeniedException("Cannot give feedback on your own profile");
+        }
+        
+        Feedback feedback = new Feedback(profile, userRepository.getReferenceById(principal.getUserId()),
+                feedbackDto.getFeedbackText().trim());
+        Feedback savedFeedback = feedbackRepository.save(feedback);
+        polishingPipeline.submit(savedFeedback.getId(), savedFeedback.getFeedbackText());
+        
+        return convertToDto(savedFeedback);
+    }
+    
+    public FeedbackDto getFeedback(UUID profileId, UUID feedbackId, HrPrincipal principal) {
+        Feedback feedback = feedbackRepository.findDetailById(feedbackId)
+                .filter(found -> found.getProfile().getId().equals(profileId))
+                .orElseThrow(() -> new FeedbackNotFoundException("Feedback not found with ID: " + feedbackId));
+        
+        UUID subjectId = feedback.getProfile().getUser().getId();
+        if (!canAccessFeedback(feedback, subjectId, principal)) {
+            throw new AccessDeniedException("Access denied");
+        }
+        
+        return convertToDto(feedback);
+    }
+    
+    // Newest first, one keyset page at a time; author names are part of the same query
+    public CursorPage<FeedbackDto> getFeedbackTimeline(UUID profileId, String cursor, int limit, HrPrincipal principal) {
+        EmployeeProfile profile = employeeProfileRepository.findById(profileId)
+                .orElseThrow(() -> new ProfileNotFoundException("Profile not found with ID: " + profileId));
+        
+        // The whole timeline is for the employee it is about and their managers
+        UUID subjectId = profile.getUser().getId();
+        if (!subjectId.equals(principal.getUserId())
+                && !(principal.isManager() && orgClosureRepository.isInOrgOf(subjectId, principal.getUserId()))) {
+            throw new AccessDeniedException("Access denied");
+        }
+        
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to learn whether another page exists
+        Pageable firstRows = PageRequest.of(0, pageSize + 1);
+        
+        List<FeedbackDto> rows;
+        if (cursor == null) {
+            rows = feedbackRepository.findTimeline(profileId, firstRows);
+        } else {
+            String[] keys = CursorCodec.decode(cursor, 2);
+            try {
+                rows = feedbackRepository.findTimelineBefore(
+                        profileId, LocalDateTime.parse(keys[0]), UUID.fromString(keys[1]), firstRows);
+            } catch (DateTimeParseException | IllegalArgumentException e) {
+                throw new InvalidCursorException("Malformed page cursor", e);
+            }
+        }
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            FeedbackDto last = rows.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt().toString(), last.getId().toString());
+        }
+        
+        return new CursorPage<>(rows, nextCursor);
+    }
+    
+    private boolean canAccessFeedback(Feedback feedback, UUID subjectId, HrPrincipal principal) {
+        // The author and the employee it is about can read it
+        if (feedback.getFeedbackBy().getId().equals(principal.getUserId()) || subjectId.equals(principal.getUserId())) {
+            return true;
+        }
+        
+        // So can managers of that employee
+        return principal.isManager() && orgClosureRepository.isInOrgOf(subjectId, principal.getUserId());
+    }
+    
+    private FeedbackDto convertToDto(Feedback feedback) {
+        FeedbackDto dto = new FeedbackDto();
+        dto.setId(feedback.getId());
+        dto.setProfileId(feedback.getProfile().getId());
+        dto.setFeedbackBy(feedback.getFeedbackBy().getId());
+        dto.setFeedbackByName(profileDirectoryCache.get(feedback.getFeedbackBy().getId())
+                .map(ProfileDirectoryEntry::getFullName)
+                .orElse(null));
+        dto.setFeedbackText(feedback.getFeedbackText());
+        dto.setPolishedFeedback(feedback.getPolishedFeedback());
+        dto.setCreatedAt(feedback.getCreatedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,136 @@
+package com.hrapp.service;
+
+import com.hrapp.exception.InvalidImportFileException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads RFC 4180 CSV one record at a time, the counterpart of ExportWriter: fields quoted when they hold a comma,
+// quote or line break, LF or CRLF line ends. Blank lines are skipped and a leading byte order mark is ignored.
+// Reading stops with InvalidImportFileException once the input passes maxBytes or a field passes maxFieldLength
+public class ImportReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final long maxBytes;
+    private final int maxFieldLength;
+    private long bytes;
+    private int line = 1;
+    private int recordLine;
+    private boolean started;
+    // A character read ahead while looking for the LF of a CRLF, -2 when there is none
+    private int pending = -2;
+
+    public ImportReader(InputStream inputStream, long maxBytes, int maxFieldLength) {
+        this.in = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.maxBytes = maxBytes;
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    // The next record's fields, unquoted, or null at the end of the input
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        while (c == '\r' || c == '\n') {
+            skipLineEnd(c);
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        while (true) {
+            if (c == '"' && field.length() == 0) {
+                c = readQuoted(field);
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                c = read();
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    skipLineEnd(c);
+                }
+                return fields;
+            } else {
+                append(field, c);
+                c = read();
+            }
+        }
+    }
+
+    // Line the last record returned by readRecord started on, counting from 1 with the header
+    public int getRecordLine() { return recordLine; }
+
+    // Reads up to and past the closing quote and returns the character after it
+    private int readQuoted(StringBuilder field) throws IOException {
+        int startLine = line;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new InvalidImportFileException("Unterminated quoted field starting on line " + startLine);
+            }
+            if (c == '\n') {
+                line++;
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    if (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                        throw new InvalidImportFileException("Unexpected text after a closing quote on line " + line);
+                    }
+                    return c;
+                }
+            }
+            append(field, c);
+        }
+    }
+
+    private void append(StringBuilder field, int c) {
+        if (field.length() >= maxFieldLength) {
+            throw new InvalidImportFileException("Field longer than " + maxFieldLength + " characters on line " + line);
+        }
+        field.append((char) c);
+    }
+
+    private void skipLineEnd(int c) throws IOException {
+        line++;
+        if (c == '\r') {
+            int next = read();
+            if (next != '\n') {
+                pending = next;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        int c = in.read();
+        // The UTF-8 length of what was read; a surrogate pair is two halves of two bytes each
+        bytes += c < 0 ? 0 : c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate((char) c) ? 2 : 3;
+        if (bytes > maxBytes) {
+            throw new InvalidImportFileException("The file is larger than " + maxBytes + " bytes at line " + line);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,102 @@
+package com.hrapp.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Deterministic stand-in for a language model: expands chat shorthand, fixes capitalization, spacing and repeated
+// punctuation. The same input always gives the same output, which keeps tests and cached results stable
+public class LocalFeedbackPolisher implements FeedbackPolisher {
+
+    private static final Map<String, String> SHORTHAND = new LinkedHashMap<>();
+
+    static {
+        SHORTHAND.put("u", "you");
+        SHORTHAND.put("ur", "your");
+        SHORTHAND.put("r", "are");
+        SHORTHAND.put("thx", "thanks");
+        SHORTHAND.put("ty", "thank you");
+        SHORTHAND.put("pls", "please");
+        SHORTHAND.put("plz", "please");
+        SHORTHAND.put("gr8", "great");
+        SHORTHAND.put("b4", "before");
+        SHORTHAND.put("btw", "by the way");
+        SHORTHAND.put("imo", "in my opinion");
+        SHORTHAND.put("imho", "in my opinion");
+        SHORTHAND.put("w/", "with");
+        SHORTHAND.put("i", "I");
+    }
+
+    private static final Pattern WORD = Pattern.compile("(?<![\\w/])([A-Za-z0-9/]+)(?![\\w/])");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern SPACE_BEFORE_PUNCTUATION = Pattern.compile("\\s+([.,!?;:])");
+    private static final Pattern REPEATED_PUNCTUATION = Pattern.compile("([.,!?;:])\\1+");
+    private static final Pattern SENTENCE_START = Pattern.compile("(^|[.!?]\\s+)(\\p{Ll})");
+
+    // Per batch, to stand in for inference latency in load tests
+    private final long simulatedLatencyMillis;
+
+    public LocalFeedbackPolisher(long simulatedLatencyMillis) {
+        this.simulatedLatencyMillis = simulatedLatencyMillis;
+    }
+
+    @Override
+    public List<String> polish(List<String> texts) {
+        if (simulatedLatencyMillis > 0) {
+            try {
+                Thread.sleep(simulatedLatencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Polishing interrupted", e);
+            }
+        }
+        List<String> polished = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            polished.add(polish(text));
+        }
+        return polished;
+    }
+
+    // Bump when the rules above change, so cached results from the old rules are not reused
+    @Override
+    public String version() {
+        return "local-1";
+    }
+
+    String polish(String text) {
+        String result = WHITESPACE.matcher(text.trim()).replaceAll(" ");
+        result = expandShorthand(result);
+        result = SPACE_BEFORE_PUNCTUATION.matcher(result).replaceAll("$1");
+        result = REPEATED_PUNCTUATION.matcher(result).replaceAll("$1");
+        result = capitalizeSentences(result);
+        if (!result.isEmpty() && ".!?".indexOf(result.charAt(result.length() - 1)) < 0) {
+            result = result + ".";
+        }
+        return result;
+    }
+
+    private static String expandShorthand(String text) {
+        Matcher matcher = WORD.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String word = matcher.group(1);
+            String expanded = SHORTHAND.get(word.equals("I") ? "i" : word.toLowerCase());
+            matcher.appendReplacement(result, Matcher.quoteReplacement(expanded != null ? expanded : word));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    private static String capitalizeSentences(String text) {
+        Matcher matcher = SENTENCE_START.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(result, Matcher.quoteReplacement(matcher.group(1) + matcher.group(2).toUpperCase()));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.hrapp.service;
+
+import java.util.UUID;
+
+// Published after a profile is saved with a different manager
+public class ManagerChangedEvent {
+    private final UUID userId;
+    private final UUID previousManagerId;
+    private final UUID managerId;
+
+    public ManagerChangedEvent(UUID userId, UUID previousManagerId, UUID managerId) {
+        this.userId = userId;
+        this.previousManagerId = previousManagerId;
+        this.managerId = managerId;
+    }
+
+    public UUID getUserId() { return userId; }
+
+    public UUID getPreviousManagerId() { return previousManagerId; }
+
+    public UUID getManagerId() { return managerId; }
+}
@@ -0,0 +1,59 @@
+package com.hrapp.service;
+
+import com.hrapp.repository.EmployeeProfileRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Holds the current OrgChartSnapshot. It is replaced, never mutated: rebuilt from one query when a manager changes
+// or employees are imported here and on a timer to pick up changes made through other instances
+@Component
+public class OrgChart implements MeterBinder {
+
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    private volatile OrgChartSnapshot snapshot;
+
+    public OrgChartSnapshot getSnapshot() {
+        OrgChartSnapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = rebuild();
+                }
+            }
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${hrapp.org-chart.refresh-interval-ms:300000}",
+               initialDelayString = "${hrapp.org-chart.refresh-interval-ms:300000}")
+    public synchronized OrgChartSnapshot rebuild() {
+        OrgChartSnapshot rebuilt = OrgChartSnapshot.of(employeeProfileRepository.findReportingLines());
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    @EventListener
+    public void onManagerChanged(ManagerChangedEvent event) {
+        rebuild();
+    }
+
+    @EventListener
+    public void onProfilesImported(ProfilesImportedEvent event) {
+        rebuild();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("hr.orgchart.reporting.lines", this, chart -> chart.snapshot == null ? 0 : chart.snapshot.size())
+                .description("Reporting lines in the in-memory org chart")
+                .register(registry);
+    }
+}
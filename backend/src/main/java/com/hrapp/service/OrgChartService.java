@@ -0,0 +1,55 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.OrgChartEntry;
+import com.hrapp.dto.SpanOfControlDto;
+import com.hrapp.exception.ProfileNotFoundException;
+import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.repository.OrgChartRow;
+import com.hrapp.security.HrPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+public class OrgChartService {
+    
+    // Deeper than any real org; stops the recursive queries if bad data ever forms a cycle
+    static final int MAX_DEPTH = 64;
+    
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+    
+    @Autowired
+    private OrgChart orgChart;
+    
+    // Org chart data is basic profile information, visible to every employee
+    public List<OrgChartEntry> getSubtree(UUID userId, int depth, HrPrincipal principal) {
+        int maxDepth = Math.max(0, Math.min(depth, MAX_DEPTH));
+        return toEntries(employeeProfileRepository.findSubtree(userId, maxDepth), userId);
+    }
+    
+    public List<OrgChartEntry> getChainOfCommand(UUID userId, HrPrincipal principal) {
+        return toEntries(employeeProfileRepository.findChainOfCommand(userId, MAX_DEPTH), userId);
+    }
+    
+    public SpanOfControlDto getSpanOfControl(UUID userId, HrPrincipal principal) {
+        OrgChartSnapshot snapshot = orgChart.getSnapshot();
+        if (!snapshot.contains(userId)) {
+            throw new ProfileNotFoundException("Profile not found for user ID: " + userId);
+        }
+        return snapshot.getSpanOfControl(userId);
+    }
+    
+    private List<OrgChartEntry> toEntries(List<OrgChartRow> rows, UUID userId) {
+        if (rows.isEmpty()) {
+            throw new ProfileNotFoundException("Profile not found for user ID: " + userId);
+        }
+        return rows.stream()
+                .map(row -> new OrgChartEntry(row.getUserId(), row.getManagerId(), row.getDepth(), row.getFirstName(),
+                        row.getLastName(), row.getDepartment(), row.getPosition()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ReportingLine;
+import com.hrapp.dto.SpanOfControlDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Immutable view of every reporting line; walks are bounded by the org size so a manager cycle cannot loop forever
+public final class OrgChartSnapshot {
+    private final Set<UUID> employees;
+    private final Map<UUID, UUID> managerOf;
+    private final Map<UUID, List<UUID>> reportsOf;
+
+    private OrgChartSnapshot(Set<UUID> employees, Map<UUID, UUID> managerOf, Map<UUID, List<UUID>> reportsOf) {
+        this.employees = employees;
+        this.managerOf = managerOf;
+        this.reportsOf = reportsOf;
+    }
+
+    public static OrgChartSnapshot of(List<ReportingLine> lines) {
+        Set<UUID> employees = new HashSet<>(lines.size() * 2);
+        Map<UUID, UUID> managerOf = new HashMap<>(lines.size() * 2);
+        Map<UUID, List<UUID>> reportsOf = new HashMap<>();
+        for (ReportingLine line : lines) {
+            employees.add(line.getUserId());
+            if (line.getManagerId() != null) {
+                managerOf.put(line.getUserId(), line.getManagerId());
+                reportsOf.computeIfAbsent(line.getManagerId(), id -> new ArrayList<>()).add(line.getUserId());
+            }
+        }
+        reportsOf.replaceAll((id, reports) -> Collections.unmodifiableList(reports));
+        return new OrgChartSnapshot(employees, managerOf, reportsOf);
+    }
+
+    public boolean contains(UUID userId) {
+        return employees.contains(userId);
+    }
+
+    public List<UUID> getDirectReports(UUID userId) {
+        return reportsOf.getOrDefault(userId, Collections.emptyList());
+    }
+
+    // Direct and indirect reports counted level by level
+    public SpanOfControlDto getSpanOfControl(UUID userId) {
+        int total = 0;
+        int levels = 0;
+        List<UUID> level = getDirectReports(userId);
+        while (!level.isEmpty() && levels <= managerOf.size()) {
+            levels++;
+            total += level.size();
+            List<UUID> next = new ArrayList<>();
+            for (UUID report : level) {
+                next.addAll(getDirectReports(report));
+            }
+            level = next;
+        }
+        return new SpanOfControlDto(userId, getDirectReports(userId).size(), total, levels);
+    }
+
+    public int size() {
+        return managerOf.size();
+    }
+}
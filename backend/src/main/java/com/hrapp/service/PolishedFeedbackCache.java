@@ -0,0 +1,192 @@
+package com.hrapp.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Polished text by content: the key is a hash of the polisher version and the normalized raw text, so feedback
+// that has been written before is not sent to the polisher again. Two tiers: a bounded in-memory LRU, and the
+// polished_feedback_cache table, which survives restarts and is shared between instances
+@Component
+public class PolishedFeedbackCache implements MeterBinder {
+    private static final String MEMORY_CACHE_NAME = "polishedFeedback";
+    private static final String DATABASE_CACHE_NAME = "polishedFeedbackStore";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[.!\\s]+$");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${hrapp.feedback.polishing.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${hrapp.feedback.polishing.cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private final LinkedHashMap<String, String> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong memoryMisses = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong databaseMisses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Case, spacing, Unicode compatibility forms and trailing full stops or exclamation marks do not change the key;
+    // the polisher settles all of those anyway
+    public static String key(String polisherVersion, String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        normalized = WHITESPACE.matcher(normalized.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+        normalized = TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(polisherVersion.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            return HexFormat.of().formatHex(sha256.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Polished text for every key found in either tier; database hits are promoted to memory. Hits and misses are
+    // counted per key passed in, repeats included, so the ratios match the share of jobs that skip the polisher
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> result = new HashMap<>();
+        if (!enabled) {
+            return result;
+        }
+
+        List<String> missed = new ArrayList<>();
+        synchronized (entries) {
+            for (String key : keys) {
+                String polished = entries.get(key);
+                if (polished != null) {
+                    result.put(key, polished);
+                } else {
+                    missed.add(key);
+                }
+            }
+        }
+        memoryHits.addAndGet(keys.size() - missed.size());
+        memoryMisses.addAndGet(missed.size());
+
+        if (missed.isEmpty()) {
+            return result;
+        }
+        Set<String> missing = new LinkedHashSet<>(missed);
+
+        // The table is only a shortcut; if it cannot be read the texts simply go to the polisher
+        List<Map.Entry<String, String>> loaded;
+        try {
+            loaded = jdbcTemplate.query(
+                    "SELECT text_hash, polished_text FROM polished_feedback_cache WHERE text_hash IN ("
+                            + String.join(", ", Collections.nCopies(missing.size(), "?")) + ")",
+                    (rs, rowNum) -> Map.entry(rs.getString("text_hash"), rs.getString("polished_text")),
+                    missing.toArray());
+        } catch (DataAccessException e) {
+            loaded = List.of();
+        }
+        synchronized (entries) {
+            for (Map.Entry<String, String> entry : loaded) {
+                result.put(entry.getKey(), entry.getValue());
+                if (maxEntries > 0) {
+                    entries.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        for (String key : missed) {
+            (result.containsKey(key) ? databaseHits : databaseMisses).incrementAndGet();
+        }
+        return result;
+    }
+
+    // Stores freshly polished results in both tiers; an existing row for the same key is left as it is
+    public void putAll(Map<String, String> polished) {
+        if (!enabled || polished.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            if (maxEntries > 0) {
+                entries.putAll(polished);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(polished.size());
+        for (Map.Entry<String, String> entry : polished.entrySet()) {
+            rows.add(new Object[] { entry.getKey(), entry.getValue() });
+        }
+        try {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO polished_feedback_cache (text_hash, polished_text) VALUES (?, ?) "
+                            + "ON CONFLICT (text_hash) DO NOTHING",
+                    rows);
+        } catch (DataAccessException e) {
+            // Still cached in memory; the next instance to polish the same text will try again
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", memoryHits, AtomicLong::get)
+                .tags("cache", MEMORY_CACHE_NAME, "result", "hit")
+                .description("Polished feedback served from memory")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", memoryMisses, AtomicLong::get)
+                .tags("cache", MEMORY_CACHE_NAME, "result", "miss")
+                .description("Polished feedback looked up in the database")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", databaseHits, AtomicLong::get)
+                .tags("cache", DATABASE_CACHE_NAME, "result", "hit")
+                .description("Polished feedback served from the database")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", databaseMisses, AtomicLong::get)
+                .tags("cache", DATABASE_CACHE_NAME, "result", "miss")
+                .description("Feedback that had to be sent to the polisher")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tags("cache", MEMORY_CACHE_NAME)
+                .register(registry);
+        Gauge.builder("cache.size", this, PolishedFeedbackCache::size)
+                .tags("cache", MEMORY_CACHE_NAME)
+                .register(registry);
+    }
+}
@@ -0,0 +1,148 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.repository.EmployeeProfileRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded LRU cache of userId -> name, department and manager, invalidated by ProfileUpdatedEvent and dropped
+// whole on the org chart's refresh interval to pick up changes made through other instances
+@Component
+public class ProfileDirectoryCache implements MeterBinder {
+    private static final String CACHE_NAME = "profileDirectory";
+
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    @Value("${hrapp.profile-directory.cache-size:5000}")
+    private int maxEntries = 5000;
+
+    private final LinkedHashMap<UUID, ProfileDirectoryEntry> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, ProfileDirectoryEntry> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Bumped on every invalidation so a load that raced with an update does not re-insert stale entries
+    private final AtomicLong generation = new AtomicLong();
+
+    public Optional<ProfileDirectoryEntry> get(UUID userId) {
+        return Optional.ofNullable(getAll(Collections.singleton(userId)).get(userId));
+    }
+
+    public Map<UUID, ProfileDirectoryEntry> getAll(Collection<UUID> userIds) {
+        Map<UUID, ProfileDirectoryEntry> result = new HashMap<>();
+        Set<UUID> missing = new HashSet<>();
+
+        synchronized (entries) {
+            for (UUID userId : userIds) {
+                ProfileDirectoryEntry entry = entries.get(userId);
+                if (entry != null) {
+                    result.put(userId, entry);
+                } else {
+                    missing.add(userId);
+                }
+            }
+        }
+        hits.addAndGet(result.size());
+        misses.addAndGet(missing.size());
+
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        // One query for every miss; the database round trip happens outside the lock
+        long loadGeneration = generation.get();
+        List<ProfileDirectoryEntry> loaded = employeeProfileRepository.findDirectoryEntriesByUserIdIn(missing);
+        synchronized (entries) {
+            boolean current = loadGeneration == generation.get();
+            for (ProfileDirectoryEntry entry : loaded) {
+                result.put(entry.getUserId(), entry);
+                if (current && maxEntries > 0) {
+                    entries.put(entry.getUserId(), entry);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    public void evict(UUID userId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hrapp.org-chart.refresh-interval-ms:300000}",
+               initialDelayString = "${hrapp.org-chart.refresh-interval-ms:300000}")
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @EventListener
+    public void onProfileUpdated(ProfileUpdatedEvent event) {
+        evict(event.getUserId());
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHitCount() { return hits.get(); }
+
+    public long getMissCount() { return misses.get(); }
+
+    public long getEvictionCount() { return evictions.get(); }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Directory lookups served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Directory lookups that went to the database")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, AtomicLong::get)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+        Gauge.builder("cache.size", this, ProfileDirectoryCache::size)
+                .tags("cache", CACHE_NAME)
+                .register(registry);
+    }
+}
@@ -0,0 +1,500 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ProfileImportError;
+import com.hrapp.dto.ProfileImportResultDto;
+import com.hrapp.dto.ProfileImportRow;
+import com.hrapp.exception.ImportCapacityExceededException;
+import com.hrapp.exception.InvalidImportFileException;
+import com.hrapp.repository.OrgClosureRepository;
+import com.hrapp.security.HrPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+
+// Onboards a whole CSV of new employees at once. Rows are validated on a small pool of their own, then COPYed into a
+// temporary staging table where duplicates and manager references are resolved with a few set-based queries. Only a
+// file without problems has its passwords hashed, on the same pool, and is then staged again and merged into users,
+// employee_profiles and org_closure in one transaction. A file with any problem imports nothing and every problem
+// is reported with its line number
+@Service
+public class ProfileImportService {
+
+    // Columns an import file may have, in any order and any case; unknown columns are refused
+    private static final Map<String, BiConsumer<ProfileImportRow, String>> COLUMNS = Map.ofEntries(
+            Map.entry("email", ProfileImportRow::setEmail),
+            Map.entry("password", ProfileImportRow::setPassword),
+            Map.entry("role", ProfileImportRow::setRole),
+            Map.entry("employee_id", ProfileImportRow::setEmployeeId),
+            Map.entry("first_name", ProfileImportRow::setFirstName),
+            Map.entry("last_name", ProfileImportRow::setLastName),
+            Map.entry("department", ProfileImportRow::setDepartment),
+            Map.entry("position", ProfileImportRow::setPosition),
+            Map.entry("hire_date", ProfileImportRow::setHireDate),
+            Map.entry("phone", ProfileImportRow::setPhone),
+            Map.entry("address", ProfileImportRow::setAddress),
+            Map.entry("emergency_contact_name", ProfileImportRow::setEmergencyContactName),
+            Map.entry("emergency_contact_phone", ProfileImportRow::setEmergencyContactPhone),
+            Map.entry("manager_email", ProfileImportRow::setManagerEmail),
+            Map.entry("manager_employee_id", ProfileImportRow::setManagerEmployeeId));
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("email", "password", "employee_id", "first_name", "last_name");
+
+    private static final List<String> STAGING_COLUMNS = List.of("line", "user_id", "profile_id", "email",
+            "password_hash", "role", "employee_id", "first_name", "last_name", "department", "position", "hire_date",
+            "phone", "address", "emergency_contact_name", "emergency_contact_phone", "manager_email",
+            "manager_employee_id");
+
+    private static final String CREATE_STAGING_SQL =
+            "CREATE TEMPORARY TABLE profile_import (" +
+            "line INTEGER NOT NULL, user_id UUID NOT NULL, profile_id UUID NOT NULL, email VARCHAR(100) NOT NULL, " +
+            "password_hash VARCHAR(255), role user_role NOT NULL, employee_id VARCHAR(20) NOT NULL, " +
+            "first_name TEXT NOT NULL, last_name TEXT NOT NULL, department VARCHAR(100), position VARCHAR(100), " +
+            "hire_date DATE, phone VARCHAR(20), address TEXT, emergency_contact_name VARCHAR(100), " +
+            "emergency_contact_phone VARCHAR(20), manager_email VARCHAR(100), manager_employee_id VARCHAR(20), " +
+            "manager_id UUID) ON COMMIT DROP";
+
+    // A manager named in the file wins over an existing employee with the same email or employee ID; rows naming
+    // no manager report to the importing manager
+    private static final String RESOLVE_MANAGERS_SQL =
+            "UPDATE profile_import i SET manager_id = CASE " +
+            "WHEN i.manager_email IS NOT NULL THEN COALESCE(" +
+            "(SELECT m.user_id FROM profile_import m WHERE m.email = i.manager_email), " +
+            "(SELECT u.id FROM users u WHERE u.email = i.manager_email)) " +
+            "WHEN i.manager_employee_id IS NOT NULL THEN COALESCE(" +
+            "(SELECT m.user_id FROM profile_import m WHERE m.employee_id = i.manager_employee_id), " +
+            "(SELECT p.user_id FROM employee_profiles p WHERE p.employee_id = i.manager_employee_id)) " +
+            "ELSE ? END";
+
+    // Each problem as (line, field, message). A row is attached when its manager is the importer or in their org,
+    // or is another attached row; a row left over points outside the importer's org, at a row that is itself left
+    // over, or sits on a loop within the file
+    private static final String CHECK_SQL =
+            "WITH RECURSIVE attached AS (" +
+            "SELECT i.user_id FROM profile_import i " +
+            "JOIN org_closure c ON c.descendant_id = i.manager_id AND c.ancestor_id = ? " +
+            "UNION ALL " +
+            "SELECT i.user_id FROM profile_import i JOIN attached a ON i.manager_id = a.user_id" +
+            ") " +
+            "SELECT i.line, 'email' AS field, 'A user with this email already exists' AS message " +
+            "FROM profile_import i JOIN users u ON u.email = i.email " +
+            "UNION ALL " +
+            "SELECT i.line, 'employee_id', 'An employee with this employee ID already exists' " +
+            "FROM profile_import i JOIN employee_profiles p ON p.employee_id = i.employee_id " +
+            "UNION ALL " +
+            "SELECT i.line, CASE WHEN i.manager_email IS NOT NULL THEN 'manager_email' ELSE 'manager_employee_id' END, " +
+            "CASE WHEN i.manager_id IS NULL THEN 'No employee found for this manager reference' " +
+            "WHEN m.line IS NULL THEN 'The manager is not in your org' " +
+            "ELSE 'Reports to line ' || m.line || ', whose reporting line does not lead to you or your org' END " +
+            "FROM profile_import i LEFT JOIN profile_import m ON m.user_id = i.manager_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM attached a WHERE a.user_id = i.user_id)";
+
+    private static final String INSERT_USERS_SQL =
+            "INSERT INTO users (id, email, password_hash, role, created_at, updated_at) " +
+            "SELECT user_id, email, password_hash, role, LOCALTIMESTAMP, LOCALTIMESTAMP FROM profile_import";
+
+    private static final String INSERT_PROFILES_SQL =
+            "INSERT INTO employee_profiles (id, user_id, employee_id, first_name, last_name, department, position, " +
+            "hire_date, phone, address, emergency_contact_name, emergency_contact_phone, manager_id, created_at, " +
+            "updated_at) " +
+            "SELECT profile_id, user_id, employee_id, first_name, last_name, department, position, hire_date, phone, " +
+            "address, emergency_contact_name, emergency_contact_phone, manager_id, LOCALTIMESTAMP, LOCALTIMESTAMP " +
+            "FROM profile_import";
+
+    // Walks each new employee up through the file's rows to the first existing manager, then borrows that
+    // manager's own closure rows for everything above
+    private static final String INSERT_CLOSURE_SQL =
+            "INSERT INTO org_closure (ancestor_id, descendant_id, depth) " +
+            "WITH RECURSIVE chain AS (" +
+            "SELECT user_id AS descendant_id, user_id AS ancestor_id, 0 AS depth, manager_id FROM profile_import " +
+            "UNION ALL " +
+            "SELECT chain.descendant_id, i.user_id, chain.depth + 1, i.manager_id " +
+            "FROM chain JOIN profile_import i ON i.user_id = chain.manager_id" +
+            ") " +
+            "SELECT ancestor_id, descendant_id, depth FROM chain " +
+            "UNION ALL " +
+            "SELECT c.ancestor_id, chain.descendant_id, chain.depth + 1 + c.depth " +
+            "FROM chain JOIN org_closure c ON c.descendant_id = chain.manager_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM profile_import i WHERE i.user_id = chain.manager_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrgClosureRepository orgClosureRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hrapp.import.max-rows:50000}")
+    private int maxRows = 50000;
+
+    @Value("${hrapp.import.max-bytes:20971520}")
+    private long maxBytes = 20971520;
+
+    @Value("${hrapp.import.max-field-length:1000}")
+    private int maxFieldLength = 1000;
+
+    // 0 uses half the CPUs, leaving the rest for logins and the API while an import hashes passwords
+    @Value("${hrapp.import.threads:0}")
+    private int threads;
+
+    private ThreadPoolExecutor pool;
+    private Semaphore permit;
+    private Counter importedRows;
+    private Counter rejectedRows;
+
+    @PostConstruct
+    public void start() {
+        permit = new Semaphore(1);
+        importedRows = rowCounter("imported");
+        rejectedRows = rowCounter("rejected");
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // Each import submits exactly poolSize tasks, so the queue cannot grow beyond that
+        pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                task -> {
+                    Thread thread = new Thread(task, "profile-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // New employees into the manager's org; managers are referenced by email or employee ID and may be existing
+    // employees or other rows of the file. One import runs at a time per instance
+    public ProfileImportResultDto importProfiles(InputStream csv, HrPrincipal principal) throws IOException {
+        if (!principal.isManager()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        if (!permit.tryAcquire()) {
+            throw new ImportCapacityExceededException("Another import is running, please retry later");
+        }
+
+        try {
+            List<ProfileImportError> errors = new ArrayList<>();
+            List<ProfileImportRow> rows = read(csv, errors);
+            errors.addAll(validate(rows));
+            if (!errors.isEmpty()) {
+                return rejected(rows.size(), errors);
+            }
+
+            UUID[] userIds = new UUID[rows.size()];
+            UUID[] profileIds = new UUID[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                userIds[i] = UUID.randomUUID();
+                profileIds[i] = UUID.randomUUID();
+            }
+
+            // Checked once before spending minutes on BCrypt, and again when writing in case the database moved on
+            errors.addAll(transactionTemplate.execute(status -> {
+                status.setRollbackOnly();
+                return stage(rows, userIds, profileIds, null, principal.getUserId());
+            }));
+            if (!errors.isEmpty()) {
+                return rejected(rows.size(), errors);
+            }
+
+            String[] passwordHashes = new String[rows.size()];
+            inParallel(rows.size(), i -> passwordHashes[i] = passwordEncoder.encode(rows.get(i).getPassword()));
+
+            errors.addAll(transactionTemplate.execute(status -> {
+                // Reporting lines cannot move under the rows while they are checked and linked in
+                orgClosureRepository.lockForReassignment();
+                List<ProfileImportError> writeErrors = stage(rows, userIds, profileIds, passwordHashes, principal.getUserId());
+                if (!writeErrors.isEmpty()) {
+                    status.setRollbackOnly();
+                    return writeErrors;
+                }
+                jdbcTemplate.update(INSERT_USERS_SQL);
+                jdbcTemplate.update(INSERT_PROFILES_SQL);
+                jdbcTemplate.update(INSERT_CLOSURE_SQL);
+                return writeErrors;
+            }));
+            if (!errors.isEmpty()) {
+                return rejected(rows.size(), errors);
+            }
+
+            importedRows.increment(rows.size());
+            eventPublisher.publishEvent(new ProfilesImportedEvent(List.of(userIds)));
+            return new ProfileImportResultDto(rows.size(), rows.size(), List.of());
+        } finally {
+            permit.release();
+        }
+    }
+
+    // Rows in file order; a row with the wrong number of fields is reported and left out
+    private List<ProfileImportRow> read(InputStream csv, List<ProfileImportError> errors) throws IOException {
+        ImportReader reader = new ImportReader(csv, maxBytes, maxFieldLength);
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new InvalidImportFileException("The file is empty");
+        }
+        List<String> columns = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+        List<BiConsumer<ProfileImportRow, String>> setters = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            BiConsumer<ProfileImportRow, String> setter = COLUMNS.get(column);
+            if (setter == null) {
+                throw new InvalidImportFileException("Unknown column: " + column);
+            }
+            setters.add(setter);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.contains(column)) {
+                throw new InvalidImportFileException("Missing column: " + column);
+            }
+        }
+
+        List<ProfileImportRow> rows = new ArrayList<>();
+        List<String> fields;
+        while ((fields = reader.readRecord()) != null) {
+            if (rows.size() + errors.size() >= maxRows) {
+                throw new InvalidImportFileException("The file has more than " + maxRows + " rows");
+            }
+            int line = reader.getRecordLine();
+            if (fields.size() != setters.size()) {
+                errors.add(new ProfileImportError(line, null,
+                        "Expected " + setters.size() + " fields, found " + fields.size()));
+                continue;
+            }
+            ProfileImportRow row = new ProfileImportRow(line);
+            for (int i = 0; i < fields.size(); i++) {
+                String value = fields.get(i).trim();
+                setters.get(i).accept(row, value.isEmpty() ? null : value);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Field checks run on the pool, one slice of rows per thread; duplicates within the file are found afterwards
+    private List<ProfileImportError> validate(List<ProfileImportRow> rows) {
+        @SuppressWarnings("unchecked")
+        List<ProfileImportError>[] rowErrors = new List[rows.size()];
+        inParallel(rows.size(), i -> rowErrors[i] = validate(rows.get(i)));
+
+        List<ProfileImportError> errors = new ArrayList<>();
+        for (List<ProfileImportError> found : rowErrors) {
+            errors.addAll(found);
+        }
+        Map<String, Integer> emails = new HashMap<>();
+        Map<String, Integer> employeeIds = new HashMap<>();
+        for (ProfileImportRow row : rows) {
+            duplicate(emails, row.getEmail(), row.getLine(), "email", errors);
+            duplicate(employeeIds, row.getEmployeeId(), row.getLine(), "employee_id", errors);
+        }
+        return errors;
+    }
+
+    private List<ProfileImportError> validate(ProfileImportRow row) {
+        List<ProfileImportError> errors = new ArrayList<>();
+        for (ConstraintViolation<ProfileImportRow> violation : validator.validate(row)) {
+            errors.add(new ProfileImportError(row.getLine(), column(violation.getPropertyPath().toString()),
+                    violation.getMessage()));
+        }
+        if (row.getHireDate() != null) {
+            try {
+                LocalDate.parse(row.getHireDate());
+            } catch (DateTimeParseException e) {
+                errors.add(new ProfileImportError(row.getLine(), "hire_date", "must be a date in the form YYYY-MM-DD"));
+            }
+        }
+        if (row.getManagerEmail() != null && row.getManagerEmployeeId() != null) {
+            errors.add(new ProfileImportError(row.getLine(), "manager_employee_id",
+                    "give either manager_email or manager_employee_id, not both"));
+        }
+        return errors;
+    }
+
+    private static void duplicate(Map<String, Integer> seen, String value, int line, String field,
+                                  List<ProfileImportError> errors) {
+        if (value == null) {
+            return;
+        }
+        Integer firstLine = seen.putIfAbsent(value, line);
+        if (firstLine != null) {
+            errors.add(new ProfileImportError(line, field, "Also used on line " + firstLine));
+        }
+    }
+
+    // COPYs the rows into a fresh staging table, resolves managers and returns what stops the rows being merged.
+    // Must run inside a transaction; the table is dropped when it ends
+    private List<ProfileImportError> stage(List<ProfileImportRow> rows, UUID[] userIds, UUID[] profileIds,
+                                           String[] passwordHashes, UUID importerId) {
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            String copySql = "COPY profile_import (" + String.join(", ", STAGING_COLUMNS)
+                    + ") FROM STDIN WITH (FORMAT csv, HEADER true)";
+            try (PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), copySql)) {
+                writeStaging(copy, rows, userIds, profileIds, passwordHashes);
+            } catch (IOException e) {
+                throw new SQLException("COPY into profile_import failed", e);
+            }
+            return null;
+        });
+        jdbcTemplate.execute("CREATE INDEX ON profile_import (email)");
+        jdbcTemplate.execute("CREATE INDEX ON profile_import (employee_id)");
+        jdbcTemplate.execute("CREATE INDEX ON profile_import (user_id)");
+        jdbcTemplate.execute("CREATE INDEX ON profile_import (manager_id)");
+        jdbcTemplate.execute("ANALYZE profile_import");
+
+        jdbcTemplate.update(RESOLVE_MANAGERS_SQL, importerId);
+        return jdbcTemplate.query(CHECK_SQL,
+                (rs, rowNum) -> new ProfileImportError(rs.getInt("line"), rs.getString("field"), rs.getString("message")),
+                importerId);
+    }
+
+    // The COPY input: plain RFC 4180 CSV with a header line. Unlike ExportWriter's CSV, values go to the database
+    // rather than a spreadsheet, so they are written exactly as given
+    static void writeStaging(OutputStream outputStream, List<ProfileImportRow> rows, UUID[] userIds, UUID[] profileIds,
+                             String[] passwordHashes) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        writeCopyRow(out, STAGING_COLUMNS);
+        for (int i = 0; i < rows.size(); i++) {
+            ProfileImportRow row = rows.get(i);
+            writeCopyRow(out, Arrays.asList(String.valueOf(row.getLine()), userIds[i].toString(),
+                    profileIds[i].toString(), row.getEmail(), passwordHashes != null ? passwordHashes[i] : null,
+                    row.getRole() != null ? row.getRole() : "EMPLOYEE", row.getEmployeeId(),
+                    row.getFirstName(), row.getLastName(), row.getDepartment(), row.getPosition(),
+                    row.getHireDate(), row.getPhone(), row.getAddress(), row.getEmergencyContactName(),
+                    row.getEmergencyContactPhone(), row.getManagerEmail(), row.getManagerEmployeeId()));
+        }
+        out.flush();
+    }
+
+    // Null values go out as empty cells, which COPY reads as NULL
+    private static void writeCopyRow(Writer out, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+                    || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    // Runs action(i) for every row index, split into one contiguous slice per pool thread
+    private void inParallel(int count, IntConsumer action) {
+        int slices = pool.getMaximumPoolSize();
+        int sliceSize = (count + slices - 1) / slices;
+        List<Callable<Void>> tasks = new ArrayList<>(slices);
+        for (int start = 0; start < count; start += sliceSize) {
+            int from = start;
+            int to = Math.min(count, start + sliceSize);
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private ProfileImportResultDto rejected(int rows, List<ProfileImportError> errors) {
+        rejectedRows.increment(rows);
+        errors.sort(Comparator.comparingInt(ProfileImportError::getLine));
+        return new ProfileImportResultDto(rows, 0, errors);
+    }
+
+    private Counter rowCounter(String result) {
+        return Counter.builder("hr.import.rows")
+                .description("Rows in profile import files, by outcome")
+                .tags("result", result)
+                .register(meterRegistry);
+    }
+
+    // emergencyContactName -> emergency_contact_name
+    private static String column(String property) {
+        return property.replaceAll("([A-Z])", "_$1").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hrapp.service;
+
+import java.util.UUID;
+
+// Published after a profile is saved so cached directory entries for the user are dropped
+public class ProfileUpdatedEvent {
+    private final UUID userId;
+
+    public ProfileUpdatedEvent(UUID userId) {
+        this.userId = userId;
+    }
+
+    public UUID getUserId() { return userId; }
+}
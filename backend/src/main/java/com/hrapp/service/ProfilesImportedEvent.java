@@ -0,0 +1,15 @@
+package com.hrapp.service;
+
+import java.util.List;
+import java.util.UUID;
+
+// Published once after a bulk import commits, instead of one ManagerChangedEvent per new employee
+public class ProfilesImportedEvent {
+    private final List<UUID> userIds;
+
+    public ProfilesImportedEvent(List<UUID> userIds) {
+        this.userIds = userIds;
+    }
+
+    public List<UUID> getUserIds() { return userIds; }
+}
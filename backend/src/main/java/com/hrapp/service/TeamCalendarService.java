@@ -0,0 +1,229 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.AbsencePeriod;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.dto.TeamCalendarDay;
+import com.hrapp.dto.TeamCalendarDto;
+import com.hrapp.exception.InvalidDateRangeException;
+import com.hrapp.model.AbsenceStatus;
+import com.hrapp.repository.AbsenceRequestRepository;
+import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.security.HrPrincipal;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Availability per manager: each direct report gets an ordinal and keeps their approved absences as disjoint
+// intervals keyed by start day. A view expands only the days asked for into a BitSet per day of the ordinals who are
+// out, so an absence of any length costs one map entry. A team is built from the database the first time its
+// manager asks and then kept current by AbsenceRequestChangedEvent, so a view is one floor search per member.
+// Changes made on other instances are picked up when the whole cache is dropped on the org chart's refresh interval
+@Service
+public class TeamCalendarService {
+
+    private static final int MAX_RANGE_DAYS = 92;
+
+    @Autowired
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    @Autowired
+    private AbsenceRequestRepository absenceRequestRepository;
+
+    @Autowired
+    private ProfileDirectoryCache profileDirectoryCache;
+
+    @Value("${hrapp.team-calendar.max-teams:1000}")
+    private int maxTeams = 1000;
+
+    private final LinkedHashMap<UUID, TeamAvailability> teams = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, TeamAvailability> eldest) {
+            return size() > maxTeams;
+        }
+    };
+
+    // Bumped on every change so a team built concurrently with it is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public TeamCalendarDto getTeamCalendar(LocalDate from, LocalDate to, HrPrincipal principal) {
+        // Only managers have a team calendar
+        if (!principal.isManager()) {
+            throw new AccessDeniedException("Access denied");
+        }
+        if (to.isBefore(from)) {
+            throw new InvalidDateRangeException("End date cannot be before start date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new InvalidDateRangeException("Calendar range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        TeamAvailability team = getTeam(principal.getUserId());
+        List<TeamCalendarDay> days = new ArrayList<>();
+        List<UUID> absenteeIds;
+        int teamSize;
+        synchronized (team) {
+            BitSet[] absentByDay = team.absentByDay(from.toEpochDay(), to.toEpochDay());
+            BitSet anyDay = new BitSet();
+            for (int i = 0; i < absentByDay.length; i++) {
+                BitSet absent = absentByDay[i];
+                if (absent == null) {
+                    days.add(new TeamCalendarDay(from.plusDays(i), Collections.emptyList()));
+                } else {
+                    anyDay.or(absent);
+                    days.add(new TeamCalendarDay(from.plusDays(i), team.membersOf(absent)));
+                }
+            }
+            absenteeIds = team.membersOf(anyDay);
+            teamSize = team.members.size();
+        }
+
+        List<ProfileDirectoryEntry> absentees = profileDirectoryCache.getAll(absenteeIds).values().stream()
+                .sorted(Comparator.comparing(ProfileDirectoryEntry::getLastName)
+                        .thenComparing(ProfileDirectoryEntry::getFirstName))
+                .collect(Collectors.toList());
+        return new TeamCalendarDto(from, to, teamSize, absentees, days);
+    }
+
+    @EventListener
+    public void onAbsenceRequestChanged(AbsenceRequestChangedEvent event) {
+        AbsencePeriod period = event.getPeriod();
+        // Only pending requests can be decided or deleted, so approval is the one change that touches an absent day
+        if (event.isDeleted() || period.getStatus() != AbsenceStatus.APPROVED) {
+            return;
+        }
+        synchronized (teams) {
+            generation.incrementAndGet();
+            for (TeamAvailability team : teams.values()) {
+                synchronized (team) {
+                    team.markAbsent(period);
+                }
+            }
+        }
+    }
+
+    // A profile update may have moved someone to another manager
+    @EventListener
+    public void onProfileUpdated(ProfileUpdatedEvent event) {
+        clear();
+    }
+
+    // Imported employees join their managers' teams
+    @EventListener
+    public void onProfilesImported(ProfilesImportedEvent event) {
+        clear();
+    }
+
+    @Scheduled(fixedDelayString = "${hrapp.org-chart.refresh-interval-ms:300000}",
+               initialDelayString = "${hrapp.org-chart.refresh-interval-ms:300000}")
+    public void clear() {
+        synchronized (teams) {
+            generation.incrementAndGet();
+            teams.clear();
+        }
+    }
+
+    private TeamAvailability getTeam(UUID managerId) {
+        synchronized (teams) {
+            TeamAvailability team = teams.get(managerId);
+            if (team != null) {
+                return team;
+            }
+        }
+
+        // Built outside the lock: one query for the team, one for its approved absences
+        long buildGeneration = generation.get();
+        TeamAvailability team = new TeamAvailability(employeeProfileRepository.findUserIdsByManagerId(managerId));
+        if (!team.members.isEmpty()) {
+            for (AbsencePeriod period : absenceRequestRepository.findActivePeriodsByEmployeeIdIn(team.members)) {
+                if (period.getStatus() == AbsenceStatus.APPROVED) {
+                    team.markAbsent(period);
+                }
+            }
+        }
+        synchronized (teams) {
+            if (buildGeneration == generation.get() && maxTeams > 0) {
+                teams.put(managerId, team);
+            }
+        }
+        return team;
+    }
+
+    int cachedTeams() {
+        synchronized (teams) {
+            return teams.size();
+        }
+    }
+
+    // Guarded by its own monitor once published
+    static final class TeamAvailability {
+        private final List<UUID> members;
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        // Per ordinal: start epoch day -> end epoch day of each approved absence
+        private final List<TreeMap<Long, Long>> approved;
+
+        TeamAvailability(List<UUID> members) {
+            this.members = members;
+            this.approved = new ArrayList<>(members.size());
+            for (int i = 0; i < members.size(); i++) {
+                ordinals.put(members.get(i), i);
+                approved.add(new TreeMap<>());
+            }
+        }
+
+        void markAbsent(AbsencePeriod period) {
+            Integer ordinal = ordinals.get(period.getEmployeeId());
+            if (ordinal == null) {
+                return;
+            }
+            approved.get(ordinal).put(period.getStartDate().toEpochDay(), period.getEndDate().toEpochDay());
+        }
+
+        // One entry per day from fromDay to toDay, null where nobody is out
+        BitSet[] absentByDay(long fromDay, long toDay) {
+            BitSet[] absentByDay = new BitSet[(int) (toDay - fromDay + 1)];
+            for (int ordinal = 0; ordinal < members.size(); ordinal++) {
+                TreeMap<Long, Long> periods = approved.get(ordinal);
+                // Periods are disjoint, so only the last one starting before fromDay can reach into the range
+                Long first = periods.floorKey(fromDay);
+                for (Map.Entry<Long, Long> period : periods.subMap(first != null ? first : fromDay, true, toDay, true)
+                        .entrySet()) {
+                    long end = Math.min(period.getValue(), toDay);
+                    for (long day = Math.max(period.getKey(), fromDay); day <= end; day++) {
+                        int index = (int) (day - fromDay);
+                        if (absentByDay[index] == null) {
+                            absentByDay[index] = new BitSet(members.size());
+                        }
+                        absentByDay[index].set(ordinal);
+                    }
+                }
+            }
+            return absentByDay;
+        }
+
+        List<UUID> membersOf(BitSet bits) {
+            List<UUID> result = new ArrayList<>(bits.cardinality());
+            for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+                result.add(members.get(i));
+            }
+            return result;
+        }
+    }
+}
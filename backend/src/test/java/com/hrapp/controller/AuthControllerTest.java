@@ -39,7 +39,7 @@ class AuthControllerTest {
         LoginRequest loginRequest = new LoginRequest("test@example.com", "password");
         AuthResponse authResponse = new AuthResponse("jwt-token", UUID.randomUUID(), "test@example.com", UserRole.EMPLOYEE);
         
-        when(authService.login(any(LoginRequest.class))).thenReturn(authResponse);
+        when(authService.login(any(LoginRequest.class), any())).thenReturn(authResponse);
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/login")
@@ -58,7 +58,7 @@ class AuthControllerTest {
         // Arrange
         LoginRequest loginRequest = new LoginRequest("test@example.com", "wrongpassword");
         
-        when(authService.login(any(LoginRequest.class))).thenThrow(new RuntimeException("Invalid credentials"));
+        when(authService.login(any(LoginRequest.class), any())).thenThrow(new RuntimeException("Invalid credentials"));
 
         // Act & Assert
         mockMvc.perform(post("/api/auth/login")
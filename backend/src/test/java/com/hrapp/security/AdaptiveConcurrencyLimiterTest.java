@@ -0,0 +1,85 @@
+package com.hrapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter();
+
+    @Test
+    void tryAcquire_AtLimit_RejectsUntilReleased() {
+        // Arrange
+        for (int i = 0; i < limiter.getLimit(); i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // Act
+        boolean overLimit = limiter.tryAcquire();
+        limiter.release(System.nanoTime());
+        boolean afterRelease = limiter.tryAcquire();
+
+        // Assert
+        assertFalse(overLimit);
+        assertTrue(afterRelease);
+        assertEquals(20, limiter.getInFlight());
+    }
+
+    @Test
+    void onSample_LatencyRisesAboveBaseline_ShrinksLimit() {
+        // Arrange
+        for (int i = 0; i < 100; i++) {
+            limiter.onSample(10 * MILLIS, 20, 0);
+        }
+        int baselineLimit = limiter.getLimit();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(100 * MILLIS, 20, 0);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() < baselineLimit);
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void onSample_StableLatencyUnderLoad_GrowsLimit() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10 * MILLIS, 20, 0);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() > 20);
+    }
+
+    @Test
+    void onSample_ThreadsWaitingForConnections_ShrinksLimitEvenAtSteadyLatency() {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(10 * MILLIS, 20, 3);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() < 20);
+    }
+
+    @Test
+    void bindTo_RegistersLimitAndInFlightGauges() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        // Act
+        limiter.tryAcquire();
+
+        // Assert
+        assertEquals(20.0, registry.get("hr.admission.limit").gauge().value());
+        assertEquals(1.0, registry.get("hr.admission.inflight").gauge().value());
+    }
+}
@@ -0,0 +1,87 @@
+package com.hrapp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final ApiRateLimiter rateLimiter = new ApiRateLimiter();
+
+    @Test
+    void tryAcquire_BurstBeyondCapacity_ReturnsRetryAfterUntilRefilled() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire(userId, EndpointClass.EXPENSIVE, 0));
+        }
+
+        // Act
+        long retryAfter = rateLimiter.tryAcquire(userId, EndpointClass.EXPENSIVE, 0);
+        long afterRefill = rateLimiter.tryAcquire(userId, EndpointClass.EXPENSIVE, 5 * SECOND);
+
+        // Assert
+        assertEquals(5, retryAfter);
+        assertEquals(0, afterRefill);
+    }
+
+    @Test
+    void tryAcquire_EndpointClassesAndPrincipalsHaveSeparateBuckets() {
+        // Arrange
+        UUID userId = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire(userId, EndpointClass.EXPENSIVE, 0);
+        }
+
+        // Act & Assert
+        assertTrue(rateLimiter.tryAcquire(userId, EndpointClass.EXPENSIVE, 0) > 0);
+        assertEquals(0, rateLimiter.tryAcquire(userId, EndpointClass.READ, 0));
+        assertEquals(0, rateLimiter.tryAcquire(UUID.randomUUID(), EndpointClass.EXPENSIVE, 0));
+    }
+
+    @Test
+    void tryAcquire_TooManyPrincipals_EvictsIdleBucketsFirst() {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimiter, "maxTrackedPrincipals", 2);
+        UUID busy = UUID.randomUUID();
+        UUID idle = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire(busy, EndpointClass.EXPENSIVE, 0);
+        }
+        rateLimiter.tryAcquire(idle, EndpointClass.READ, 0);
+
+        // Act
+        rateLimiter.tryAcquire(UUID.randomUUID(), EndpointClass.READ, SECOND);
+
+        // Assert
+        assertEquals(2, rateLimiter.trackedPrincipals());
+        assertTrue(rateLimiter.tryAcquire(busy, EndpointClass.EXPENSIVE, SECOND) > 0);
+    }
+
+    @Test
+    void tryAcquire_TooManyActivePrincipals_KeepsDrainedBucketsOverTheCap() {
+        // Arrange
+        ReflectionTestUtils.setField(rateLimiter, "maxTrackedPrincipals", 2);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.tryAcquire(first, EndpointClass.EXPENSIVE, 0);
+            rateLimiter.tryAcquire(second, EndpointClass.EXPENSIVE, 0);
+        }
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire(UUID.randomUUID(), EndpointClass.EXPENSIVE, SECOND);
+        }
+
+        // Assert
+        assertEquals(12, rateLimiter.trackedPrincipals());
+        assertTrue(rateLimiter.tryAcquire(first, EndpointClass.EXPENSIVE, SECOND) > 0);
+        assertTrue(rateLimiter.tryAcquire(second, EndpointClass.EXPENSIVE, SECOND) > 0);
+    }
+}
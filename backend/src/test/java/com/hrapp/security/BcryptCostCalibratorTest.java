@@ -0,0 +1,18 @@
+package com.hrapp.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BcryptCostCalibratorTest {
+
+    @Test
+    void strengthWithinBudget_DoublesCostWhileItFits() {
+        // 40ms at cost 10: cost 11 takes ~80ms and fits a 100ms budget, cost 12 (~160ms) does not
+        assertEquals(11, BcryptCostCalibrator.strengthWithinBudget(40_000_000L, 100_000_000L, 10, 14));
+        // Never below the minimum, even on a machine slower than the budget
+        assertEquals(10, BcryptCostCalibrator.strengthWithinBudget(300_000_000L, 100_000_000L, 10, 14));
+        // Never above the maximum
+        assertEquals(14, BcryptCostCalibrator.strengthWithinBudget(1_000_000L, 10_000_000_000L, 10, 14));
+    }
+}
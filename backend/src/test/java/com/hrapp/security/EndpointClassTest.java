@@ -0,0 +1,24 @@
+package com.hrapp.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointClassTest {
+
+    @Test
+    void of_PagedListIsReadAndUnpagedBulkReadsAreExpensive() {
+        // Act & Assert
+        assertEquals(EndpointClass.READ, EndpointClass.of(new MockHttpServletRequest("GET", "/api/absence-requests/all")));
+        assertEquals(EndpointClass.READ, EndpointClass.of(new MockHttpServletRequest("GET", "/api/profiles/basic")));
+        assertEquals(EndpointClass.EXPENSIVE, EndpointClass.of(new MockHttpServletRequest("GET", "/api/profiles/detailed")));
+        assertEquals(EndpointClass.EXPENSIVE,
+                EndpointClass.of(new MockHttpServletRequest("GET", "/api/absence-requests/export")));
+        assertEquals(EndpointClass.EXPENSIVE,
+                EndpointClass.of(new MockHttpServletRequest("GET", "/api/org-chart/" + UUID.randomUUID() + "/subtree")));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of(new MockHttpServletRequest("POST", "/api/absence-requests")));
+    }
+}
@@ -1,9 +1,16 @@
 package com.hrapp.security;
 
+import com.hrapp.model.UserRole;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,7 +35,7 @@ class JwtUtilTest {
     @Test
     void generateToken_ValidInput_ReturnsToken() {
         // Act
-        String token = jwtUtil.generateToken(testUserId, testEmail);
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
 
         // Assert
         assertNotNull(token);
@@ -36,10 +43,26 @@ class JwtUtilTest {
         assertTrue(token.contains("."));
     }
 
+    @Test
+    void parseToken_AccessAndRefreshTokens_CarryDistinctIdsAndTypes() {
+        // Act
+        VerifiedToken access = jwtUtil.parseToken(jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE));
+        VerifiedToken refresh = jwtUtil.parseToken(jwtUtil.generateRefreshToken(testUserId));
+
+        // Assert
+        assertEquals(TokenType.ACCESS, access.getType());
+        assertEquals(TokenType.REFRESH, refresh.getType());
+        assertNotNull(access.getTokenId());
+        assertNotEquals(access.getTokenId(), refresh.getTokenId());
+        assertEquals(testUserId, refresh.getUserId());
+        assertNull(refresh.getRole());
+        assertTrue(refresh.getExpiresAt().isAfter(access.getExpiresAt()));
+    }
+
     @Test
     void getUserIdFromToken_ValidToken_ReturnsUserId() {
         // Arrange
-        String token = jwtUtil.generateToken(testUserId, testEmail);
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
 
         // Act
         UUID extractedUserId = jwtUtil.getUserIdFromToken(token);
@@ -51,7 +74,7 @@ class JwtUtilTest {
     @Test
     void getEmailFromToken_ValidToken_ReturnsEmail() {
         // Arrange
-        String token = jwtUtil.generateToken(testUserId, testEmail);
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
 
         // Act
         String extractedEmail = jwtUtil.getEmailFromToken(token);
@@ -63,7 +86,7 @@ class JwtUtilTest {
     @Test
     void isTokenValid_ValidToken_ReturnsTrue() {
         // Arrange
-        String token = jwtUtil.generateToken(testUserId, testEmail);
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
 
         // Act
         boolean isValid = jwtUtil.isTokenValid(token);
@@ -87,7 +110,7 @@ class JwtUtilTest {
     @Test
     void isTokenExpired_ValidToken_ReturnsFalse() {
         // Arrange
-        String token = jwtUtil.generateToken(testUserId, testEmail);
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
 
         // Act
         boolean isExpired = jwtUtil.isTokenExpired(token);
@@ -100,7 +123,7 @@ class JwtUtilTest {
     void isTokenExpired_ExpiredToken_ReturnsTrue() {
         // Arrange - Create JWT with very short expiration
         ReflectionTestUtils.setField(jwtUtil, "expiration", -1L); // Already expired
-        String expiredToken = jwtUtil.generateToken(testUserId, testEmail);
+        String expiredToken = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
         
         // Reset expiration to normal value
         ReflectionTestUtils.setField(jwtUtil, "expiration", 3600000L);
@@ -129,4 +152,92 @@ class JwtUtilTest {
         // Act & Assert
         assertThrows(Exception.class, () -> jwtUtil.getEmailFromToken(invalidToken));
     }
-}
\ No newline at end of file
+
+    @Test
+    void parseToken_ValidToken_ReturnsClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
+
+        // Act
+        VerifiedToken verifiedToken = jwtUtil.parseToken(token);
+
+        // Assert
+        assertEquals(testUserId, verifiedToken.getUserId());
+        assertEquals(testEmail, verifiedToken.getEmail());
+        assertEquals(UserRole.EMPLOYEE, verifiedToken.getRole());
+        assertTrue(verifiedToken.getExpiresAt().isAfter(verifiedToken.getIssuedAt()));
+    }
+
+    @Test
+    void parseToken_RepeatedToken_ReturnsCachedClaims() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
+
+        // Act
+        VerifiedToken first = jwtUtil.parseToken(token);
+        VerifiedToken second = jwtUtil.parseToken(token);
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void tryParseToken_TamperedSignature_ReturnsEmpty() {
+        // Arrange
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
+        jwtUtil.parseToken(token);
+        String tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertTrue(jwtUtil.tryParseToken(tamperedToken).isEmpty());
+    }
+
+    @Test
+    void tryParseToken_WithoutTokenId_ReturnsEmpty() {
+        // Arrange: correctly signed, but without the jti that revocation needs
+        Date now = new Date();
+        String token = Jwts.builder()
+                .setSubject(testUserId.toString())
+                .claim("typ", TokenType.ACCESS.name())
+                .claim("email", testEmail)
+                .claim("role", UserRole.EMPLOYEE.name())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + 60000))
+                .signWith(Keys.hmacShaKeyFor("myTestSecretKeyThatIsLongEnoughForHS256Algorithm".getBytes(StandardCharsets.UTF_8)),
+                        SignatureAlgorithm.HS256)
+                .compact();
+
+        // Act & Assert
+        assertTrue(jwtUtil.tryParseToken(token).isEmpty());
+    }
+
+    @Test
+    void tryParseToken_ExpiredToken_ReturnsEmpty() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtUtil, "expiration", -1L);
+        String expiredToken = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
+
+        // Act & Assert
+        assertTrue(jwtUtil.tryParseToken(expiredToken).isEmpty());
+    }
+
+    @Test
+    void bindTo_RecordsParseTimingsAndCacheHits() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtUtil.bindTo(registry);
+        String token = jwtUtil.generateToken(testUserId, testEmail, UserRole.EMPLOYEE);
+
+        // Act
+        jwtUtil.parseToken(token);
+        jwtUtil.parseToken(token);
+        jwtUtil.tryParseToken(token + "x");
+
+        // Assert
+        assertEquals(1, registry.get("hr.jwt.sign").timer().count());
+        assertEquals(1, registry.get("hr.jwt.parse").tag("result", "verified").timer().count());
+        assertEquals(1, registry.get("hr.jwt.parse").tag("result", "cached").timer().count());
+        assertEquals(1, registry.get("hr.jwt.parse").tag("result", "rejected").timer().count());
+        assertEquals(1.0, registry.get("cache.gets").tags("cache", "verifiedTokens", "result", "hit").functionCounter().count());
+    }
+}
@@ -0,0 +1,90 @@
+package com.hrapp.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowLoginRateLimiterTest {
+
+    // Start of a 60s window
+    private static final long WINDOW_START = 1_700_000_040_000L;
+
+    private SlidingWindowLoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new SlidingWindowLoginRateLimiter();
+    }
+
+    @Test
+    void tryAcquire_UnderLimit_AllowsAndOverLimit_ReturnsRetryAfter() {
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("email:a@test.com", 5, WINDOW_START + i));
+        }
+        long retryAfter = limiter.tryAcquire("email:a@test.com", 5, WINDOW_START + 10_000);
+
+        // Assert: the full window has to become the previous one and then slide almost entirely out
+        assertTrue(retryAfter > 50 && retryAfter <= 120, "retryAfter was " + retryAfter);
+        assertEquals(0, limiter.tryAcquire("email:b@test.com", 5, WINDOW_START + 10_000));
+    }
+
+    @Test
+    void tryAcquire_PreviousWindowCountsInProportionToOverlap() {
+        // Arrange: 4 attempts in the previous window
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire("ip:10.0.0.1", 4, WINDOW_START + i);
+        }
+
+        // Act & Assert: a quarter into the next window 3 of them still count, so only one more attempt fits
+        long quarterIn = WINDOW_START + 60_000 + 15_000;
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1", 4, quarterIn));
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1", 4, quarterIn) > 0);
+        // Two windows later nothing carries over
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1", 4, WINDOW_START + 180_000));
+    }
+
+    @Test
+    void tryAcquire_KeyTableFull_EvictsIdleKeysFirst() {
+        // Arrange
+        ReflectionTestUtils.setField(limiter, "maxTrackedKeys", 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("ip:old-" + i, 5, WINDOW_START);
+        }
+
+        // Act
+        limiter.tryAcquire("ip:new", 5, WINDOW_START + 180_000);
+
+        // Assert
+        assertEquals(1, limiter.trackedKeys());
+        assertEquals(0.0, registry.get("hr.auth.login.ratelimit.full").functionCounter().count());
+    }
+
+    @Test
+    void tryAcquire_KeyTableFloodedWithNewKeys_ThrottledKeyStaysThrottled() {
+        // Arrange
+        ReflectionTestUtils.setField(limiter, "maxTrackedKeys", 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("email:victim@test.com", 5, WINDOW_START + i);
+        }
+        assertTrue(limiter.tryAcquire("email:victim@test.com", 5, WINDOW_START + 10) > 0);
+
+        // Act: far more fresh keys than the table holds, all within the victim's window
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("email:flood-" + i + "@test.com", 5, WINDOW_START + 1_000 + i);
+        }
+
+        // Assert
+        assertTrue(limiter.tryAcquire("email:victim@test.com", 5, WINDOW_START + 2_000) > 0);
+        assertEquals(10, limiter.trackedKeys());
+        assertTrue(limiter.tryAcquire("email:late@test.com", 5, WINDOW_START + 2_000) > 0);
+        assertEquals(92.0, registry.get("hr.auth.login.ratelimit.full").functionCounter().count());
+    }
+}
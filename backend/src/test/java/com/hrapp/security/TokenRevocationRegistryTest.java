@@ -0,0 +1,82 @@
+package com.hrapp.security;
+
+import com.hrapp.model.RevokedToken;
+import com.hrapp.model.UserRole;
+import com.hrapp.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationRegistryTest {
+
+    private TokenRevocationRegistry registry;
+    private RevokedTokenRepository revokedTokenRepository;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenRevocationRegistry();
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        ReflectionTestUtils.setField(registry, "revokedTokenRepository", revokedTokenRepository);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void isRevoked_NoRevocation_ReturnsFalse() {
+        // Arrange
+        VerifiedToken token = tokenWithId(UUID.randomUUID());
+
+        // Act & Assert
+        assertFalse(registry.isRevoked(token));
+    }
+
+    @Test
+    void revokeToken_FirstAndSecondRevocation_OnlyFirstWins() {
+        // Arrange
+        VerifiedToken token = tokenWithId(UUID.randomUUID());
+        when(revokedTokenRepository.insertIfAbsent(eq(token.getTokenId()), eq(userId), any(), any())).thenReturn(1, 0);
+
+        // Act
+        boolean first = registry.revokeToken(token);
+        boolean second = registry.revokeToken(token);
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertTrue(registry.isRevoked(token));
+        assertFalse(registry.isRevoked(tokenWithId(UUID.randomUUID())));
+    }
+
+    @Test
+    void loadRevokedTokens_RebuildsSetFromTable() {
+        // Arrange
+        UUID revokedId = UUID.randomUUID();
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken(revokedId, userId, LocalDateTime.now().plusHours(1), LocalDateTime.now())));
+
+        // Act
+        registry.loadRevokedTokens();
+
+        // Assert
+        verify(revokedTokenRepository).deleteExpired(any());
+        assertTrue(registry.isRevoked(tokenWithId(revokedId)));
+        assertEquals(1, registry.revokedTokenCount());
+    }
+
+    private VerifiedToken tokenWithId(UUID tokenId) {
+        Instant now = Instant.now();
+        return new VerifiedToken(tokenId, TokenType.ACCESS, userId, "test@example.com", UserRole.EMPLOYEE,
+                now, now.plus(1, ChronoUnit.HOURS));
+    }
+}
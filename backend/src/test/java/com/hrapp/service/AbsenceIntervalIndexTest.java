@@ -0,0 +1,129 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.AbsencePeriod;
+import com.hrapp.model.AbsenceStatus;
+import com.hrapp.repository.AbsenceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AbsenceIntervalIndexTest {
+
+    @Mock
+    private AbsenceRequestRepository absenceRequestRepository;
+
+    @InjectMocks
+    private AbsenceIntervalIndex absenceIntervalIndex;
+
+    private UUID employeeId;
+    private AbsencePeriod january;
+    private AbsencePeriod march;
+
+    @BeforeEach
+    void setUp() {
+        employeeId = UUID.randomUUID();
+        january = new AbsencePeriod(UUID.randomUUID(), employeeId,
+                LocalDate.of(2024, 1, 15), LocalDate.of(2024, 1, 19), AbsenceStatus.APPROVED);
+        march = new AbsencePeriod(UUID.randomUUID(), employeeId,
+                LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 4), AbsenceStatus.PENDING);
+    }
+
+    @Test
+    void findOverlap_FindsPeriodSharingAnyDayAndRechecksCachedHits() {
+        // Arrange
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(anyCollection())).thenReturn(List.of(january, march));
+
+        // Act & Assert
+        assertEquals(january, absenceIntervalIndex.findOverlap(employeeId,
+                LocalDate.of(2024, 1, 19), LocalDate.of(2024, 2, 2)).orElseThrow());
+        assertEquals(january, absenceIntervalIndex.findOverlap(employeeId,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 1)).orElseThrow());
+        assertEquals(march, absenceIntervalIndex.findOverlap(employeeId,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 31)).orElseThrow());
+        assertTrue(absenceIntervalIndex.findOverlap(employeeId,
+                LocalDate.of(2024, 1, 20), LocalDate.of(2024, 3, 3)).isEmpty());
+        // The first lookup loads; each later hit is confirmed against the database, the miss is not
+        verify(absenceRequestRepository, times(3)).findActivePeriodsByEmployeeIdIn(anyCollection());
+    }
+
+    @Test
+    void findOverlap_CachedHitWithdrawnElsewhere_ReturnsEmpty() {
+        // Arrange
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(anyCollection()))
+                .thenReturn(List.of(january, march))
+                .thenReturn(List.of(march));
+        absenceIntervalIndex.findOverlap(employeeId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1));
+
+        // Act
+        boolean overlaps = absenceIntervalIndex.findOverlap(employeeId,
+                LocalDate.of(2024, 1, 16), LocalDate.of(2024, 1, 16)).isPresent();
+
+        // Assert
+        assertFalse(overlaps);
+        verify(absenceRequestRepository, times(2)).findActivePeriodsByEmployeeIdIn(anyCollection());
+    }
+
+    @Test
+    void findAbsentOn_EntryOlderThanTtl_ReloadsHistory() {
+        // Arrange
+        ReflectionTestUtils.setField(absenceIntervalIndex, "ttlMillis", 0L);
+        AbsencePeriod approvedMarch = new AbsencePeriod(march.getRequestId(), employeeId,
+                march.getStartDate(), march.getEndDate(), AbsenceStatus.APPROVED);
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(anyCollection()))
+                .thenReturn(List.of(january, march))
+                .thenReturn(List.of(january, approvedMarch));
+        absenceIntervalIndex.findAbsentOn(List.of(employeeId), LocalDate.of(2024, 3, 4));
+
+        // Act
+        Set<UUID> absent = absenceIntervalIndex.findAbsentOn(List.of(employeeId), LocalDate.of(2024, 3, 4));
+
+        // Assert
+        assertEquals(Set.of(employeeId), absent);
+        verify(absenceRequestRepository, times(2)).findActivePeriodsByEmployeeIdIn(anyCollection());
+    }
+
+    @Test
+    void findAbsentOn_OnlyCountsApprovedAbsences() {
+        // Arrange
+        UUID colleagueId = UUID.randomUUID();
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(anyCollection())).thenReturn(List.of(january, march));
+
+        // Act & Assert
+        assertEquals(Set.of(employeeId), absenceIntervalIndex.findAbsentOn(
+                List.of(employeeId, colleagueId), LocalDate.of(2024, 1, 16)));
+        assertTrue(absenceIntervalIndex.findAbsentOn(List.of(employeeId, colleagueId), LocalDate.of(2024, 3, 4)).isEmpty());
+        assertEquals(2, absenceIntervalIndex.size());
+    }
+
+    @Test
+    void onAbsenceRequestChanged_UpdatesCachedHistoryWithoutReloading() {
+        // Arrange
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(anyCollection())).thenReturn(List.of(january, march));
+        absenceIntervalIndex.findOverlap(employeeId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1));
+        AbsencePeriod approvedMarch = new AbsencePeriod(march.getRequestId(), employeeId,
+                march.getStartDate(), march.getEndDate(), AbsenceStatus.APPROVED);
+
+        // Act
+        absenceIntervalIndex.onAbsenceRequestChanged(new AbsenceRequestChangedEvent(approvedMarch, false));
+        absenceIntervalIndex.onAbsenceRequestChanged(new AbsenceRequestChangedEvent(january, true));
+
+        // Assert
+        assertEquals(Set.of(employeeId), absenceIntervalIndex.findAbsentOn(List.of(employeeId), LocalDate.of(2024, 3, 4)));
+        assertTrue(absenceIntervalIndex.findOverlap(employeeId, LocalDate.of(2024, 1, 16), LocalDate.of(2024, 1, 16)).isEmpty());
+        verify(absenceRequestRepository, times(1)).findActivePeriodsByEmployeeIdIn(anyCollection());
+    }
+}
@@ -1,32 +1,45 @@
 package com.hrapp.service;
 
+import com.hrapp.dto.AbsencePeriod;
 import com.hrapp.dto.AbsenceRequestDto;
+import com.hrapp.dto.AbsenceRequestFilter;
 import com.hrapp.dto.ApprovalRequestDto;
 import com.hrapp.dto.CreateAbsenceRequestDto;
+import com.hrapp.dto.CursorPage;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.exception.AbsenceOverlapException;
+import com.hrapp.exception.InvalidCursorException;
 import com.hrapp.model.AbsenceRequest;
 import com.hrapp.model.AbsenceStatus;
-import com.hrapp.model.EmployeeProfile;
 import com.hrapp.model.User;
 import com.hrapp.model.UserRole;
 import com.hrapp.repository.AbsenceRequestRepository;
 import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.repository.OrgClosureRepository;
 import com.hrapp.repository.UserRepository;
+import com.hrapp.security.HrPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,15 +51,29 @@ class AbsenceRequestServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ProfileDirectoryCache profileDirectoryCache;
+
+    @Mock
+    private AbsenceIntervalIndex absenceIntervalIndex;
+
     @Mock
     private EmployeeProfileRepository employeeProfileRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrgClosureRepository orgClosureRepository;
+
     @InjectMocks
     private AbsenceRequestService absenceRequestService;
 
     private User managerUser;
     private User employeeUser;
-    private EmployeeProfile employeeProfile;
+    private HrPrincipal managerPrincipal;
+    private HrPrincipal employeePrincipal;
+    private ProfileDirectoryEntry employeeName;
     private AbsenceRequest testRequest;
 
     @BeforeEach
@@ -57,8 +84,10 @@ class AbsenceRequestServiceTest {
         employeeUser = new User("employee@test.com", "hash", UserRole.EMPLOYEE);
         employeeUser.setId(UUID.randomUUID());
 
-        employeeProfile = new EmployeeProfile(employeeUser, "EMP001", "John", "Doe");
-        employeeProfile.setId(UUID.randomUUID());
+        managerPrincipal = new HrPrincipal(managerUser.getId(), managerUser.getEmail(), UserRole.MANAGER);
+        employeePrincipal = new HrPrincipal(employeeUser.getId(), employeeUser.getEmail(), UserRole.EMPLOYEE);
+
+        employeeName = new ProfileDirectoryEntry(employeeUser.getId(), "John", "Doe", "Engineering", managerUser.getId());
 
         testRequest = new AbsenceRequest(
             employeeUser,
@@ -77,12 +106,12 @@ class AbsenceRequestServiceTest {
         requestDto.setEndDate(LocalDate.of(2024, 1, 17));
         requestDto.setReason("Vacation");
 
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
+        when(userRepository.getReferenceById(employeeUser.getId())).thenReturn(employeeUser);
         when(absenceRequestRepository.save(any(AbsenceRequest.class))).thenReturn(testRequest);
-        when(employeeProfileRepository.findByUserId(employeeUser.getId())).thenReturn(Optional.of(employeeProfile));
+        when(profileDirectoryCache.getAll(anyCollection())).thenReturn(Map.of(employeeUser.getId(), employeeName));
 
         // Act
-        AbsenceRequestDto result = absenceRequestService.createAbsenceRequest(requestDto, employeeUser.getId());
+        AbsenceRequestDto result = absenceRequestService.createAbsenceRequest(requestDto, employeePrincipal);
 
         // Assert
         assertNotNull(result);
@@ -99,23 +128,57 @@ class AbsenceRequestServiceTest {
         requestDto.setStartDate(LocalDate.of(2024, 1, 17));
         requestDto.setEndDate(LocalDate.of(2024, 1, 15)); // End before start
 
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
-
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class,
-                () -> absenceRequestService.createAbsenceRequest(requestDto, employeeUser.getId()));
+                () -> absenceRequestService.createAbsenceRequest(requestDto, employeePrincipal));
         assertEquals("End date cannot be before start date", exception.getMessage());
     }
 
+    @Test
+    void createAbsenceRequest_OverlapsExistingRequest_ThrowsAbsenceOverlapException() {
+        // Arrange
+        CreateAbsenceRequestDto requestDto = new CreateAbsenceRequestDto();
+        requestDto.setStartDate(LocalDate.of(2024, 1, 16));
+        requestDto.setEndDate(LocalDate.of(2024, 1, 20));
+        when(absenceIntervalIndex.findOverlap(employeeUser.getId(), requestDto.getStartDate(), requestDto.getEndDate()))
+                .thenReturn(Optional.of(new AbsencePeriod(testRequest.getId(), employeeUser.getId(),
+                        testRequest.getStartDate(), testRequest.getEndDate(), AbsenceStatus.APPROVED)));
+
+        // Act & Assert
+        AbsenceOverlapException exception = assertThrows(AbsenceOverlapException.class,
+                () -> absenceRequestService.createAbsenceRequest(requestDto, employeePrincipal));
+        assertEquals("Absence overlaps an existing approved request from 2024-01-15 to 2024-01-17", exception.getMessage());
+        verify(absenceRequestRepository, never()).save(any(AbsenceRequest.class));
+    }
+
+    @Test
+    void getAbsentReports_AsManager_ReturnsReportsOutOnDate() {
+        // Arrange
+        UUID presentId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2024, 1, 16);
+        when(employeeProfileRepository.findUserIdsByManagerId(managerUser.getId()))
+                .thenReturn(List.of(employeeUser.getId(), presentId));
+        when(absenceIntervalIndex.findAbsentOn(List.of(employeeUser.getId(), presentId), date))
+                .thenReturn(Set.of(employeeUser.getId()));
+        when(profileDirectoryCache.getAll(Set.of(employeeUser.getId()))).thenReturn(Map.of(employeeUser.getId(), employeeName));
+
+        // Act
+        List<ProfileDirectoryEntry> result = absenceRequestService.getAbsentReports(date, managerPrincipal);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("John Doe", result.get(0).getFullName());
+    }
+
     @Test
     void getMyAbsenceRequests_ReturnsUserRequests() {
         // Arrange
         List<AbsenceRequest> requests = Arrays.asList(testRequest);
-        when(absenceRequestRepository.findByEmployeeId(employeeUser.getId())).thenReturn(requests);
-        when(employeeProfileRepository.findByUserId(employeeUser.getId())).thenReturn(Optional.of(employeeProfile));
+        when(absenceRequestRepository.findListByEmployeeId(employeeUser.getId())).thenReturn(requests);
+        when(profileDirectoryCache.getAll(anyCollection())).thenReturn(Map.of(employeeUser.getId(), employeeName));
 
         // Act
-        List<AbsenceRequestDto> result = absenceRequestService.getMyAbsenceRequests(employeeUser.getId());
+        List<AbsenceRequestDto> result = absenceRequestService.getMyAbsenceRequests(employeePrincipal);
 
         // Assert
         assertNotNull(result);
@@ -127,27 +190,61 @@ class AbsenceRequestServiceTest {
     void getAllAbsenceRequests_AsManager_ReturnsAllRequests() {
         // Arrange
         List<AbsenceRequest> requests = Arrays.asList(testRequest);
-        when(userRepository.findById(managerUser.getId())).thenReturn(Optional.of(managerUser));
-        when(absenceRequestRepository.findAll()).thenReturn(requests);
-        when(employeeProfileRepository.findByUserId(employeeUser.getId())).thenReturn(Optional.of(employeeProfile));
+        when(absenceRequestRepository.findPage(any(), eq(51))).thenReturn(requests);
+        when(profileDirectoryCache.getAll(anyCollection())).thenReturn(Map.of(employeeUser.getId(), employeeName));
 
         // Act
-        List<AbsenceRequestDto> result = absenceRequestService.getAllAbsenceRequests(managerUser.getId());
+        CursorPage<AbsenceRequestDto> result = absenceRequestService.getAllAbsenceRequests(
+                new AbsenceRequestFilter(), null, 50, managerPrincipal);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testRequest.getId(), result.get(0).getId());
+        assertEquals(1, result.getItems().size());
+        assertEquals(testRequest.getId(), result.getItems().get(0).getId());
+        assertEquals("John Doe", result.getItems().get(0).getEmployeeName());
+        assertNull(result.getNextCursor());
+        verify(profileDirectoryCache, times(1)).getAll(anyCollection());
     }
 
     @Test
-    void getAllAbsenceRequests_AsEmployee_ThrowsAccessDeniedException() {
+    void getAllAbsenceRequests_MoreRowsThanLimit_ReturnsNextCursor() {
         // Arrange
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
+        AbsenceRequest olderRequest = new AbsenceRequest(
+            employeeUser,
+            LocalDate.of(2024, 2, 1),
+            LocalDate.of(2024, 2, 2),
+            "Appointment"
+        );
+        olderRequest.setId(UUID.randomUUID());
+        testRequest.setRequestedAt(LocalDateTime.of(2024, 1, 10, 9, 0));
+        when(absenceRequestRepository.findPage(any(), eq(2))).thenReturn(Arrays.asList(testRequest, olderRequest));
+        when(profileDirectoryCache.getAll(anyCollection())).thenReturn(Map.of(employeeUser.getId(), employeeName));
 
+        // Act
+        CursorPage<AbsenceRequestDto> result = absenceRequestService.getAllAbsenceRequests(
+                new AbsenceRequestFilter(), null, 1, managerPrincipal);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNotNull(result.getNextCursor());
+        assertArrayEquals(new String[] {"2024-01-10T09:00", testRequest.getId().toString()},
+                CursorCodec.decode(result.getNextCursor(), 2));
+    }
+
+    @Test
+    void getAllAbsenceRequests_MalformedCursor_ThrowsInvalidCursorException() {
+        // Act & Assert
+        assertThrows(InvalidCursorException.class,
+                () -> absenceRequestService.getAllAbsenceRequests(
+                        new AbsenceRequestFilter(), CursorCodec.encode("yesterday", "42"), 50, managerPrincipal));
+    }
+
+    @Test
+    void getAllAbsenceRequests_AsEmployee_ThrowsAccessDeniedException() {
         // Act & Assert
         assertThrows(AccessDeniedException.class,
-                () -> absenceRequestService.getAllAbsenceRequests(employeeUser.getId()));
+                () -> absenceRequestService.getAllAbsenceRequests(
+                        new AbsenceRequestFilter(), null, 50, employeePrincipal));
     }
 
     @Test
@@ -157,46 +254,77 @@ class AbsenceRequestServiceTest {
         approvalDto.setStatus(AbsenceStatus.APPROVED);
         approvalDto.setComments("Approved for vacation");
 
-        when(absenceRequestRepository.findById(testRequest.getId())).thenReturn(Optional.of(testRequest));
-        when(userRepository.findById(managerUser.getId())).thenReturn(Optional.of(managerUser));
+        when(absenceRequestRepository.findForApprovalById(testRequest.getId())).thenReturn(Optional.of(testRequest));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(true);
+        when(userRepository.getReferenceById(managerUser.getId())).thenReturn(managerUser);
         when(absenceRequestRepository.save(any(AbsenceRequest.class))).thenReturn(testRequest);
-        when(employeeProfileRepository.findByUserId(any(UUID.class))).thenReturn(Optional.of(employeeProfile));
+        when(profileDirectoryCache.getAll(anyCollection())).thenReturn(Map.of(employeeUser.getId(), employeeName));
 
         // Act
         AbsenceRequestDto result = absenceRequestService.approveOrRejectRequest(
-                testRequest.getId(), approvalDto, managerUser.getId());
+                testRequest.getId(), approvalDto, managerPrincipal);
 
         // Assert
         assertNotNull(result);
         assertEquals(AbsenceStatus.APPROVED, testRequest.getStatus());
         assertEquals("Approved for vacation", testRequest.getComments());
         assertNotNull(testRequest.getApprovedAt());
+        assertEquals(managerUser, testRequest.getApprovedBy());
         verify(absenceRequestRepository).save(testRequest);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof AbsenceRequestChangedEvent
+                && ((AbsenceRequestChangedEvent) event).getPeriod().getStatus() == AbsenceStatus.APPROVED));
     }
 
     @Test
-    void approveOrRejectRequest_AsEmployee_ThrowsAccessDeniedException() {
+    void approveOrRejectRequest_OverlapsOtherRequest_ThrowsAbsenceOverlapException() {
         // Arrange
         ApprovalRequestDto approvalDto = new ApprovalRequestDto();
         approvalDto.setStatus(AbsenceStatus.APPROVED);
+        when(absenceRequestRepository.findForApprovalById(testRequest.getId())).thenReturn(Optional.of(testRequest));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(true);
+        when(absenceIntervalIndex.findOverlap(employeeUser.getId(), testRequest.getStartDate(), testRequest.getEndDate()))
+                .thenReturn(Optional.of(new AbsencePeriod(UUID.randomUUID(), employeeUser.getId(),
+                        LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 15), AbsenceStatus.APPROVED)));
 
-        when(absenceRequestRepository.findById(testRequest.getId())).thenReturn(Optional.of(testRequest));
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
+        // Act & Assert
+        assertThrows(AbsenceOverlapException.class,
+                () -> absenceRequestService.approveOrRejectRequest(testRequest.getId(), approvalDto, managerPrincipal));
+        assertEquals(AbsenceStatus.PENDING, testRequest.getStatus());
+    }
+
+    @Test
+    void approveOrRejectRequest_EmployeeOutsideManagersSubtree_ThrowsAccessDeniedException() {
+        // Arrange
+        ApprovalRequestDto approvalDto = new ApprovalRequestDto();
+        approvalDto.setStatus(AbsenceStatus.APPROVED);
+        when(absenceRequestRepository.findForApprovalById(testRequest.getId())).thenReturn(Optional.of(testRequest));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> absenceRequestService.approveOrRejectRequest(testRequest.getId(), approvalDto, managerPrincipal));
+        verify(absenceRequestRepository, never()).save(any(AbsenceRequest.class));
+    }
+
+    @Test
+    void approveOrRejectRequest_AsEmployee_ThrowsAccessDeniedException() {
+        // Arrange
+        ApprovalRequestDto approvalDto = new ApprovalRequestDto();
+        approvalDto.setStatus(AbsenceStatus.APPROVED);
 
         // Act & Assert
         assertThrows(AccessDeniedException.class,
                 () -> absenceRequestService.approveOrRejectRequest(
-                        testRequest.getId(), approvalDto, employeeUser.getId()));
+                        testRequest.getId(), approvalDto, employeePrincipal));
     }
 
     @Test
     void deleteAbsenceRequest_OwnPendingRequest_DeletesSuccessfully() {
         // Arrange
-        when(absenceRequestRepository.findById(testRequest.getId())).thenReturn(Optional.of(testRequest));
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
+        when(absenceRequestRepository.findForApprovalById(testRequest.getId())).thenReturn(Optional.of(testRequest));
 
         // Act
-        absenceRequestService.deleteAbsenceRequest(testRequest.getId(), employeeUser.getId());
+        absenceRequestService.deleteAbsenceRequest(testRequest.getId(), employeePrincipal);
 
         // Assert
         verify(absenceRequestRepository).delete(testRequest);
@@ -206,28 +334,54 @@ class AbsenceRequestServiceTest {
     void deleteAbsenceRequest_ApprovedRequest_ThrowsAccessDeniedException() {
         // Arrange
         testRequest.setStatus(AbsenceStatus.APPROVED);
-        when(absenceRequestRepository.findById(testRequest.getId())).thenReturn(Optional.of(testRequest));
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
+        when(absenceRequestRepository.findForApprovalById(testRequest.getId())).thenReturn(Optional.of(testRequest));
 
         // Act & Assert
         assertThrows(AccessDeniedException.class,
-                () -> absenceRequestService.deleteAbsenceRequest(testRequest.getId(), employeeUser.getId()));
+                () -> absenceRequestService.deleteAbsenceRequest(testRequest.getId(), employeePrincipal));
     }
 
     @Test
     void getPendingAbsenceRequests_AsManager_ReturnsPendingRequests() {
         // Arrange
         List<AbsenceRequest> pendingRequests = Arrays.asList(testRequest);
-        when(userRepository.findById(managerUser.getId())).thenReturn(Optional.of(managerUser));
-        when(absenceRequestRepository.findByStatus(AbsenceStatus.PENDING)).thenReturn(pendingRequests);
-        when(employeeProfileRepository.findByUserId(employeeUser.getId())).thenReturn(Optional.of(employeeProfile));
+        AbsenceRequestFilter filter = new AbsenceRequestFilter();
+        when(absenceRequestRepository.findPage(any(), eq(51))).thenReturn(pendingRequests);
+        when(profileDirectoryCache.getAll(anyCollection())).thenReturn(Map.of(employeeUser.getId(), employeeName));
 
         // Act
-        List<AbsenceRequestDto> result = absenceRequestService.getPendingAbsenceRequests(managerUser.getId());
+        CursorPage<AbsenceRequestDto> result = absenceRequestService.getPendingAbsenceRequests(
+                filter, null, 50, managerPrincipal);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(AbsenceStatus.PENDING, result.get(0).getStatus());
+        assertEquals(1, result.getItems().size());
+        assertEquals(AbsenceStatus.PENDING, result.getItems().get(0).getStatus());
+        assertEquals(AbsenceStatus.PENDING, filter.getStatus());
+    }
+
+    @Test
+    void getAbsenceRequest_ManagerOutsideEmployeesOrg_ThrowsAccessDeniedException() {
+        // Arrange
+        when(absenceRequestRepository.findById(testRequest.getId())).thenReturn(Optional.of(testRequest));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> absenceRequestService.getAbsenceRequest(testRequest.getId(), managerPrincipal));
+    }
+
+    @Test
+    void getAbsenceRequest_OwnRequest_SkipsOrgLookup() {
+        // Arrange
+        when(absenceRequestRepository.findById(testRequest.getId())).thenReturn(Optional.of(testRequest));
+        when(profileDirectoryCache.getAll(anyCollection())).thenReturn(Map.of(employeeUser.getId(), employeeName));
+
+        // Act
+        AbsenceRequestDto result = absenceRequestService.getAbsenceRequest(testRequest.getId(), employeePrincipal);
+
+        // Assert
+        assertEquals(testRequest.getId(), result.getId());
+        verifyNoInteractions(orgClosureRepository);
     }
-}
\ No newline at end of file
+}
@@ -2,23 +2,38 @@ package com.hrapp.service;
 
 import com.hrapp.dto.AuthResponse;
 import com.hrapp.dto.LoginRequest;
+import com.hrapp.dto.RefreshTokenRequest;
 import com.hrapp.exception.InvalidCredentialsException;
+import com.hrapp.exception.InvalidTokenException;
+import com.hrapp.exception.LoginCapacityExceededException;
+import com.hrapp.exception.TooManyLoginAttemptsException;
 import com.hrapp.exception.UserNotFoundException;
 import com.hrapp.model.User;
 import com.hrapp.model.UserRole;
 import com.hrapp.repository.UserRepository;
 import com.hrapp.security.JwtUtil;
+import com.hrapp.security.LoginRateLimiter;
+import com.hrapp.security.PasswordHashingExecutor;
+import com.hrapp.security.TokenRevocationRegistry;
+import com.hrapp.security.TokenType;
+import com.hrapp.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -41,12 +56,29 @@ class AuthServiceTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    @Spy
+    private PasswordHashingExecutor passwordHashingExecutor = new PasswordHashingExecutor(1, 1, 5000);
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private AuthService authService;
 
     private User testUser;
     private LoginRequest loginRequest;
 
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
     @BeforeEach
     void setUp() {
         testUser = new User("test@example.com", "hashedPassword", UserRole.EMPLOYEE);
@@ -63,22 +95,25 @@ class AuthServiceTest {
                 .thenReturn(authentication);
         when(userRepository.findByEmail("test@example.com"))
                 .thenReturn(Optional.of(testUser));
-        when(jwtUtil.generateToken(testUser.getId(), testUser.getEmail()))
+        when(jwtUtil.generateToken(testUser.getId(), testUser.getEmail(), testUser.getRole()))
                 .thenReturn(expectedToken);
+        when(jwtUtil.generateRefreshToken(testUser.getId())).thenReturn("refresh-token");
 
         // Act
-        AuthResponse response = authService.login(loginRequest);
+        AuthResponse response = authService.login(loginRequest, "10.0.0.1");
 
         // Assert
         assertNotNull(response);
         assertEquals(expectedToken, response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
         assertEquals(testUser.getId(), response.getUserId());
         assertEquals(testUser.getEmail(), response.getEmail());
         assertEquals(testUser.getRole(), response.getRole());
         
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userRepository).findByEmail("test@example.com");
-        verify(jwtUtil).generateToken(testUser.getId(), testUser.getEmail());
+        verify(jwtUtil).generateToken(testUser.getId(), testUser.getEmail(), testUser.getRole());
+        assertEquals(1, meterRegistry.get("hr.auth.login").tag("outcome", "success").timer().count());
     }
 
     @Test
@@ -89,11 +124,12 @@ class AuthServiceTest {
 
         // Act & Assert
         InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class, 
-                () -> authService.login(loginRequest));
+                () -> authService.login(loginRequest, "10.0.0.1"));
         assertEquals("Invalid email or password", exception.getMessage());
         
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verifyNoInteractions(userRepository, jwtUtil);
+        assertEquals(1, meterRegistry.get("hr.auth.login").tag("outcome", "invalid_credentials").timer().count());
     }
 
     @Test
@@ -106,11 +142,101 @@ class AuthServiceTest {
 
         // Act & Assert
         UserNotFoundException exception = assertThrows(UserNotFoundException.class, 
-                () -> authService.login(loginRequest));
+                () -> authService.login(loginRequest, "10.0.0.1"));
         assertTrue(exception.getMessage().contains("User not found with email:"));
         
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userRepository).findByEmail("test@example.com");
         verifyNoInteractions(jwtUtil);
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_HashingPoolSaturated_RejectsWithoutAuthenticating() {
+        // Arrange
+        doThrow(new LoginCapacityExceededException("Too many concurrent logins, please retry shortly"))
+                .when(passwordHashingExecutor).execute(any());
+
+        // Act & Assert
+        assertThrows(LoginCapacityExceededException.class, () -> authService.login(loginRequest, "10.0.0.1"));
+        verifyNoInteractions(authenticationManager, jwtUtil);
+        assertEquals(1, meterRegistry.get("hr.auth.login").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void login_EmailOverLimit_ThrowsBeforeAnyPasswordWork() {
+        // Arrange
+        when(loginRateLimiter.tryAcquire("ip:10.0.0.1", 30)).thenReturn(0L);
+        when(loginRateLimiter.tryAcquire("email:test@example.com", 5)).thenReturn(42L);
+
+        // Act & Assert
+        TooManyLoginAttemptsException exception = assertThrows(TooManyLoginAttemptsException.class,
+                () -> authService.login(new LoginRequest(" Test@Example.com", "password"), "10.0.0.1"));
+        assertEquals(42, exception.getRetryAfterSeconds());
+        verifyNoInteractions(authenticationManager, passwordHashingExecutor);
+        assertEquals(1, meterRegistry.get("hr.auth.login").tag("outcome", "throttled").timer().count());
+    }
+
+    @Test
+    void refresh_ValidRefreshToken_RotatesWithoutPasswordCheck() {
+        // Arrange
+        VerifiedToken refreshToken = token(TokenType.REFRESH);
+        when(jwtUtil.tryParseToken("old-refresh")).thenReturn(Optional.of(refreshToken));
+        when(tokenRevocationRegistry.revokeToken(refreshToken)).thenReturn(true);
+        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
+        when(jwtUtil.generateToken(testUser.getId(), testUser.getEmail(), testUser.getRole())).thenReturn("new-access");
+        when(jwtUtil.generateRefreshToken(testUser.getId())).thenReturn("new-refresh");
+
+        // Act
+        AuthResponse response = authService.refresh(new RefreshTokenRequest("old-refresh"));
+
+        // Assert
+        assertEquals("new-access", response.getToken());
+        assertEquals("new-refresh", response.getRefreshToken());
+        verify(tokenRevocationRegistry).revokeToken(refreshToken);
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    void refresh_AlreadyUsedRefreshToken_ThrowsException() {
+        // Arrange
+        VerifiedToken refreshToken = token(TokenType.REFRESH);
+        when(jwtUtil.tryParseToken("old-refresh")).thenReturn(Optional.of(refreshToken));
+        when(tokenRevocationRegistry.revokeToken(refreshToken)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> authService.refresh(new RefreshTokenRequest("old-refresh")));
+        verify(jwtUtil, never()).generateRefreshToken(any());
+        assertEquals(1, meterRegistry.get("hr.auth.refresh").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void refresh_AccessTokenPresented_ThrowsException() {
+        // Arrange
+        when(jwtUtil.tryParseToken("access")).thenReturn(Optional.of(token(TokenType.ACCESS)));
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> authService.refresh(new RefreshTokenRequest("access")));
+        verify(tokenRevocationRegistry, never()).revokeToken(any());
+    }
+
+    @Test
+    void logout_RevokesAccessAndRefreshTokens() {
+        // Arrange
+        VerifiedToken accessToken = token(TokenType.ACCESS);
+        VerifiedToken refreshToken = token(TokenType.REFRESH);
+        when(jwtUtil.tryParseToken("refresh")).thenReturn(Optional.of(refreshToken));
+
+        // Act
+        authService.logout(accessToken, "refresh");
+
+        // Assert
+        verify(tokenRevocationRegistry).revokeToken(accessToken);
+        verify(tokenRevocationRegistry).revokeToken(refreshToken);
+    }
+
+    private VerifiedToken token(TokenType type) {
+        Instant now = Instant.now();
+        return new VerifiedToken(UUID.randomUUID(), type, testUser.getId(), testUser.getEmail(),
+                type == TokenType.ACCESS ? testUser.getRole() : null, now, now.plus(1, ChronoUnit.HOURS));
+    }
+}
@@ -0,0 +1,76 @@
+package com.hrapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final CircuitBreaker breaker = new CircuitBreaker(3, 10_000, now::get);
+
+    @Test
+    void recordFailure_OpensAfterThresholdConsecutiveFailures() {
+        // Act
+        breaker.recordFailure();
+        breaker.recordFailure();
+        boolean allowedBeforeThreshold = breaker.tryAcquire();
+        breaker.recordFailure();
+
+        // Assert
+        assertTrue(allowedBeforeThreshold);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(10_000, breaker.millisUntilRetry());
+    }
+
+    @Test
+    void recordSuccess_ResetsConsecutiveFailures() {
+        // Act
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void tryAcquire_AfterOpenPeriod_LetsOneTrialThrough() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        now.addAndGet(10_000);
+
+        // Act
+        boolean trial = breaker.tryAcquire();
+        boolean second = breaker.tryAcquire();
+
+        // Assert
+        assertTrue(trial);
+        assertFalse(second);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void recordFailure_DuringTrial_ReopensImmediately() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        now.addAndGet(10_000);
+        breaker.tryAcquire();
+
+        // Act
+        breaker.recordFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+}
@@ -1,19 +1,29 @@
 package com.hrapp.service;
 
+import com.hrapp.dto.CursorPage;
 import com.hrapp.dto.ProfileBasicDto;
 import com.hrapp.dto.ProfileDetailDto;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.dto.ProfileDirectorySort;
+import com.hrapp.exception.InvalidManagerAssignmentException;
 import com.hrapp.model.EmployeeProfile;
 import com.hrapp.model.User;
 import com.hrapp.model.UserRole;
 import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.repository.OrgClosureRepository;
 import com.hrapp.repository.UserRepository;
+import com.hrapp.security.HrPrincipal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
 import java.util.List;
@@ -32,11 +42,25 @@ class EmployeeProfileServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ProfileDirectoryCache profileDirectoryCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OrgClosureRepository orgClosureRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private EmployeeProfileService employeeProfileService;
 
     private User managerUser;
     private User employeeUser;
+    private HrPrincipal managerPrincipal;
+    private HrPrincipal employeePrincipal;
     private EmployeeProfile testProfile;
 
     @BeforeEach
@@ -47,6 +71,9 @@ class EmployeeProfileServiceTest {
         employeeUser = new User("employee@test.com", "hash", UserRole.EMPLOYEE);
         employeeUser.setId(UUID.randomUUID());
 
+        managerPrincipal = new HrPrincipal(managerUser.getId(), managerUser.getEmail(), UserRole.MANAGER);
+        employeePrincipal = new HrPrincipal(employeeUser.getId(), employeeUser.getEmail(), UserRole.EMPLOYEE);
+
         testProfile = new EmployeeProfile(employeeUser, "EMP001", "John", "Doe");
         testProfile.setId(UUID.randomUUID());
         testProfile.setDepartment("Engineering");
@@ -55,35 +82,61 @@ class EmployeeProfileServiceTest {
     }
 
     @Test
-    void getAllBasicProfiles_ReturnsAllProfiles() {
+    void getBasicProfileDirectory_ReturnsProjectedPage() {
         // Arrange
-        List<EmployeeProfile> profiles = Arrays.asList(testProfile);
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
-        when(employeeProfileRepository.findAll()).thenReturn(profiles);
+        ProfileBasicDto row = new ProfileBasicDto(testProfile.getId(), employeeUser.getId(), "EMP001", "John", "Doe",
+                "Engineering", "Developer", managerUser.getId(), "Alice", "Manager");
+        when(employeeProfileRepository.findDirectoryByLastName(PageRequest.of(0, 51))).thenReturn(List.of(row));
 
         // Act
-        List<ProfileBasicDto> result = employeeProfileService.getAllBasicProfiles(employeeUser.getId());
+        CursorPage<ProfileBasicDto> result = employeeProfileService.getBasicProfileDirectory(
+                ProfileDirectorySort.LAST_NAME, null, 50);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        ProfileBasicDto dto = result.get(0);
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+        ProfileBasicDto dto = result.getItems().get(0);
         assertEquals("John", dto.getFirstName());
         assertEquals("Doe", dto.getLastName());
         assertEquals("EMP001", dto.getEmployeeId());
         assertEquals("Engineering", dto.getDepartment());
         assertEquals("Developer", dto.getPosition());
+        assertEquals("Alice Manager", dto.getManagerName());
+        verify(employeeProfileRepository, never()).findAll();
     }
 
     @Test
-    void getAllDetailProfiles_AsManager_ReturnsAllDetailedProfiles() {
+    void getBasicProfileDirectory_ByDepartmentWithCursor_ContinuesAfterCursor() {
+        // Arrange
+        UUID lastSeenId = UUID.randomUUID();
+        String cursor = CursorCodec.encode("Engineering", "Adams", lastSeenId.toString());
+        ProfileBasicDto first = new ProfileBasicDto(UUID.randomUUID(), UUID.randomUUID(), "EMP002", "Jane", "Smith",
+                "Engineering", "Developer", null, null, null);
+        ProfileBasicDto second = new ProfileBasicDto(UUID.randomUUID(), UUID.randomUUID(), "EMP003", "Bob", "Young",
+                null, "Analyst", null, null, null);
+        when(employeeProfileRepository.findDirectoryByDepartmentAfter("Engineering", "Adams", lastSeenId, PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+
+        // Act
+        CursorPage<ProfileBasicDto> result = employeeProfileService.getBasicProfileDirectory(
+                ProfileDirectorySort.DEPARTMENT, cursor, 1);
+
+        // Assert
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getItems().get(0).getManagerName());
+        assertArrayEquals(new String[] {"Engineering", "Smith", first.getId().toString()},
+                CursorCodec.decode(result.getNextCursor(), 3));
+    }
+
+    @Test
+    void getAllDetailProfiles_AsManager_ReturnsProfilesInOrg() {
         // Arrange
         List<EmployeeProfile> profiles = Arrays.asList(testProfile);
-        when(userRepository.findById(managerUser.getId())).thenReturn(Optional.of(managerUser));
-        when(employeeProfileRepository.findAll()).thenReturn(profiles);
+        when(employeeProfileRepository.findListInOrgOf(managerUser.getId())).thenReturn(profiles);
 
         // Act
-        List<ProfileDetailDto> result = employeeProfileService.getAllDetailProfiles(managerUser.getId());
+        List<ProfileDetailDto> result = employeeProfileService.getAllDetailProfiles(managerPrincipal);
 
         // Assert
         assertNotNull(result);
@@ -95,22 +148,18 @@ class EmployeeProfileServiceTest {
 
     @Test
     void getAllDetailProfiles_AsEmployee_ThrowsAccessDeniedException() {
-        // Arrange
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
-
         // Act & Assert
         assertThrows(AccessDeniedException.class, 
-                () -> employeeProfileService.getAllDetailProfiles(employeeUser.getId()));
+                () -> employeeProfileService.getAllDetailProfiles(employeePrincipal));
     }
 
     @Test
     void getBasicProfile_ValidAccess_ReturnsBasicProfile() {
         // Arrange
         when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
 
         // Act
-        ProfileBasicDto result = employeeProfileService.getBasicProfile(testProfile.getId(), employeeUser.getId());
+        ProfileBasicDto result = employeeProfileService.getBasicProfile(testProfile.getId(), employeePrincipal);
 
         // Assert
         assertNotNull(result);
@@ -123,10 +172,9 @@ class EmployeeProfileServiceTest {
     void getDetailProfile_AsOwner_ReturnsDetailedProfile() {
         // Arrange
         when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
 
         // Act
-        ProfileDetailDto result = employeeProfileService.getDetailProfile(testProfile.getId(), employeeUser.getId());
+        ProfileDetailDto result = employeeProfileService.getDetailProfile(testProfile.getId(), employeePrincipal);
 
         // Assert
         assertNotNull(result);
@@ -138,10 +186,10 @@ class EmployeeProfileServiceTest {
     void getDetailProfile_AsManager_ReturnsDetailedProfile() {
         // Arrange
         when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
-        when(userRepository.findById(managerUser.getId())).thenReturn(Optional.of(managerUser));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(true);
 
         // Act
-        ProfileDetailDto result = employeeProfileService.getDetailProfile(testProfile.getId(), managerUser.getId());
+        ProfileDetailDto result = employeeProfileService.getDetailProfile(testProfile.getId(), managerPrincipal);
 
         // Assert
         assertNotNull(result);
@@ -149,13 +197,41 @@ class EmployeeProfileServiceTest {
         assertEquals("123-456-7890", result.getPhone());
     }
 
+    @Test
+    void getDetailProfile_AsManagerOutsideOrg_ThrowsAccessDeniedException() {
+        // Arrange
+        when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> employeeProfileService.getDetailProfile(testProfile.getId(), managerPrincipal));
+    }
+
+    @Test
+    void getDetailProfile_WithManager_ResolvesManagerNameFromCache() {
+        // Arrange
+        testProfile.setManager(managerUser);
+        when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
+        when(profileDirectoryCache.get(managerUser.getId())).thenReturn(Optional.of(
+                new ProfileDirectoryEntry(managerUser.getId(), "Alice", "Manager", "Engineering", null)));
+
+        // Act
+        ProfileDetailDto result = employeeProfileService.getDetailProfile(testProfile.getId(), employeePrincipal);
+
+        // Assert
+        assertEquals(managerUser.getId(), result.getManagerId());
+        assertEquals("Alice Manager", result.getManagerName());
+        verify(employeeProfileRepository, never()).findByUserId(managerUser.getId());
+    }
+
     @Test
     void getMyProfile_ReturnsOwnProfile() {
         // Arrange
         when(employeeProfileRepository.findByUserId(employeeUser.getId())).thenReturn(Optional.of(testProfile));
 
         // Act
-        ProfileDetailDto result = employeeProfileService.getMyProfile(employeeUser.getId());
+        ProfileDetailDto result = employeeProfileService.getMyProfile(employeePrincipal);
 
         // Assert
         assertNotNull(result);
@@ -173,19 +249,83 @@ class EmployeeProfileServiceTest {
         updateDto.setPosition("Manager");
 
         when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
-        when(userRepository.findById(employeeUser.getId())).thenReturn(Optional.of(employeeUser));
+        runTransactionsInline();
         when(employeeProfileRepository.save(any(EmployeeProfile.class))).thenReturn(testProfile);
 
         // Act
-        ProfileDetailDto result = employeeProfileService.updateProfile(testProfile.getId(), updateDto, employeeUser.getId());
+        ProfileDetailDto result = employeeProfileService.updateProfile(testProfile.getId(), updateDto, employeePrincipal);
 
         // Assert
         assertNotNull(result);
         verify(employeeProfileRepository).save(testProfile);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ProfileUpdatedEvent
+                && ((ProfileUpdatedEvent) event).getUserId().equals(employeeUser.getId())));
         assertEquals("Jane", testProfile.getFirstName());
         assertEquals("Smith", testProfile.getLastName());
     }
 
+    @Test
+    void updateProfile_ManagerReassignsReport_PublishesManagerChangedEvent() {
+        // Arrange
+        User newManager = new User("lead@test.com", "hash", UserRole.MANAGER);
+        newManager.setId(UUID.randomUUID());
+        testProfile.setManager(managerUser);
+        ProfileDetailDto updateDto = new ProfileDetailDto();
+        updateDto.setFirstName("John");
+        updateDto.setLastName("Doe");
+        updateDto.setManagerId(newManager.getId());
+
+        when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(true);
+        when(orgClosureRepository.isInOrgOf(newManager.getId(), employeeUser.getId())).thenReturn(false);
+        when(userRepository.findById(newManager.getId())).thenReturn(Optional.of(newManager));
+        when(employeeProfileRepository.save(testProfile)).thenReturn(testProfile);
+        runTransactionsInline();
+
+        // Act
+        employeeProfileService.updateProfile(testProfile.getId(), updateDto, managerPrincipal);
+
+        // Assert
+        assertEquals(newManager, testProfile.getManager());
+        verify(orgClosureRepository).lockForReassignment();
+        verify(orgClosureRepository).detachSubtree(employeeUser.getId());
+        verify(orgClosureRepository).attachSubtree(employeeUser.getId(), newManager.getId());
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof ManagerChangedEvent
+                && ((ManagerChangedEvent) event).getPreviousManagerId().equals(managerUser.getId())
+                && ((ManagerChangedEvent) event).getManagerId().equals(newManager.getId())));
+    }
+
+    @Test
+    void updateProfile_ManagerWouldReportToOwnReport_ThrowsInvalidManagerAssignmentException() {
+        // Arrange
+        UUID reportId = UUID.randomUUID();
+        ProfileDetailDto updateDto = new ProfileDetailDto();
+        updateDto.setManagerId(reportId);
+        when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(true);
+        when(orgClosureRepository.isInOrgOf(reportId, employeeUser.getId())).thenReturn(true);
+        runTransactionsInline();
+
+        // Act & Assert
+        assertThrows(InvalidManagerAssignmentException.class,
+                () -> employeeProfileService.updateProfile(testProfile.getId(), updateDto, managerPrincipal));
+        verify(employeeProfileRepository, never()).save(any(EmployeeProfile.class));
+        verify(orgClosureRepository, never()).detachSubtree(any());
+    }
+
+    @Test
+    void updateProfile_EmployeeChangesOwnManager_ThrowsAccessDeniedException() {
+        // Arrange
+        ProfileDetailDto updateDto = new ProfileDetailDto();
+        updateDto.setManagerId(UUID.randomUUID());
+        when(employeeProfileRepository.findById(testProfile.getId())).thenReturn(Optional.of(testProfile));
+        runTransactionsInline();
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> employeeProfileService.updateProfile(testProfile.getId(), updateDto, employeePrincipal));
+    }
+
     @Test
     void getBasicProfile_ProfileNotFound_ThrowsException() {
         // Arrange
@@ -194,6 +334,12 @@ class EmployeeProfileServiceTest {
 
         // Act & Assert
         assertThrows(RuntimeException.class, 
-                () -> employeeProfileService.getBasicProfile(nonExistentId, employeeUser.getId()));
+                () -> employeeProfileService.getBasicProfile(nonExistentId, employeePrincipal));
+    }
+
+    // Runs the TransactionTemplate callback directly, as a real template would inside its transaction
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
-}
\ No newline at end of file
+}
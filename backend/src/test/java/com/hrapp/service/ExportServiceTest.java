@@ -0,0 +1,58 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.AbsenceRequestFilter;
+import com.hrapp.dto.ExportFormat;
+import com.hrapp.exception.ExportCapacityExceededException;
+import com.hrapp.model.UserRole;
+import com.hrapp.security.HrPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportServiceTest {
+
+    private ExportService exportService;
+    private boolean outputOpened;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ExportService();
+        ReflectionTestUtils.setField(exportService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(exportService, "permits", new Semaphore(0));
+    }
+
+    @Test
+    void exportAbsenceRequests_AsEmployee_ThrowsAccessDeniedException() {
+        // Arrange
+        HrPrincipal employee = new HrPrincipal(UUID.randomUUID(), "employee@test.com", UserRole.EMPLOYEE);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> exportService.exportAbsenceRequests(
+                new AbsenceRequestFilter(), ExportFormat.CSV, employee, this::open));
+        assertFalse(outputOpened);
+    }
+
+    @Test
+    void exportProfiles_NoPermitLeft_ThrowsExportCapacityExceededException() {
+        // Arrange
+        HrPrincipal manager = new HrPrincipal(UUID.randomUUID(), "manager@test.com", UserRole.MANAGER);
+
+        // Act & Assert
+        assertThrows(ExportCapacityExceededException.class,
+                () -> exportService.exportProfiles(ExportFormat.NDJSON, manager, this::open));
+        assertFalse(outputOpened);
+    }
+
+    private OutputStream open() {
+        outputOpened = true;
+        return OutputStream.nullOutputStream();
+    }
+}
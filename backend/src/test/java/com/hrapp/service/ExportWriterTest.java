@@ -0,0 +1,86 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ExportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExportWriterTest {
+
+    private static final List<String> COLUMNS = List.of("id", "reason", "comments");
+
+    @Test
+    void csv_QuotesFieldsWithSeparatorsQuotesAndLineBreaks() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create(ExportFormat.CSV, output, COLUMNS);
+
+        // Act
+        writer.writeRow(Arrays.asList("1", "Vacation, abroad", null));
+        writer.writeRow(Arrays.asList("2", "Said \"hi\"", "line one\nline two"));
+        writer.finish();
+
+        // Assert
+        assertEquals("id,reason,comments\r\n"
+                        + "1,\"Vacation, abroad\",\r\n"
+                        + "2,\"Said \"\"hi\"\"\",\"line one\nline two\"\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void csv_PrefixesCellsASpreadsheetWouldEvaluate() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create(ExportFormat.CSV, output, COLUMNS);
+
+        // Act
+        writer.writeRow(Arrays.asList("1", "=HYPERLINK(\"http://x\",\"y\")", "+1 555 0100"));
+        writer.writeRow(Arrays.asList("2", "-2+3", "@SUM(A1)"));
+        writer.writeRow(Arrays.asList("3", "\tcmd", "\rline"));
+        writer.writeRow(Arrays.asList("4", "a=b", ""));
+        writer.finish();
+
+        // Assert
+        assertEquals("id,reason,comments\r\n"
+                        + "1,\"'=HYPERLINK(\"\"http://x\"\",\"\"y\"\")\",'+1 555 0100\r\n"
+                        + "2,'-2+3,'@SUM(A1)\r\n"
+                        + "3,'\tcmd,\"'\rline\"\r\n"
+                        + "4,a=b,\r\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjson_WritesOneObjectPerLine() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExportWriter writer = ExportWriter.create(ExportFormat.NDJSON, output, COLUMNS);
+
+        // Act
+        writer.writeRow(Arrays.asList("1", "Café \"trip\"", null));
+        writer.writeRow(Arrays.asList("2", "line one\nline two", "ok"));
+        writer.finish();
+
+        // Assert
+        assertEquals("{\"id\":\"1\",\"reason\":\"Café \\\"trip\\\"\",\"comments\":null}\n"
+                        + "{\"id\":\"2\",\"reason\":\"line one\\nline two\",\"comments\":\"ok\"}\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void finish_WithoutRows_WritesOnlyTheCsvHeader() throws IOException {
+        // Arrange
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        ExportWriter.create(ExportFormat.CSV, output, COLUMNS).finish();
+
+        // Assert
+        assertEquals("id,reason,comments\r\n", output.toString(StandardCharsets.UTF_8));
+    }
+}
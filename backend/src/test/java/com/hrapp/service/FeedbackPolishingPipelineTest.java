@@ -0,0 +1,187 @@
+package com.hrapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedbackPolishingPipelineTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PolishedFeedbackCache cache;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private FeedbackPolishingPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new FeedbackPolishingPipeline();
+        ReflectionTestUtils.setField(pipeline, "cache", cache);
+        ReflectionTestUtils.setField(pipeline, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(pipeline, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(pipeline, "batchSize", 8);
+        ReflectionTestUtils.setField(pipeline, "batchLingerMillis", 200L);
+        ReflectionTestUtils.setField(pipeline, "breakerFailureThreshold", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.stop();
+    }
+
+    @Test
+    void submit_PolishesInOneBatchAndWritesOneBatchUpdate() {
+        // Arrange
+        LocalFeedbackPolisher local = new LocalFeedbackPolisher(0);
+        ReflectionTestUtils.setField(pipeline, "polisher", (FeedbackPolisher) texts -> {
+            batchSizes.add(texts.size());
+            return local.polish(texts);
+        });
+        pipeline.start();
+        UUID first = UUID.randomUUID();
+
+        // Act
+        boolean queued = pipeline.submit(first, "great teammate");
+        pipeline.submit(UUID.randomUUID(), "very helpful");
+        pipeline.submit(UUID.randomUUID(), "thx for ur help");
+
+        // Assert
+        assertTrue(queued);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, timeout(5000)).batchUpdate(anyString(), updates.capture());
+        assertEquals(List.of(3), batchSizes);
+        assertEquals(3, updates.getValue().size());
+        assertArrayEquals(new Object[] { "Great teammate.", first }, updates.getValue().get(0));
+    }
+
+    @Test
+    void submit_CachedText_SkipsPolisher() {
+        // Arrange
+        String key = PolishedFeedbackCache.key("local-1", "great teammate");
+        when(cache.getAll(anyList())).thenAnswer(invocation -> Map.of(key, "Great teammate."));
+        LocalFeedbackPolisher local = new LocalFeedbackPolisher(0);
+        ReflectionTestUtils.setField(pipeline, "polisher", (FeedbackPolisher) new FeedbackPolisher() {
+            @Override
+            public List<String> polish(List<String> texts) {
+                batchSizes.add(texts.size());
+                return local.polish(texts);
+            }
+
+            @Override
+            public String version() {
+                return "local-1";
+            }
+        });
+        pipeline.start();
+        UUID cached = UUID.randomUUID();
+        UUID fresh = UUID.randomUUID();
+
+        // Act
+        pipeline.submit(cached, "Great teammate!");
+        pipeline.submit(fresh, "very helpful");
+        pipeline.submit(UUID.randomUUID(), "Very  helpful");
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, timeout(5000).times(2)).batchUpdate(anyString(), updates.capture());
+        assertArrayEquals(new Object[] { "Great teammate.", cached }, updates.getAllValues().get(0).get(0));
+        assertEquals(2, updates.getAllValues().get(1).size());
+        assertArrayEquals(new Object[] { "Very helpful.", fresh }, updates.getAllValues().get(1).get(0));
+        // The two spellings of "very helpful" share a key, so the polisher sees it once
+        assertEquals(List.of(1), batchSizes);
+        verify(cache).putAll(Map.of(PolishedFeedbackCache.key("local-1", "very helpful"), "Very helpful."));
+    }
+
+    @Test
+    void submit_SameFeedbackTwice_QueuesItOnce() {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        ReflectionTestUtils.setField(pipeline, "polisher", (FeedbackPolisher) texts -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return texts;
+        });
+        pipeline.start();
+        UUID feedbackId = UUID.randomUUID();
+
+        // Act
+        boolean first = pipeline.submit(feedbackId, "great teammate");
+        boolean second = pipeline.submit(feedbackId, "great teammate");
+        release.countDown();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+    }
+
+    @Test
+    void submit_PolisherTimesOut_OpensBreakerWithoutWriting() throws InterruptedException {
+        // Arrange
+        ReflectionTestUtils.setField(pipeline, "timeoutMillis", 50L);
+        ReflectionTestUtils.setField(pipeline, "polisher", (FeedbackPolisher) texts -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return texts;
+        });
+        pipeline.start();
+
+        // Act
+        pipeline.submit(UUID.randomUUID(), "great teammate");
+        for (int i = 0; i < 100
+                && meterRegistry.get("hr.feedback.polishing.jobs").tag("result", "timeout").counter().count() == 0; i++) {
+            Thread.sleep(50);
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, pipeline.getCircuitBreaker().getState());
+        assertEquals(1.0, meterRegistry.get("hr.feedback.polishing.jobs").tag("result", "timeout").counter().count());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void submit_Disabled_DoesNotQueue() {
+        // Arrange
+        ReflectionTestUtils.setField(pipeline, "enabled", false);
+        ReflectionTestUtils.setField(pipeline, "polisher", (FeedbackPolisher) texts -> texts);
+        pipeline.start();
+
+        // Act
+        boolean queued = pipeline.submit(UUID.randomUUID(), "great teammate");
+
+        // Assert
+        assertFalse(queued);
+        assertEquals(0, pipeline.queued());
+    }
+}
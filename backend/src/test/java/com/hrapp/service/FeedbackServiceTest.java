@@ -0,0 +1,218 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.CreateFeedbackDto;
+import com.hrapp.dto.CursorPage;
+import com.hrapp.dto.FeedbackDto;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.exception.FeedbackNotFoundException;
+import com.hrapp.exception.InvalidCursorException;
+import com.hrapp.model.EmployeeProfile;
+import com.hrapp.model.Feedback;
+import com.hrapp.model.User;
+import com.hrapp.model.UserRole;
+import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.repository.FeedbackRepository;
+import com.hrapp.repository.OrgClosureRepository;
+import com.hrapp.repository.UserRepository;
+import com.hrapp.security.HrPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FeedbackServiceTest {
+
+    @Mock
+    private FeedbackRepository feedbackRepository;
+
+    @Mock
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrgClosureRepository orgClosureRepository;
+
+    @Mock
+    private ProfileDirectoryCache profileDirectoryCache;
+
+    @Mock
+    private FeedbackPolishingPipeline polishingPipeline;
+
+    @InjectMocks
+    private FeedbackService feedbackService;
+
+    private User managerUser;
+    private User employeeUser;
+    private User coworkerUser;
+    private HrPrincipal managerPrincipal;
+    private HrPrincipal employeePrincipal;
+    private HrPrincipal coworkerPrincipal;
+    private EmployeeProfile employeeProfile;
+    private Feedback feedback;
+
+    @BeforeEach
+    void setUp() {
+        managerUser = new User("manager@test.com", "hash", UserRole.MANAGER);
+        managerUser.setId(UUID.randomUUID());
+        employeeUser = new User("employee@test.com", "hash", UserRole.EMPLOYEE);
+        employeeUser.setId(UUID.randomUUID());
+        coworkerUser = new User("coworker@test.com", "hash", UserRole.EMPLOYEE);
+        coworkerUser.setId(UUID.randomUUID());
+
+        managerPrincipal = new HrPrincipal(managerUser.getId(), managerUser.getEmail(), UserRole.MANAGER);
+        employeePrincipal = new HrPrincipal(employeeUser.getId(), employeeUser.getEmail(), UserRole.EMPLOYEE);
+        coworkerPrincipal = new HrPrincipal(coworkerUser.getId(), coworkerUser.getEmail(), UserRole.EMPLOYEE);
+
+        employeeProfile = new EmployeeProfile(employeeUser, "EMP001", "John", "Doe");
+        employeeProfile.setId(UUID.randomUUID());
+
+        feedback = new Feedback(employeeProfile, coworkerUser, "great teammate");
+        feedback.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void submitFeedback_SavesAndQueuesForPolishing() {
+        // Arrange
+        CreateFeedbackDto dto = new CreateFeedbackDto();
+        dto.setFeedbackText("  great teammate ");
+        when(employeeProfileRepository.findById(employeeProfile.getId())).thenReturn(Optional.of(employeeProfile));
+        when(userRepository.getReferenceById(coworkerUser.getId())).thenReturn(coworkerUser);
+        when(feedbackRepository.save(any(Feedback.class))).thenReturn(feedback);
+        when(profileDirectoryCache.get(coworkerUser.getId())).thenReturn(Optional.of(
+                new ProfileDirectoryEntry(coworkerUser.getId(), "Jane", "Smith", "Engineering", null)));
+
+        // Act
+        FeedbackDto result = feedbackService.submitFeedback(employeeProfile.getId(), dto, coworkerPrincipal);
+
+        // Assert
+        assertEquals(feedback.getId(), result.getId());
+        assertEquals("Jane Smith", result.getFeedbackByName());
+        assertNull(result.getPolishedFeedback());
+        verify(feedbackRepository).save(argThat(saved -> saved.getFeedbackText().equals("great teammate")));
+        verify(polishingPipeline).submit(feedback.getId(), "great teammate");
+    }
+
+    @Test
+    void submitFeedback_OnOwnProfile_ThrowsAccessDeniedException() {
+        // Arrange
+        CreateFeedbackDto dto = new CreateFeedbackDto();
+        dto.setFeedbackText("I am great");
+        when(employeeProfileRepository.findById(employeeProfile.getId())).thenReturn(Optional.of(employeeProfile));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> feedbackService.submitFeedback(employeeProfile.getId(), dto, employeePrincipal));
+        verify(feedbackRepository, never()).save(any(Feedback.class));
+        verifyNoInteractions(polishingPipeline);
+    }
+
+    @Test
+    void getFeedback_AsSubject_ReturnsPolishedText() {
+        // Arrange
+        feedback.setPolishedFeedback("Great teammate.");
+        when(feedbackRepository.findDetailById(feedback.getId())).thenReturn(Optional.of(feedback));
+
+        // Act
+        FeedbackDto result = feedbackService.getFeedback(employeeProfile.getId(), feedback.getId(), employeePrincipal);
+
+        // Assert
+        assertEquals("Great teammate.", result.getPolishedFeedback());
+        verifyNoInteractions(orgClosureRepository);
+    }
+
+    @Test
+    void getFeedback_ManagerOutsideOrg_ThrowsAccessDeniedException() {
+        // Arrange
+        when(feedbackRepository.findDetailById(feedback.getId())).thenReturn(Optional.of(feedback));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> feedbackService.getFeedback(employeeProfile.getId(), feedback.getId(), managerPrincipal));
+    }
+
+    @Test
+    void getFeedback_OnOtherProfile_ThrowsFeedbackNotFoundException() {
+        // Arrange
+        when(feedbackRepository.findDetailById(feedback.getId())).thenReturn(Optional.of(feedback));
+
+        // Act & Assert
+        assertThrows(FeedbackNotFoundException.class,
+                () -> feedbackService.getFeedback(UUID.randomUUID(), feedback.getId(), employeePrincipal));
+    }
+
+    @Test
+    void getFeedbackTimeline_MoreRowsThanLimit_ReturnsPageWithCursor() {
+        // Arrange
+        LocalDateTime newest = LocalDateTime.of(2024, 5, 2, 9, 30);
+        FeedbackDto first = timelineRow(newest);
+        FeedbackDto second = timelineRow(newest.minusDays(1));
+        when(employeeProfileRepository.findById(employeeProfile.getId())).thenReturn(Optional.of(employeeProfile));
+        when(feedbackRepository.findTimeline(employeeProfile.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(first, second));
+
+        // Act
+        CursorPage<FeedbackDto> page = feedbackService.getFeedbackTimeline(employeeProfile.getId(), null, 1, employeePrincipal);
+
+        // Assert
+        assertEquals(List.of(first), page.getItems());
+        assertEquals("Jane Smith", page.getItems().get(0).getFeedbackByName());
+        assertTrue(page.isHasMore());
+
+        // Act
+        when(feedbackRepository.findTimelineBefore(employeeProfile.getId(), newest, first.getId(), PageRequest.of(0, 2)))
+                .thenReturn(List.of(second));
+        CursorPage<FeedbackDto> next = feedbackService.getFeedbackTimeline(
+                employeeProfile.getId(), page.getNextCursor(), 1, employeePrincipal);
+
+        // Assert
+        assertEquals(List.of(second), next.getItems());
+        assertFalse(next.isHasMore());
+        verifyNoInteractions(profileDirectoryCache);
+    }
+
+    @Test
+    void getFeedbackTimeline_AsCoworker_ThrowsAccessDeniedException() {
+        // Arrange
+        when(employeeProfileRepository.findById(employeeProfile.getId())).thenReturn(Optional.of(employeeProfile));
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class,
+                () -> feedbackService.getFeedbackTimeline(employeeProfile.getId(), null, 50, coworkerPrincipal));
+        verifyNoInteractions(feedbackRepository);
+    }
+
+    @Test
+    void getFeedbackTimeline_ManagerInOrgWithBadCursor_ThrowsInvalidCursorException() {
+        // Arrange
+        when(employeeProfileRepository.findById(employeeProfile.getId())).thenReturn(Optional.of(employeeProfile));
+        when(orgClosureRepository.isInOrgOf(employeeUser.getId(), managerUser.getId())).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(InvalidCursorException.class,
+                () -> feedbackService.getFeedbackTimeline(employeeProfile.getId(), "not-a-cursor", 50, managerPrincipal));
+        verify(feedbackRepository, never()).findTimelineBefore(eq(employeeProfile.getId()), any(), any(), any());
+    }
+
+    private FeedbackDto timelineRow(LocalDateTime createdAt) {
+        return new FeedbackDto(UUID.randomUUID(), employeeProfile.getId(), coworkerUser.getId(), "Jane", "Smith",
+                "great teammate", "Great teammate.", createdAt);
+    }
+}
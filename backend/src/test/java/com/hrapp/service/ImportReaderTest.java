@@ -0,0 +1,74 @@
+package com.hrapp.service;
+
+import com.hrapp.exception.InvalidImportFileException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportReaderTest {
+
+    @Test
+    void readRecord_UnquotesFieldsAndCountsLinesInsideQuotes() throws IOException {
+        // Arrange
+        ImportReader reader = reader("\uFEFFemail,address\r\n"
+                + "a@test.com,\"1 \"\"Main\"\" St\nSuite 2\"\r\n"
+                + "\r\n"
+                + "b@test.com,\n");
+
+        // Act & Assert
+        assertEquals(List.of("email", "address"), reader.readRecord());
+        assertEquals(1, reader.getRecordLine());
+        assertEquals(List.of("a@test.com", "1 \"Main\" St\nSuite 2"), reader.readRecord());
+        assertEquals(2, reader.getRecordLine());
+        assertEquals(List.of("b@test.com", ""), reader.readRecord());
+        assertEquals(5, reader.getRecordLine());
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void readRecord_UnterminatedQuote_ThrowsInvalidImportFileException() throws IOException {
+        // Arrange
+        ImportReader reader = reader("email,address\n\"a@test.com,x\n");
+        reader.readRecord();
+
+        // Act & Assert
+        InvalidImportFileException exception = assertThrows(InvalidImportFileException.class, reader::readRecord);
+        assertEquals("Unterminated quoted field starting on line 2", exception.getMessage());
+    }
+
+    @Test
+    void readRecord_FieldOverLimit_ThrowsWithLine() throws IOException {
+        // Arrange
+        ImportReader reader = new ImportReader(stream("email,address\na@test.com,12345\nb@test.com,\"12\n345678901\"\n"), 1000, 10);
+        reader.readRecord();
+        reader.readRecord();
+
+        // Act & Assert
+        InvalidImportFileException exception = assertThrows(InvalidImportFileException.class, reader::readRecord);
+        assertEquals("Field longer than 10 characters on line 4", exception.getMessage());
+    }
+
+    @Test
+    void readRecord_InputOverMaxBytes_ThrowsWithLine() throws IOException {
+        // Arrange: the header is 14 bytes, the é of the next line two more
+        ImportReader reader = new ImportReader(stream("email,address\nb\u00e9@test.com,x\n"), 16, 1000);
+        reader.readRecord();
+
+        // Act & Assert
+        InvalidImportFileException exception = assertThrows(InvalidImportFileException.class, reader::readRecord);
+        assertEquals("The file is larger than 16 bytes at line 2", exception.getMessage());
+    }
+
+    private static ImportReader reader(String csv) {
+        return new ImportReader(stream(csv), Long.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,41 @@
+package com.hrapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalFeedbackPolisherTest {
+
+    private final LocalFeedbackPolisher polisher = new LocalFeedbackPolisher(0);
+
+    @Test
+    void polish_ExpandsShorthandAndFixesSentences() {
+        // Act
+        String result = polisher.polish("  thx for ur help b4 the release!!!   u r gr8 ");
+
+        // Assert
+        assertEquals("Thanks for your help before the release! You are great.", result);
+    }
+
+    @Test
+    void polish_CapitalizesPronounAndTrimsSpaceBeforePunctuation() {
+        // Act
+        String result = polisher.polish("i think she is a very helpful teammate , imo");
+
+        // Assert
+        assertEquals("I think she is a very helpful teammate, in my opinion.", result);
+    }
+
+    @Test
+    void polish_Batch_KeepsOrderAndIsDeterministic() {
+        // Act
+        List<String> first = polisher.polish(List.of("great teammate", "very helpful"));
+        List<String> second = polisher.polish(List.of("great teammate", "very helpful"));
+
+        // Assert
+        assertEquals(List.of("Great teammate.", "Very helpful."), first);
+        assertEquals(first, second);
+    }
+}
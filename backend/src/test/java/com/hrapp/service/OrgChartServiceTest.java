@@ -0,0 +1,60 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ReportingLine;
+import com.hrapp.exception.ProfileNotFoundException;
+import com.hrapp.model.UserRole;
+import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.security.HrPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrgChartServiceTest {
+
+    @Mock
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    @Mock
+    private OrgChart orgChart;
+
+    @InjectMocks
+    private OrgChartService orgChartService;
+
+    private UUID managerId;
+    private UUID employeeId;
+    private HrPrincipal principal;
+
+    @BeforeEach
+    void setUp() {
+        managerId = UUID.randomUUID();
+        employeeId = UUID.randomUUID();
+        principal = new HrPrincipal(employeeId, "employee@test.com", UserRole.EMPLOYEE);
+        when(orgChart.getSnapshot()).thenReturn(OrgChartSnapshot.of(List.of(
+                new ReportingLine(managerId, null),
+                new ReportingLine(employeeId, managerId))));
+    }
+
+    @Test
+    void getSpanOfControl_KnownUser_ReturnsSpan() {
+        // Act & Assert
+        assertEquals(1, orgChartService.getSpanOfControl(managerId, principal).getTotalReports());
+        assertEquals(0, orgChartService.getSpanOfControl(employeeId, principal).getTotalReports());
+    }
+
+    @Test
+    void getSpanOfControl_UnknownUser_ThrowsProfileNotFoundException() {
+        // Act & Assert
+        assertThrows(ProfileNotFoundException.class,
+                () -> orgChartService.getSpanOfControl(UUID.randomUUID(), principal));
+    }
+}
@@ -0,0 +1,60 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ReportingLine;
+import com.hrapp.dto.SpanOfControlDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrgChartSnapshotTest {
+
+    private UUID ceo;
+    private UUID lead;
+    private UUID engineer;
+    private UUID analyst;
+    private OrgChartSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        ceo = UUID.randomUUID();
+        lead = UUID.randomUUID();
+        engineer = UUID.randomUUID();
+        analyst = UUID.randomUUID();
+        snapshot = OrgChartSnapshot.of(List.of(
+                new ReportingLine(ceo, null),
+                new ReportingLine(lead, ceo),
+                new ReportingLine(engineer, lead),
+                new ReportingLine(analyst, ceo)));
+    }
+
+    @Test
+    void getSpanOfControl_CountsDirectAndIndirectReports() {
+        // Act
+        SpanOfControlDto span = snapshot.getSpanOfControl(ceo);
+
+        // Assert
+        assertEquals(2, span.getDirectReports());
+        assertEquals(3, span.getTotalReports());
+        assertEquals(2, span.getLevels());
+        assertEquals(0, snapshot.getSpanOfControl(engineer).getTotalReports());
+        assertTrue(snapshot.contains(ceo));
+        assertFalse(snapshot.contains(UUID.randomUUID()));
+    }
+
+    @Test
+    void getSpanOfControl_ManagerCycle_Terminates() {
+        // Arrange
+        OrgChartSnapshot cyclic = OrgChartSnapshot.of(List.of(new ReportingLine(lead, engineer), new ReportingLine(engineer, lead)));
+
+        // Act
+        SpanOfControlDto span = cyclic.getSpanOfControl(lead);
+
+        // Assert
+        assertEquals(1, span.getDirectReports());
+        assertEquals(3, span.getLevels());
+    }
+}
@@ -0,0 +1,94 @@
+package com.hrapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PolishedFeedbackCacheTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PolishedFeedbackCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PolishedFeedbackCache();
+        ReflectionTestUtils.setField(cache, "jdbcTemplate", jdbcTemplate);
+    }
+
+    @Test
+    void key_IgnoresCaseSpacingAndTrailingFullStops() {
+        // Act
+        String key = PolishedFeedbackCache.key("local-1", "great teammate");
+
+        // Assert
+        assertEquals(64, key.length());
+        assertEquals(key, PolishedFeedbackCache.key("local-1", "  Great   TEAMMATE!! "));
+        assertEquals(key, PolishedFeedbackCache.key("local-1", "great teammate."));
+        assertNotEquals(key, PolishedFeedbackCache.key("local-1", "great teammate?"));
+        assertNotEquals(key, PolishedFeedbackCache.key("local-2", "great teammate"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_AfterPutAll_ServedFromMemoryWithoutQuery() {
+        // Arrange
+        cache.putAll(Map.of("a", "Great teammate."));
+
+        // Act
+        Map<String, String> result = cache.getAll(List.of("a"));
+
+        // Assert
+        assertEquals(Map.of("a", "Great teammate."), result);
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_MemoryMiss_LoadsFromTableAndPromotes() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenReturn(List.of(Map.entry("a", "Great teammate.")));
+
+        // Act
+        Map<String, String> first = cache.getAll(List.of("a", "b", "a"));
+        Map<String, String> second = cache.getAll(List.of("a"));
+
+        // Assert
+        assertEquals(Map.of("a", "Great teammate."), first);
+        assertEquals(Map.of("a", "Great teammate."), second);
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq("a"), eq("b"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_TableUnavailable_ReturnsMisses() {
+        // Arrange
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        // Act
+        Map<String, String> result = cache.getAll(List.of("a"));
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+}
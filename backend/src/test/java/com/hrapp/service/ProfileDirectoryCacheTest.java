@@ -0,0 +1,103 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.repository.EmployeeProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileDirectoryCacheTest {
+
+    @Mock
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    @InjectMocks
+    private ProfileDirectoryCache profileDirectoryCache;
+
+    private ProfileDirectoryEntry john;
+    private ProfileDirectoryEntry alice;
+
+    @BeforeEach
+    void setUp() {
+        john = new ProfileDirectoryEntry(UUID.randomUUID(), "John", "Doe", "Engineering", null);
+        alice = new ProfileDirectoryEntry(UUID.randomUUID(), "Alice", "Manager", "Engineering", null);
+    }
+
+    @Test
+    void getAll_LoadsMissesOnceAndServesRepeatsFromCache() {
+        // Arrange
+        when(employeeProfileRepository.findDirectoryEntriesByUserIdIn(anyCollection())).thenReturn(List.of(john, alice));
+
+        // Act
+        Map<UUID, ProfileDirectoryEntry> first = profileDirectoryCache.getAll(Set.of(john.getUserId(), alice.getUserId()));
+        Map<UUID, ProfileDirectoryEntry> second = profileDirectoryCache.getAll(Set.of(john.getUserId(), alice.getUserId()));
+
+        // Assert
+        assertEquals(2, first.size());
+        assertEquals("John Doe", second.get(john.getUserId()).getFullName());
+        verify(employeeProfileRepository, times(1)).findDirectoryEntriesByUserIdIn(anyCollection());
+        assertEquals(2, profileDirectoryCache.getHitCount());
+        assertEquals(2, profileDirectoryCache.getMissCount());
+    }
+
+    @Test
+    void onProfileUpdated_EvictsEntry() {
+        // Arrange
+        when(employeeProfileRepository.findDirectoryEntriesByUserIdIn(anyCollection())).thenReturn(List.of(john));
+        profileDirectoryCache.get(john.getUserId());
+
+        // Act
+        profileDirectoryCache.onProfileUpdated(new ProfileUpdatedEvent(john.getUserId()));
+        profileDirectoryCache.get(john.getUserId());
+
+        // Assert
+        verify(employeeProfileRepository, times(2)).findDirectoryEntriesByUserIdIn(anyCollection());
+    }
+
+    @Test
+    void getAll_FullCache_EvictsLeastRecentlyUsed() {
+        // Arrange
+        ReflectionTestUtils.setField(profileDirectoryCache, "maxEntries", 1);
+        when(employeeProfileRepository.findDirectoryEntriesByUserIdIn(anyCollection()))
+                .thenReturn(List.of(john), List.of(alice));
+
+        // Act
+        profileDirectoryCache.get(john.getUserId());
+        profileDirectoryCache.get(alice.getUserId());
+
+        // Assert
+        assertEquals(1, profileDirectoryCache.size());
+        assertEquals(1, profileDirectoryCache.getEvictionCount());
+    }
+
+    @Test
+    void bindTo_RegistersHitAndMissCounters() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        profileDirectoryCache.bindTo(registry);
+        when(employeeProfileRepository.findDirectoryEntriesByUserIdIn(anyCollection())).thenReturn(List.of(john));
+
+        // Act
+        profileDirectoryCache.get(john.getUserId());
+        profileDirectoryCache.get(john.getUserId());
+
+        // Assert
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+}
@@ -0,0 +1,153 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.ProfileImportError;
+import com.hrapp.dto.ProfileImportResultDto;
+import com.hrapp.dto.ProfileImportRow;
+import com.hrapp.exception.ImportCapacityExceededException;
+import com.hrapp.exception.InvalidImportFileException;
+import com.hrapp.model.UserRole;
+import com.hrapp.security.HrPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileImportServiceTest {
+
+    private static final String HEADER = "email,password,role,employee_id,first_name,last_name,hire_date,manager_email\n";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private ProfileImportService importService;
+    private HrPrincipal manager;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ProfileImportService();
+        ReflectionTestUtils.setField(importService, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(importService, "transactionTemplate", transactionTemplate);
+        ReflectionTestUtils.setField(importService, "passwordEncoder", passwordEncoder);
+        ReflectionTestUtils.setField(importService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(importService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(importService, "threads", 2);
+        importService.start();
+
+        manager = new HrPrincipal(UUID.randomUUID(), "manager@test.com", UserRole.MANAGER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.stop();
+    }
+
+    @Test
+    void importProfiles_InvalidRows_ReportsEveryProblemByLineWithoutTouchingTheDatabase() throws IOException {
+        // Arrange
+        String csv = HEADER
+                + "ann@test.com,Welcome-2026!,MANAGER,E1,Ann,Lee,2026-11-01,\n"
+                + "not-an-email,Welcome-2026!,EMPLOYEE,E2,Bob,Ray,2026-11-31,ann@test.com\n"
+                + "ann@test.com,short,BOSS,E3,Cy,Orr,,\n"
+                + "dan@test.com,Welcome-2026!\n";
+
+        // Act
+        ProfileImportResultDto result = importService.importProfiles(input(csv), manager);
+
+        // Assert
+        assertEquals(3, result.getRows());
+        assertEquals(0, result.getImported());
+        List<ProfileImportError> errors = result.getErrors();
+        assertEquals(List.of(3, 3, 4, 4, 4, 5), errors.stream().map(ProfileImportError::getLine).toList());
+        assertTrue(errors.stream().anyMatch(e -> e.getLine() == 3 && "hire_date".equals(e.getField())));
+        assertTrue(errors.stream().anyMatch(e -> e.getLine() == 4 && "email".equals(e.getField())
+                && e.getMessage().equals("Also used on line 2")));
+        assertTrue(errors.stream().anyMatch(e -> e.getLine() == 4 && "role".equals(e.getField())));
+        assertEquals("Expected 8 fields, found 2", errors.get(5).getMessage());
+        verifyNoInteractions(transactionTemplate, jdbcTemplate, passwordEncoder);
+    }
+
+    @Test
+    void importProfiles_UnknownColumn_ThrowsInvalidImportFileException() {
+        // Act & Assert
+        InvalidImportFileException exception = assertThrows(InvalidImportFileException.class,
+                () -> importService.importProfiles(input("email,password,shoe_size\n"), manager));
+        assertEquals("Unknown column: shoe_size", exception.getMessage());
+    }
+
+    @Test
+    void importProfiles_AsEmployee_ThrowsAccessDeniedException() {
+        // Arrange
+        HrPrincipal employee = new HrPrincipal(UUID.randomUUID(), "employee@test.com", UserRole.EMPLOYEE);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> importService.importProfiles(input(HEADER), employee));
+    }
+
+    @Test
+    void importProfiles_AnotherImportRunning_ThrowsImportCapacityExceededException() {
+        // Arrange
+        ReflectionTestUtils.setField(importService, "permit", new Semaphore(0));
+
+        // Act & Assert
+        assertThrows(ImportCapacityExceededException.class, () -> importService.importProfiles(input(HEADER), manager));
+    }
+
+    @Test
+    void writeStaging_ValuesASpreadsheetWouldEvaluate_AreWrittenVerbatim() throws IOException {
+        // Arrange
+        ProfileImportRow row = new ProfileImportRow(2);
+        row.setEmail("ann@test.com");
+        row.setEmployeeId("E1");
+        row.setFirstName("-Ann");
+        row.setLastName("@Lee");
+        row.setPhone("+44 20 7946 0000");
+        row.setAddress("1 Main St, Leeds");
+        UUID userId = UUID.randomUUID();
+        UUID profileId = UUID.randomUUID();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        ProfileImportService.writeStaging(output, List.of(row), new UUID[] {userId}, new UUID[] {profileId},
+                new String[] {"$2a$10$hash"});
+
+        // Assert
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("line,user_id,profile_id,email,password_hash,"));
+        assertEquals("2," + userId + "," + profileId + ",ann@test.com,$2a$10$hash,EMPLOYEE,E1,-Ann,@Lee,,,,"
+                + "+44 20 7946 0000,\"1 Main St, Leeds\",,,,", lines[1]);
+    }
+
+    private static InputStream input(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
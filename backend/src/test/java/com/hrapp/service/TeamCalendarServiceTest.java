@@ -0,0 +1,135 @@
+package com.hrapp.service;
+
+import com.hrapp.dto.AbsencePeriod;
+import com.hrapp.dto.ProfileDirectoryEntry;
+import com.hrapp.dto.TeamCalendarDto;
+import com.hrapp.exception.InvalidDateRangeException;
+import com.hrapp.model.AbsenceStatus;
+import com.hrapp.model.UserRole;
+import com.hrapp.repository.AbsenceRequestRepository;
+import com.hrapp.repository.EmployeeProfileRepository;
+import com.hrapp.security.HrPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeamCalendarServiceTest {
+
+    @Mock
+    private EmployeeProfileRepository employeeProfileRepository;
+
+    @Mock
+    private AbsenceRequestRepository absenceRequestRepository;
+
+    @Mock
+    private ProfileDirectoryCache profileDirectoryCache;
+
+    @InjectMocks
+    private TeamCalendarService teamCalendarService;
+
+    private HrPrincipal managerPrincipal;
+    private UUID johnId;
+    private UUID janeId;
+
+    @BeforeEach
+    void setUp() {
+        managerPrincipal = new HrPrincipal(UUID.randomUUID(), "manager@test.com", UserRole.MANAGER);
+        johnId = UUID.randomUUID();
+        janeId = UUID.randomUUID();
+    }
+
+    @Test
+    void getTeamCalendar_ReturnsApprovedAbsencesPerDay() {
+        // Arrange
+        when(employeeProfileRepository.findUserIdsByManagerId(managerPrincipal.getUserId())).thenReturn(List.of(johnId, janeId));
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(List.of(johnId, janeId))).thenReturn(List.of(
+                new AbsencePeriod(UUID.randomUUID(), johnId, LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 3), AbsenceStatus.APPROVED),
+                new AbsencePeriod(UUID.randomUUID(), janeId, LocalDate.of(2024, 7, 3), LocalDate.of(2024, 7, 3), AbsenceStatus.PENDING)));
+        when(profileDirectoryCache.getAll(List.of(johnId))).thenReturn(Map.of(johnId,
+                new ProfileDirectoryEntry(johnId, "John", "Doe", "Engineering", managerPrincipal.getUserId())));
+
+        // Act
+        TeamCalendarDto result = teamCalendarService.getTeamCalendar(
+                LocalDate.of(2024, 6, 30), LocalDate.of(2024, 7, 4), managerPrincipal);
+
+        // Assert
+        assertEquals(2, result.getTeamSize());
+        assertEquals(5, result.getDays().size());
+        assertTrue(result.getDays().get(0).getAbsentEmployeeIds().isEmpty());
+        assertEquals(List.of(johnId), result.getDays().get(3).getAbsentEmployeeIds());
+        assertTrue(result.getDays().get(4).getAbsentEmployeeIds().isEmpty());
+        assertEquals("John Doe", result.getAbsentees().get(0).getFullName());
+    }
+
+    @Test
+    void onAbsenceRequestChanged_Approval_UpdatesCachedTeamWithoutReloading() {
+        // Arrange
+        when(employeeProfileRepository.findUserIdsByManagerId(managerPrincipal.getUserId())).thenReturn(List.of(johnId, janeId));
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(anyCollection())).thenReturn(List.of());
+        teamCalendarService.getTeamCalendar(LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), managerPrincipal);
+
+        // Act
+        teamCalendarService.onAbsenceRequestChanged(new AbsenceRequestChangedEvent(new AbsencePeriod(UUID.randomUUID(),
+                janeId, LocalDate.of(2024, 7, 10), LocalDate.of(2024, 7, 11), AbsenceStatus.APPROVED), false));
+        TeamCalendarDto result = teamCalendarService.getTeamCalendar(
+                LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), managerPrincipal);
+
+        // Assert
+        assertEquals(List.of(janeId), result.getDays().get(9).getAbsentEmployeeIds());
+        assertEquals(List.of(janeId), result.getDays().get(10).getAbsentEmployeeIds());
+        assertTrue(result.getDays().get(11).getAbsentEmployeeIds().isEmpty());
+        verify(employeeProfileRepository, times(1)).findUserIdsByManagerId(managerPrincipal.getUserId());
+        assertEquals(1, teamCalendarService.cachedTeams());
+    }
+
+    @Test
+    void getTeamCalendar_AbsenceSpanningMillennia_ExpandsOnlyTheRequestedDays() {
+        // Arrange
+        when(employeeProfileRepository.findUserIdsByManagerId(managerPrincipal.getUserId())).thenReturn(List.of(johnId, janeId));
+        when(absenceRequestRepository.findActivePeriodsByEmployeeIdIn(anyCollection())).thenReturn(List.of(
+                new AbsencePeriod(UUID.randomUUID(), johnId, LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31), AbsenceStatus.APPROVED),
+                new AbsencePeriod(UUID.randomUUID(), janeId, LocalDate.of(2024, 6, 20), LocalDate.of(2024, 7, 1), AbsenceStatus.APPROVED),
+                new AbsencePeriod(UUID.randomUUID(), janeId, LocalDate.of(2024, 7, 3), LocalDate.of(2024, 7, 3), AbsenceStatus.APPROVED)));
+
+        // Act
+        TeamCalendarDto result = teamCalendarService.getTeamCalendar(
+                LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 4), managerPrincipal);
+
+        // Assert
+        assertEquals(List.of(johnId, janeId), result.getDays().get(0).getAbsentEmployeeIds());
+        assertEquals(List.of(johnId), result.getDays().get(1).getAbsentEmployeeIds());
+        assertEquals(List.of(johnId, janeId), result.getDays().get(2).getAbsentEmployeeIds());
+        assertEquals(List.of(johnId), result.getDays().get(3).getAbsentEmployeeIds());
+    }
+
+    @Test
+    void getTeamCalendar_RangeTooLong_ThrowsInvalidDateRangeException() {
+        // Act & Assert
+        assertThrows(InvalidDateRangeException.class, () -> teamCalendarService.getTeamCalendar(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30), managerPrincipal));
+    }
+
+    @Test
+    void getTeamCalendar_AsEmployee_ThrowsAccessDeniedException() {
+        // Arrange
+        HrPrincipal employeePrincipal = new HrPrincipal(johnId, "john@test.com", UserRole.EMPLOYEE);
+
+        // Act & Assert
+        assertThrows(AccessDeniedException.class, () -> teamCalendarService.getTeamCalendar(
+                LocalDate.of(2024, 7, 1), LocalDate.of(2024, 7, 31), employeePrincipal));
+    }
+}
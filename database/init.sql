@@ -3,6 +3,9 @@
 -- Enable UUID extension
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
+-- Lets a GiST exclusion constraint combine equality on a UUID with range overlap
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 -- User roles enum
 CREATE TYPE user_role AS ENUM ('MANAGER', 'EMPLOYEE');
 
@@ -49,7 +52,13 @@ CREATE TABLE absence_requests (
     approved_by UUID REFERENCES users(id),
     requested_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     approved_at TIMESTAMP,
-    comments TEXT
+    comments TEXT,
+    CONSTRAINT absence_requests_date_order CHECK (end_date >= start_date),
+    -- An employee's pending and approved absences may not overlap; rejected requests are kept as history
+    CONSTRAINT absence_requests_no_overlap EXCLUDE USING gist (
+        employee_id WITH =,
+        daterange(start_date, end_date, '[]') WITH &&
+    ) WHERE (status IN ('PENDING', 'APPROVED'))
 );
 
 -- Feedback table for coworker feedback
@@ -62,13 +71,55 @@ CREATE TABLE feedback (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Polished results keyed by a SHA-256 of the polisher version and the normalized raw text, so feedback that has been
+-- polished before skips the polisher; rows do not point back at the feedback they came from
+CREATE TABLE polished_feedback_cache (
+    text_hash VARCHAR(64) PRIMARY KEY,
+    polished_text TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Revoked token ids (logout, refresh token rotation); rows can be deleted once the token has expired
+CREATE TABLE revoked_tokens (
+    jti UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Reporting lines at every distance: one row per (manager, report) pair plus a depth 0 row per employee, kept in step
+-- with employee_profiles.manager_id by the application
+CREATE TABLE org_closure (
+    ancestor_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    depth INTEGER NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
 -- Indexes for better performance
 CREATE INDEX idx_users_email ON users(email);
 CREATE INDEX idx_employee_profiles_user_id ON employee_profiles(user_id);
 CREATE INDEX idx_employee_profiles_employee_id ON employee_profiles(employee_id);
-CREATE INDEX idx_absence_requests_employee_id ON absence_requests(employee_id);
-CREATE INDEX idx_absence_requests_status ON absence_requests(status);
-CREATE INDEX idx_feedback_profile_id ON feedback(profile_id);
+CREATE INDEX idx_employee_profiles_department ON employee_profiles(department, user_id);
+CREATE INDEX idx_employee_profiles_last_name_id ON employee_profiles(last_name, id);
+CREATE INDEX idx_employee_profiles_directory_department ON employee_profiles((COALESCE(department, '')), last_name, id);
+-- Keyset pagination indexes, matching ORDER BY requested_at DESC, id DESC
+CREATE INDEX idx_absence_requests_requested_at_id ON absence_requests(requested_at DESC, id DESC);
+CREATE INDEX idx_absence_requests_status_requested_at_id ON absence_requests(status, requested_at DESC, id DESC);
+CREATE INDEX idx_absence_requests_employee_requested_at_id ON absence_requests(employee_id, requested_at DESC, id DESC);
+-- Feedback timeline pages, matching ORDER BY created_at DESC, id DESC within a profile
+CREATE INDEX idx_feedback_profile_created_at_id ON feedback(profile_id, created_at DESC, id DESC);
+-- Feedback still waiting for the polishing pipeline, oldest first
+CREATE INDEX idx_feedback_unpolished ON feedback(created_at) WHERE polished_feedback IS NULL;
+-- Team lookups, and foreign keys to users so deleting a user does not scan these tables
+CREATE INDEX idx_employee_profiles_manager_id ON employee_profiles(manager_id);
+CREATE INDEX idx_absence_requests_approved_by ON absence_requests(approved_by);
+CREATE INDEX idx_feedback_feedback_by ON feedback(feedback_by);
+-- Managers above an employee, used when moving a subtree and by the ON DELETE CASCADE from users
+CREATE INDEX idx_org_closure_descendant_id ON org_closure(descendant_id, ancestor_id);
+CREATE INDEX idx_revoked_tokens_user_id ON revoked_tokens(user_id);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens(expires_at);
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens(revoked_at);
 
 -- Insert some sample data (with explicit UUIDs for consistency)
 INSERT INTO users (id, email, password_hash, role) VALUES
@@ -79,4 +130,15 @@ INSERT INTO users (id, email, password_hash, role) VALUES
 INSERT INTO employee_profiles (user_id, employee_id, first_name, last_name, department, position, hire_date, phone, address, manager_id) VALUES
 ('550e8400-e29b-41d4-a716-446655440001', 'MGR001', 'Alice', 'Manager', 'HR', 'HR Manager', '2020-01-15', '+1-555-0101', '123 Manager St', NULL),
 ('550e8400-e29b-41d4-a716-446655440002', 'EMP001', 'John', 'Doe', 'Engineering', 'Software Developer', '2021-03-01', '+1-555-0102', '456 Employee Ave', '550e8400-e29b-41d4-a716-446655440001'),
-('550e8400-e29b-41d4-a716-446655440003', 'EMP002', 'Jane', 'Smith', 'Engineering', 'Senior Developer', '2020-06-15', '+1-555-0103', '789 Coworker Blvd', '550e8400-e29b-41d4-a716-446655440001');
\ No newline at end of file
+('550e8400-e29b-41d4-a716-446655440003', 'EMP002', 'Jane', 'Smith', 'Engineering', 'Senior Developer', '2020-06-15', '+1-555-0103', '789 Coworker Blvd', '550e8400-e29b-41d4-a716-446655440001');
+
+-- Fill org_closure from the manager links above; the same statement backfills a database created before the table
+INSERT INTO org_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE closure AS (
+    SELECT user_id AS ancestor_id, user_id AS descendant_id, 0 AS depth FROM employee_profiles
+    UNION ALL
+    SELECT closure.ancestor_id, e.user_id, closure.depth + 1
+    FROM employee_profiles e JOIN closure ON e.manager_id = closure.descendant_id
+)
+SELECT ancestor_id, descendant_id, depth FROM closure
+ON CONFLICT DO NOTHING;
@@ -1,8 +1,11 @@
-import axios from 'axios';
+import axios, { InternalAxiosRequestConfig } from 'axios';
 import Cookies from 'js-cookie';
 
 const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080';
 
+// Refresh tokens last 7 days; the access token inside the cookie expires on its own much sooner
+export const SESSION_COOKIE_DAYS = 7;
+
 const api = axios.create({
   baseURL: API_BASE_URL,
   headers: {
@@ -19,16 +22,55 @@ api.interceptors.request.use((config) => {
   return config;
 });
 
-// Handle auth errors
+export const clearSession = () => {
+  Cookies.remove('auth-token');
+  Cookies.remove('refresh-token');
+  Cookies.remove('user-role');
+  Cookies.remove('user-id');
+};
+
+// One refresh at a time: concurrent 401s wait for the same rotation instead of each spending the refresh token
+let refreshInFlight: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshInFlight) {
+    const refreshToken = Cookies.get('refresh-token');
+    refreshInFlight = (refreshToken
+      ? axios.post(`${API_BASE_URL}/api/auth/refresh`, { refreshToken }).then((response) => {
+          Cookies.set('auth-token', response.data.token, { expires: SESSION_COOKIE_DAYS });
+          Cookies.set('refresh-token', response.data.refreshToken, { expires: SESSION_COOKIE_DAYS });
+          return response.data.token as string;
+        })
+      : Promise.reject(new Error('No refresh token'))
+    ).finally(() => {
+      refreshInFlight = null;
+    });
+  }
+  return refreshInFlight;
+};
+
+// Handle auth errors: refresh an expired access token once and replay the request, otherwise back to login
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response?.status === 401) {
-      Cookies.remove('auth-token');
+  async (error) => {
+    const original = error.config as (InternalAxiosRequestConfig & { retried?: boolean }) | undefined;
+    const isAuthCall = original?.url?.startsWith('/api/auth/');
+    if (error.response?.status === 401 && original && !original.retried && !isAuthCall) {
+      original.retried = true;
+      try {
+        const token = await refreshAccessToken();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch {
+        // fall through to the login redirect
+      }
+    }
+    if (error.response?.status === 401 && !isAuthCall) {
+      clearSession();
       window.location.href = '/login';
     }
     return Promise.reject(error);
   }
 );
 
-export default api;
\ No newline at end of file
+export default api;
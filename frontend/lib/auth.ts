@@ -1,9 +1,11 @@
-import api from './api';
+import api, { clearSession, SESSION_COOKIE_DAYS } from './api';
 import Cookies from 'js-cookie';
 import { UserRole } from '@/types';
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
+  expiresIn: number;
   userId: string;
   email: string;
   role: UserRole;
@@ -19,18 +21,23 @@ export const authService = {
     const response = await api.post('/api/auth/login', credentials);
     const authData = response.data;
     
-    // Store token in cookie
-    Cookies.set('auth-token', authData.token, { expires: 1 });
-    Cookies.set('user-role', authData.role, { expires: 1 });
-    Cookies.set('user-id', authData.userId, { expires: 1 });
+    // Store tokens in cookies
+    Cookies.set('auth-token', authData.token, { expires: SESSION_COOKIE_DAYS });
+    Cookies.set('refresh-token', authData.refreshToken, { expires: SESSION_COOKIE_DAYS });
+    Cookies.set('user-role', authData.role, { expires: SESSION_COOKIE_DAYS });
+    Cookies.set('user-id', authData.userId, { expires: SESSION_COOKIE_DAYS });
     
     return authData;
   },
 
-  logout() {
-    Cookies.remove('auth-token');
-    Cookies.remove('user-role');
-    Cookies.remove('user-id');
+  async logout() {
+    // Revoke both tokens server-side; the local session is cleared even if that call fails
+    try {
+      await api.post('/api/auth/logout', { refreshToken: Cookies.get('refresh-token') });
+    } catch {
+      // ignore
+    }
+    clearSession();
     window.location.href = '/login';
   },
 